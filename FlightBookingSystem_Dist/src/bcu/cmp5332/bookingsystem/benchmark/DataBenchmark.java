@@ -0,0 +1,125 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.gui.FlightTableModel;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+import javax.swing.JTable;
+
+/**
+ * Benchmarks the load, store, booking and flight table paths against generated
+ * data sets of increasing size, to show how each one scales.
+ * <p>
+ * Every size is generated with {@link SyntheticDataGenerator} into a scratch data
+ * directory (the {@code fbs.data.dir} system property, or a new temporary
+ * directory), so the real data files are never touched.
+ * <p>
+ * Usage: {@code java -Xmx8g bcu.cmp5332.bookingsystem.benchmark.DataBenchmark [sizes] [warmups] [iterations]},
+ * where {@code sizes} is a comma-separated list of booking counts, for example
+ * {@code 1000,10000,100000,1000000,10000000}.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class DataBenchmark {
+
+    private static final int MUTATIONS = 10_000;
+    // Later than every generated booking date, so the booking key never clashes
+    private static final LocalDate MUTATION_DATE = LocalDate.of(2030, 1, 1);
+
+    public static void main(String[] args) throws Exception {
+        String sizes = args.length > 0 ? args[0] : "1000,10000,100000";
+        int warmups = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        // Must be set before the data classes are initialised
+        if (System.getProperty("fbs.data.dir") == null) {
+            System.setProperty("fbs.data.dir", Files.createTempDirectory("fbs-bench").toString());
+        }
+        System.setProperty("java.awt.headless", "true");
+        Path directory = Paths.get(System.getProperty("fbs.data.dir"));
+        System.out.println("Data directory: " + directory.toAbsolutePath());
+
+        Harness harness = new Harness(warmups, iterations);
+        Harness.printHeader();
+        for (String size : sizes.split(",")) {
+            int bookings = Integer.parseInt(size.trim());
+            SyntheticDataGenerator.generate(directory, bookings);
+            run(harness, bookings);
+        }
+    }
+
+    private static void run(Harness harness, int size) throws Exception {
+        harness.run("FlightBookingSystemData.load", size, 1, FlightBookingSystemData::load);
+
+        FlightBookingSystem fbs = FlightBookingSystemData.load();
+        List<Customer> customers = fbs.getCustomers();
+        List<Flight> flights = fbs.getFlights();
+        harness.run("FlightBookingSystemData.store", size, 1, () -> {
+            // Change one entity of every set first, or store skips the unchanged files
+            Customer customer = customers.get(0);
+            Flight flight = flights.get(0);
+            customer.setPhone(customer.getPhone());
+            flight.setFlightNumber(flight.getFlightNumber());
+            Booking booking = new Booking(size + 1, customer, flight, MUTATION_DATE, 1);
+            fbs.addBooking(booking);
+            fbs.removeBooking(booking);
+            FlightBookingSystemData.store(fbs);
+            return fbs;
+        });
+
+        harness.run("addBooking+getById+remove", size, MUTATIONS, () -> {
+            long checksum = 0;
+            for (int i = 0; i < MUTATIONS; i++) {
+                Customer customer = customers.get(i % customers.size());
+                Flight flight = flights.get((int) ((i * 7L) % flights.size()));
+                Booking booking = new Booking(size + 1 + i, customer, flight, MUTATION_DATE, 1);
+                fbs.addBooking(booking);
+                checksum += fbs.getBookingById(customer.getId(), flight.getId()).getId();
+                fbs.removeBooking(booking);
+            }
+            return checksum;
+        });
+
+        harness.run("getBookingById", size, MUTATIONS, () -> {
+            long checksum = 0;
+            for (int i = 0; i < MUTATIONS; i++) {
+                Customer customer = customers.get((int) ((i * 31L) % customers.size()));
+                Booking first = customer.getBookings().get(0);
+                checksum += fbs.getBookingById(customer.getId(), first.getFlight().getId()).getId();
+            }
+            return checksum;
+        });
+
+        LocalDate today = LocalDate.now();
+        harness.run("Flight.calculatePrice", size, flights.size(), () -> {
+            double total = 0;
+            for (Flight flight : flights) {
+                total += flight.calculatePrice(today);
+            }
+            return total;
+        });
+
+        harness.run("MainWindow flight table", size, 1, () -> {
+            FlightTableModel model = new FlightTableModel(from -> fbs.getFlightsDepartingFrom(from).iterator(),
+                    flight -> flight.getStatus() == 1, today);
+            JTable table = new JTable(model);
+            // The cells of one screenful of rows, as the table paints them
+            long cells = 0;
+            for (int row = 0; row < Math.min(40, table.getRowCount()); row++) {
+                for (int column = 0; column < table.getColumnCount(); column++) {
+                    cells += table.getValueAt(row, column) != null ? 1 : 0;
+                }
+            }
+            return cells;
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.data.BookingJournal;
+import bcu.cmp5332.bookingsystem.data.GroupCommitter;
+import bcu.cmp5332.bookingsystem.data.JournalRecord;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures durable booking writes per second when many threads persist bookings at
+ * once.
+ * <p>
+ * Every thread repeatedly writes a booking record to a journal in a temporary
+ * directory and waits until it has been forced to disk. The baseline appends and
+ * forces each record on its own, as every booking command did before group commit;
+ * the group-committed variant hands the records to a {@link GroupCommitter}, which
+ * forces each batch once.
+ * <p>
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.GroupCommitBenchmark [maxThreads] [seconds]}
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class GroupCommitBenchmark {
+
+    /**
+     * Durably writes one record on behalf of a caller.
+     */
+    private interface Writer {
+        void write(JournalRecord record) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        Customer customer = new Customer(1, "Benchmark", "0000000000", "bench@example.com", 1);
+        Flight flight = new Flight(1, "BM001", "Kathmandu", "Pokhara", LocalDate.now(), Integer.MAX_VALUE, 100.0,
+                10.0, 1);
+        JournalRecord record = JournalRecord.added(new Booking(1, customer, flight, LocalDate.now(), 1));
+        FlightBookingSystem fbs = new FlightBookingSystem();
+
+        System.out.printf("%-8s %18s %18s %12s%n", "threads", "per-record ops/s", "group ops/s", "avg batch");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            BookingJournal single = journal();
+            double perRecord = measure(single::append, record, threads, seconds);
+            single.close();
+
+            BookingJournal grouped = journal();
+            GroupCommitter committer = new GroupCommitter((system, records) -> grouped.appendAll(records));
+            double group = measure(r -> committer.submit(fbs, r).get(), record, threads, seconds);
+            grouped.close();
+
+            System.out.printf("%-8d %18.0f %18.0f %12.1f%n", threads, perRecord, group,
+                    (double) committer.getRecordCount() / Math.max(1, committer.getBatchCount()));
+        }
+    }
+
+    private static BookingJournal journal() throws IOException {
+        Path directory = Files.createTempDirectory("fbs-group-commit");
+        Path file = directory.resolve("bookings.journal");
+        file.toFile().deleteOnExit();
+        directory.toFile().deleteOnExit();
+        return new BookingJournal(file);
+    }
+
+    private static double measure(Writer writer, JournalRecord record, int threads, int seconds)
+            throws InterruptedException {
+        long durationNanos = TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder operations = new LongAdder();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    long deadline = System.nanoTime() + durationNanos;
+                    while (System.nanoTime() < deadline) {
+                        writer.write(record);
+                        operations.increment();
+                    }
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum() / (double) seconds;
+    }
+}
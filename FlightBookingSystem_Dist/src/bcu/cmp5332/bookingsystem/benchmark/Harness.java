@@ -0,0 +1,81 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Minimal measurement harness for the benchmarks in this package. Runs a task for
+ * a number of warm-up iterations, so the JIT has compiled the hot paths, and then
+ * reports the per-operation time of the measured iterations.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class Harness {
+
+    /**
+     * A benchmarked task. Each call performs {@code operations} operations and
+     * returns a value derived from them, which is consumed so the JIT cannot remove
+     * the work as dead code.
+     */
+    public interface Task {
+        Object run() throws Exception;
+    }
+
+    private static volatile Object sink;
+
+    private final int warmupIterations;
+    private final int measuredIterations;
+
+    /**
+     * Constructs a harness.
+     *
+     * @param warmupIterations the number of unmeasured iterations run first
+     * @param measuredIterations the number of measured iterations
+     */
+    public Harness(int warmupIterations, int measuredIterations) {
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+    }
+
+    /**
+     * Measures a task and prints one result line.
+     *
+     * @param name the benchmark name
+     * @param size the data set size, in bookings
+     * @param operations the number of operations performed by one call of the task
+     * @param task the task
+     * @throws Exception if the task fails
+     */
+    public void run(String name, int size, long operations, Task task) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            sink = task.run();
+        }
+        double[] nanosPerOp = new double[measuredIterations];
+        for (int i = 0; i < measuredIterations; i++) {
+            long start = System.nanoTime();
+            sink = task.run();
+            nanosPerOp[i] = (double) (System.nanoTime() - start) / operations;
+        }
+        Arrays.sort(nanosPerOp);
+        double mean = Arrays.stream(nanosPerOp).average().orElse(0);
+        System.out.printf("%-28s %10d %16s %16s %16s%n", name, size, format(mean), format(nanosPerOp[0]),
+                format(nanosPerOp[nanosPerOp.length - 1]));
+    }
+
+    /**
+     * Prints the column headings for {@link #run} result lines.
+     */
+    public static void printHeader() {
+        System.out.printf("%-28s %10s %16s %16s %16s%n", "benchmark", "bookings", "mean/op", "min/op", "max/op");
+    }
+
+    private static String format(double nanos) {
+        if (nanos >= 1_000_000) {
+            return String.format("%.2f ms", nanos / 1_000_000);
+        }
+        if (nanos >= 1_000) {
+            return String.format("%.2f us", nanos / 1_000);
+        }
+        return String.format("%.1f ns", nanos);
+    }
+}
@@ -0,0 +1,122 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures booking throughput when many threads book one popular flight.
+ * <p>
+ * Each thread repeatedly books a seat with {@link FlightBookingSystem#addBooking}
+ * and cancels it again with {@link FlightBookingSystem#removeBooking}, the same path
+ * the booking commands take: the flight's lock stripe, the lock-free seat counter,
+ * the passenger list and the booking indexes. The flight has fewer seats than there
+ * are threads at the higher thread counts, so it is kept close to full and some
+ * bookings are turned away. This is compared with every thread booking a flight of
+ * its own on a different lock stripe, which shows how much of the cost is contention
+ * on the popular flight rather than the work of a booking.
+ * <p>
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.SeatContentionBenchmark [maxThreads] [seconds]}
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class SeatContentionBenchmark {
+
+    private static final int CAPACITY = 4;
+    private static final LocalDate BOOKING_DATE = LocalDate.of(2025, 1, 1);
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 2;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        System.out.printf("%-8s %18s %18s%n", "threads", "one flight ops/s", "own flight ops/s");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double shared = run(threads, seconds, true);
+            double own = run(threads, seconds, false);
+            System.out.printf("%-8d %18.0f %18.0f%n", threads, shared, own);
+        }
+    }
+
+    private static double run(int threads, int seconds, boolean oneFlight) throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        List<Flight> flights = new ArrayList<>();
+        for (int t = 0; t < (oneFlight ? 1 : threads); t++) {
+            Flight flight = new Flight(t + 1, "BM" + (t + 1), "Kathmandu", "Pokhara", LocalDate.now(), CAPACITY,
+                    100.0, 10.0, 1);
+            fbs.addFlight(flight);
+            flights.add(flight);
+        }
+        List<Customer> customers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Customer customer = new Customer(t + 1, "Customer " + (t + 1), "0", "c@example.com", 1);
+            fbs.addCustomer(customer);
+            customers.add(customer);
+        }
+
+        // Warm up so both variants are measured after JIT compilation
+        measure(fbs, flights, customers, TimeUnit.MILLISECONDS.toNanos(500));
+        double opsPerSecond = measure(fbs, flights, customers, TimeUnit.SECONDS.toNanos(seconds)) / seconds;
+        for (Flight flight : flights) {
+            if (flight.getAvailableSeats() != CAPACITY || !flight.getPassengers().isEmpty()) {
+                throw new IllegalStateException("Seat inventory leaked: " + flight.getAvailableSeats() + " of "
+                        + CAPACITY);
+            }
+        }
+        return opsPerSecond;
+    }
+
+    private static long measure(FlightBookingSystem fbs, List<Flight> flights, List<Customer> customers,
+            long durationNanos) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder operations = new LongAdder();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < customers.size(); t++) {
+            Customer customer = customers.get(t);
+            Flight flight = flights.get(t % flights.size());
+            // Each thread cancels its booking before making the next, so it can reuse the ID
+            int bookingId = t + 1;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                long deadline = System.nanoTime() + durationNanos;
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    Booking booking = new Booking(bookingId, customer, flight, BOOKING_DATE, 1);
+                    try {
+                        fbs.addBooking(booking);
+                    } catch (FlightBookingSystemException full) {
+                        count++;
+                        continue;
+                    }
+                    try {
+                        fbs.removeBooking(booking);
+                    } catch (FlightBookingSystemException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                    count++;
+                }
+                operations.add(count);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum();
+    }
+}
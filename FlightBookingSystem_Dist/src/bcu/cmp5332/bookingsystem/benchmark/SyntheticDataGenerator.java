@@ -0,0 +1,113 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+/**
+ * Writes a synthetic but valid data set in the format read by the data managers.
+ * <p>
+ * For {@code n} bookings the generator creates {@code n / 5} customers, each booked
+ * on five different flights, and {@code n / 50} flights with room for 100
+ * passengers, so every flight is about half full. Files are streamed line by line,
+ * so even the largest data sets are written without building them in memory.
+ * <p>
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.SyntheticDataGenerator <directory> <bookings>}
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class SyntheticDataGenerator {
+
+    /** Number of flights each generated customer is booked on. */
+    public static final int BOOKINGS_PER_CUSTOMER = 5;
+    /** Average number of bookings on each generated flight. */
+    public static final int BOOKINGS_PER_FLIGHT = 50;
+    /** Seats on each generated flight. */
+    public static final int CAPACITY = 100;
+
+    private static final String[] AIRPORTS = { "Kathmandu", "Pokhara", "Biratnagar", "Bhairahawa", "Nepalgunj",
+            "Bharatpur", "Janakpur", "Dhangadhi", "Simara", "Tumlingtar" };
+    private static final LocalDate FIRST_DEPARTURE = LocalDate.of(2025, 1, 1);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: SyntheticDataGenerator <directory> <bookings>");
+            return;
+        }
+        generate(Paths.get(args[0]), Integer.parseInt(args[1]));
+    }
+
+    /**
+     * Gets the number of flights generated for a data set.
+     *
+     * @param bookings the number of bookings
+     * @return the number of flights
+     */
+    public static int flightCount(int bookings) {
+        return Math.max(BOOKINGS_PER_CUSTOMER, bookings / BOOKINGS_PER_FLIGHT);
+    }
+
+    /**
+     * Gets the number of customers generated for a data set.
+     *
+     * @param bookings the number of bookings
+     * @return the number of customers
+     */
+    public static int customerCount(int bookings) {
+        return (bookings + BOOKINGS_PER_CUSTOMER - 1) / BOOKINGS_PER_CUSTOMER;
+    }
+
+    /**
+     * Writes {@code flights.txt}, {@code customers.txt} and {@code bookings.txt} into
+     * the given directory, replacing any existing files, and removes any booking
+     * journal, ID sequence file, binary snapshot or mapped booking store left there.
+     *
+     * @param directory the data directory
+     * @param bookings the number of bookings to generate
+     * @throws IOException if an I/O error occurs
+     */
+    public static void generate(Path directory, int bookings) throws IOException {
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve("bookings.journal"));
+        Files.deleteIfExists(directory.resolve("ids.txt"));
+        Files.deleteIfExists(directory.resolve("data.bin"));
+        Files.deleteIfExists(directory.resolve("bookings.dat"));
+        int flights = flightCount(bookings);
+        int customers = customerCount(bookings);
+
+        try (BufferedWriter out = Files.newBufferedWriter(directory.resolve("flights.txt"), StandardCharsets.UTF_8)) {
+            for (int id = 1; id <= flights; id++) {
+                String origin = AIRPORTS[id % AIRPORTS.length];
+                String destination = AIRPORTS[(id / AIRPORTS.length + id + 1) % AIRPORTS.length];
+                out.write(id + "::BM" + id + "::" + origin + "::" + destination + "::"
+                        + FIRST_DEPARTURE.plusDays(id % 365) + "::" + CAPACITY + "::" + (1000.0 + id % 500)
+                        + "::100.0::1::");
+                out.newLine();
+            }
+        }
+
+        try (BufferedWriter out = Files.newBufferedWriter(directory.resolve("customers.txt"), StandardCharsets.UTF_8)) {
+            for (int id = 1; id <= customers; id++) {
+                out.write(id + "::Customer " + id + "::98" + String.format("%08d", id) + "::customer" + id
+                        + "@example.com::1");
+                out.newLine();
+            }
+        }
+
+        try (BufferedWriter out = Files.newBufferedWriter(directory.resolve("bookings.txt"), StandardCharsets.UTF_8)) {
+            for (int id = 1; id <= bookings; id++) {
+                int customer = (id - 1) / BOOKINGS_PER_CUSTOMER + 1;
+                // Consecutive bookings of one customer go to distinct flights
+                int flight = (int) (((long) (customer - 1) * BOOKINGS_PER_CUSTOMER
+                        + (id - 1) % BOOKINGS_PER_CUSTOMER) % flights) + 1;
+                out.write(customer + "::" + flight + "::" + FIRST_DEPARTURE.minusDays(id % 60) + "::1::" + id);
+                out.newLine();
+            }
+        }
+    }
+}
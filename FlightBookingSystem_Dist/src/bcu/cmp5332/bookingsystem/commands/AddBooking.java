@@ -1,10 +1,12 @@
 package bcu.cmp5332.bookingsystem.commands;
 
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalRecord;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.*;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 
 /**
@@ -18,6 +20,7 @@ public class AddBooking implements Command {
     private final int flightId;
     private final LocalDate bookingDate;
     private final int status;
+    private Booking booking;
 
     /**
      * Constructs an AddBooking command.
@@ -45,13 +48,13 @@ public class AddBooking implements Command {
         Customer customer = getCustomer(flightBookingSystem);
         Flight flight = getFlight(flightBookingSystem);
 
-        validateFlightCapacity(flight);
-
+        // addBooking checks capacity and seats the customer atomically
         Booking booking = createBooking(customer, flight);
         flightBookingSystem.addBooking(booking);
+        this.booking = booking;
 
         try {
-            FlightBookingSystemData.store(flightBookingSystem);
+            FlightBookingSystemData.storeBooking(flightBookingSystem, JournalRecord.added(booking));
         } catch (IOException e) {
             throw new FlightBookingSystemException("Error saving booking data: " + e.getMessage());
         }
@@ -59,6 +62,15 @@ public class AddBooking implements Command {
         displayConfirmationMessage(customer, flight);
     }
 
+    /**
+     * Gets the booking the command added.
+     *
+     * @return the booking, or null if the command has not added one
+     */
+    public Booking getBooking() {
+        return booking;
+    }
+
     private Customer getCustomer(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
         return flightBookingSystem.getCustomerByID(customerId);
     }
@@ -67,14 +79,14 @@ public class AddBooking implements Command {
         return flightBookingSystem.getFlightByID(flightId);
     }
 
-    private void validateFlightCapacity(Flight flight) throws FlightBookingSystemException {
-        if (flight.getPassengers().size() >= flight.getCapacity()) {
-            throw new FlightBookingSystemException("Flight " + flight.getFlightNumber() + " is at full capacity. No more bookings can be made.");
+    private Booking createBooking(Customer customer, Flight flight) throws FlightBookingSystemException {
+        int id;
+        try {
+            id = FlightBookingSystemData.getIdAllocator().nextBookingId();
+        } catch (UncheckedIOException e) {
+            throw new FlightBookingSystemException("Failed to allocate booking ID: " + e.getMessage());
         }
-    }
-
-    private Booking createBooking(Customer customer, Flight flight) {
-        return new Booking(customer, flight, bookingDate, status);
+        return new Booking(id, customer, flight, bookingDate, status);
     }
 
     private void displayConfirmationMessage(Customer customer, Flight flight) {
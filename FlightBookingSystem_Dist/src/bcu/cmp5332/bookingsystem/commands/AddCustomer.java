@@ -1,10 +1,12 @@
 package bcu.cmp5332.bookingsystem.commands;
 
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.IdAllocator;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * Command to add a new customer to the flight booking system.
@@ -17,10 +19,23 @@ public class AddCustomer implements Command {
     private final String name;
     private final String phone;
     private final String email;
+    private Customer customer;
+
+    /**
+     * Constructs an AddCustomer command that assigns the next free customer ID.
+     *
+     * @param name the name of the customer
+     * @param phone the phone number of the customer
+     * @param email the email address of the customer
+     */
+    public AddCustomer(String name, String phone, String email) {
+        this(0, name, phone, email);
+    }
+
     /**
      * Constructs an AddCustomer command.
      *
-     * @param id the ID of the customer
+     * @param id the ID of the customer, or 0 to assign the next free ID
      * @param name the name of the customer
      * @param phone the phone number of the customer
      * @param email the email address of the customer
@@ -39,15 +54,35 @@ public class AddCustomer implements Command {
      */
     @Override
     public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        Customer customer = new Customer(this.id, name, phone, email, 1);
+        IdAllocator allocator = FlightBookingSystemData.getIdAllocator();
+        int customerId = this.id;
+        try {
+            if (customerId <= 0) {
+                customerId = allocator.nextCustomerId();
+            }
+        } catch (UncheckedIOException e) {
+            throw new FlightBookingSystemException("Failed to allocate customer ID: " + e.getMessage());
+        }
+        Customer customer = new Customer(customerId, name, phone, email, 1);
         flightBookingSystem.addCustomer(customer);
+        this.customer = customer;
+        allocator.observe(IdAllocator.Sequence.CUSTOMER, customerId);
         System.out.println("Customer #" + customer.getId() + " added.");
 
         // Persist the data to file
         try {
-            FlightBookingSystemData.store(flightBookingSystem);
+            FlightBookingSystemData.storeCustomers(flightBookingSystem);
         } catch (IOException e) {
             throw new FlightBookingSystemException("Error while saving customer data: " + e.getMessage());
         }
     }
+
+    /**
+     * Gets the customer the command added, with the ID it was given.
+     *
+     * @return the customer, or null if the command has not added one
+     */
+    public Customer getCustomer() {
+        return customer;
+    }
 }
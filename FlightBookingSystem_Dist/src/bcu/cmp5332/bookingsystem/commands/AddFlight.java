@@ -3,8 +3,9 @@ package bcu.cmp5332.bookingsystem.commands;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
-import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 
 /**
@@ -70,17 +71,18 @@ public class AddFlight implements Command {
      */
     @Override
     public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        int maxId = flightBookingSystem.getFlights().stream()
-                          .mapToInt(Flight::getId)
-                          .max()
-                          .orElse(0);
+        int id;
+        try {
+            id = FlightBookingSystemData.getIdAllocator().nextFlightId();
+        } catch (UncheckedIOException e) {
+            throw new FlightBookingSystemException("Failed to allocate flight ID: " + e.getMessage());
+        }
 
-        Flight flight = new Flight(++maxId, flightNumber, origin, destination, departureDate, capacity, price, cancellationRebookFee, status);
+        Flight flight = new Flight(id, flightNumber, origin, destination, departureDate, capacity, price, cancellationRebookFee, status);
         flightBookingSystem.addFlight(flight);
 
-        FlightDataManager dataManager = new FlightDataManager();
         try {
-            dataManager.storeData(flightBookingSystem);
+            FlightBookingSystemData.storeFlights(flightBookingSystem);
         } catch (IOException e) {
             throw new FlightBookingSystemException("Failed to save flight data: " + e.getMessage());
         }
@@ -3,7 +3,8 @@ package bcu.cmp5332.bookingsystem.commands;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Booking;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
-import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalRecord;
 import java.io.IOException;
 
 /**
@@ -57,8 +58,7 @@ public class CancelBooking implements Command {
 
             // Save the updated data to the file
             try {
-                BookingDataManager bookingDataManager = new BookingDataManager();
-                bookingDataManager.storeData(flightBookingSystem); // Save updated data to file
+                FlightBookingSystemData.storeBooking(flightBookingSystem, JournalRecord.cancelled(booking));
 
                 System.out.println("Booking canceled successfully.");
             } catch (IOException e) {
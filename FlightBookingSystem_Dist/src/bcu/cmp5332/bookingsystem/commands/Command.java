@@ -15,13 +15,21 @@ public interface Command {
         + "\tlistflights                                   print all flights\n"
         + "\tlistcustomers                                 print all customers\n"
         + "\taddflight                                     add a new flight\n"
+        + "\taddflight [number]::[origin]::[destination]::[YYYY-MM-DD]::[capacity]::[price]::[fee]\n"
+        + "\t                                              add a new flight without prompting\n"
         + "\taddcustomer                                   add a new customer\n"
+        + "\taddcustomer [id]::[name]::[phone]::[email]    add a new customer without prompting\n"
         + "\tshowflight [flight id]                        show flight details\n"
         + "\tshowcustomer [customer id]                    show customer details\n"
+        + "\tfindflight [flight number] [YYYY-MM-DD]       show flight details by number and date\n"
+        + "\tsearchflights [origin] [destination] [from]   list flights on a route, optionally from a date\n"
+        + "\tfindconnections [origin] [destination] [from] [price|arrival]\n"
+        + "\t                                              list itineraries of connecting flights\n"
         + "\taddbooking [customer id] [flight id]          add a new booking\n"
         + "\tcancelbooking [customer id] [flight id]       cancel a booking\n"
         + "\teditbooking [old_customer id] [flight id]     update a booking\n"
         + "\tremovecustomer [customer id]                  remove customer\n"
+        + "\tremoveflight [flight id]                      remove flight\n"
         + "\tloadgui                                       loads the GUI version of the app\n"
         + "\thelp                                          prints this help message\n"
         + "\texit                                          exits the program";
@@ -1,5 +1,5 @@
 package bcu.cmp5332.bookingsystem.commands;
-import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
@@ -55,8 +55,7 @@ public class DeleteCustomer implements Command {
             // Output confirmation message
             System.out.println("Customer #" + customerId + " removed successfully.");
             try {
-                CustomerDataManager customerDataManager = new CustomerDataManager();
-                customerDataManager.storeData(flightBookingSystem);
+                FlightBookingSystemData.storeCustomers(flightBookingSystem);
             } catch (IOException e) {
                 throw new FlightBookingSystemException("Error updating customer data in the file: " + e.getMessage());
             }
@@ -3,11 +3,12 @@ package bcu.cmp5332.bookingsystem.commands;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
-import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalRecord;
 import bcu.cmp5332.bookingsystem.model.Booking;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Command to mark a flight as inactive in the flight booking system.
@@ -39,19 +40,19 @@ public class DeleteFlight implements Command {
         Flight flight = flightBookingSystem.getFlightByID(flightId);
         if (flight != null) {
             // Remove bookings associated with the flight
-            List<Booking> bookingsToRemove = flightBookingSystem.getBookings().stream()
-                .filter(booking -> booking.getFlight().getId() == flightId)
-                .collect(Collectors.toList());
+            List<Booking> bookingsToRemove = flightBookingSystem.getBookingsForFlight(flightId);
+            List<JournalRecord> cancelled = new ArrayList<>(bookingsToRemove.size());
 
             for (Booking booking : bookingsToRemove) {
                 flightBookingSystem.removeBooking(booking);
+                cancelled.add(JournalRecord.cancelled(booking));
             }
 
             flight.setStatus(0);
 
-            FlightDataManager dataManager = new FlightDataManager();
+            // The flight's bookings were removed too, so store them with the flight
             try {
-                dataManager.storeData(flightBookingSystem);
+                FlightBookingSystemData.storeChanges(flightBookingSystem, cancelled);
             } catch (IOException e) {
                 throw new FlightBookingSystemException("Failed to update flight data: " + e.getMessage());
             }
@@ -5,7 +5,8 @@ import bcu.cmp5332.bookingsystem.model.Booking;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
-import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalRecord;
 
 import java.io.IOException;
 import java.util.List;
@@ -51,15 +52,14 @@ public class EditBooking implements Command {
             return;
         }
 
-        booking.setFlight(newFlight);
+        int oldFlightId = booking.getFlight().getId();
+        flightBookingSystem.rebook(booking, oldCustomer, newFlight);
 
         try {
-            BookingDataManager bookingDataManager = new BookingDataManager();
-
             List<Booking> sortedBookings = flightBookingSystem.getBookings();
             sortedBookings.sort((b1, b2) -> b1.getBookingDate().compareTo(b2.getBookingDate())); 
             
-            bookingDataManager.storeData(flightBookingSystem);
+            FlightBookingSystemData.storeBooking(flightBookingSystem, JournalRecord.edited(booking, oldFlightId));
 
             System.out.println("Booking updated for " + oldCustomer.getName() + " to flight " + newFlight.getFlightNumber() + ".");
         } catch (IOException e) {
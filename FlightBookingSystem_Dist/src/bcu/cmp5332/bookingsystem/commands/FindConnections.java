@@ -0,0 +1,65 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.ConnectionSearch;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Command to list itineraries of connecting flights between two airports.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class FindConnections implements Command {
+
+    /** Maximum number of flights in an itinerary. */
+    public static final int MAX_LEGS = 3;
+    /** Minimum number of days between connecting flights; 0 allows same-day connections. */
+    public static final int MIN_LAYOVER_DAYS = 0;
+
+    private final String origin;
+    private final String destination;
+    private final LocalDate departingFrom;
+    private final ConnectionSearch.Ranking ranking;
+
+    /**
+     * Constructs a FindConnections command.
+     *
+     * @param origin the origin airport
+     * @param destination the destination airport
+     * @param departingFrom the earliest departure date, or null for the system's current date
+     * @param ranking the order of the itineraries
+     */
+    public FindConnections(String origin, String destination, LocalDate departingFrom,
+            ConnectionSearch.Ranking ranking) {
+        this.origin = origin;
+        this.destination = destination;
+        this.departingFrom = departingFrom;
+        this.ranking = ranking;
+    }
+
+    /**
+     * Executes the command to print the itineraries found.
+     *
+     * @param flightBookingSystem the flight booking system
+     * @throws FlightBookingSystemException if an error occurs while searching
+     */
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+        LocalDate from = departingFrom != null ? departingFrom : flightBookingSystem.getCurrentDate();
+        List<ConnectionSearch.Itinerary> itineraries = flightBookingSystem.findConnections(origin, destination,
+                from, MAX_LEGS, MIN_LAYOVER_DAYS, ranking);
+        for (ConnectionSearch.Itinerary itinerary : itineraries) {
+            System.out.println(String.format("%d leg(s), arriving %s, total %.2f", itinerary.getLegs().size(),
+                    itinerary.getArrivalDate(), itinerary.getTotalPrice()));
+            for (Flight flight : itinerary.getLegs()) {
+                System.out.println("  " + flight.getDetailsShort());
+            }
+        }
+        System.out.println(itineraries.size() + " itinerary(ies) from " + origin + " to " + destination);
+    }
+}
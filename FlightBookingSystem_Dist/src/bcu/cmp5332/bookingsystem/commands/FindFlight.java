@@ -0,0 +1,42 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.time.LocalDate;
+
+/**
+ * Command to show the details of a flight looked up by its flight number and departure date.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class FindFlight implements Command {
+
+    private final String flightNumber;
+    private final LocalDate departureDate;
+
+    /**
+     * Constructs a FindFlight command.
+     *
+     * @param flightNumber the flight number to look up
+     * @param departureDate the departure date of the flight
+     */
+    public FindFlight(String flightNumber, LocalDate departureDate) {
+        this.flightNumber = flightNumber;
+        this.departureDate = departureDate;
+    }
+
+    /**
+     * Executes the command to display the details of the matching flight.
+     *
+     * @param flightBookingSystem the flight booking system
+     * @throws FlightBookingSystemException if no flight matches the number and date
+     */
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+        Flight flight = flightBookingSystem.getFlightByNumber(flightNumber, departureDate);
+        new ShowFlight(flight.getId()).execute(flightBookingSystem);
+    }
+}
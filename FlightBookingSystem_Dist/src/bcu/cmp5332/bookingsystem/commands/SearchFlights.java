@@ -0,0 +1,49 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Command to list the active flights between two airports, ordered by departure date.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class SearchFlights implements Command {
+
+    private final String origin;
+    private final String destination;
+    private final LocalDate departingFrom;
+
+    /**
+     * Constructs a SearchFlights command.
+     *
+     * @param origin the origin airport
+     * @param destination the destination airport
+     * @param departingFrom the earliest departure date, or null to include every date
+     */
+    public SearchFlights(String origin, String destination, LocalDate departingFrom) {
+        this.origin = origin;
+        this.destination = destination;
+        this.departingFrom = departingFrom;
+    }
+
+    /**
+     * Executes the command to print the matching flights.
+     *
+     * @param flightBookingSystem the flight booking system
+     * @throws FlightBookingSystemException if an error occurs while searching
+     */
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+        List<Flight> flights = flightBookingSystem.searchFlights(origin, destination, departingFrom, null);
+        for (Flight flight : flights) {
+            System.out.println(flight.getDetailsShort());
+        }
+        System.out.println(flights.size() + " flight(s) from " + origin + " to " + destination);
+    }
+}
@@ -0,0 +1,154 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes data files so that a crash or a concurrent reader never sees a partially
+ * written file, and checks them for corruption when they are read back.
+ * <p>
+ * Every write goes to a temporary file next to the target, which is forced to disk
+ * and then atomically renamed over the target. The content is followed by a fixed
+ * length footer line, {@code #crc32::xxxxxxxx}, holding the CRC-32 of everything
+ * before it. {@link #read} verifies the footer and strips it; files without one,
+ * such as files written by an older version or edited by hand with the footer
+ * removed, are read as they are.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public final class AtomicFile {
+
+    static final String FOOTER_PREFIX = "#crc32::";
+    /** The prefix, eight hex digits and a newline. */
+    static final int FOOTER_LENGTH = FOOTER_PREFIX.length() + 9;
+
+    /**
+     * Writes the content of a file. Implementations must not close the stream.
+     */
+    public interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private AtomicFile() {
+    }
+
+    /**
+     * Atomically replaces a file with the given content followed by a checksum footer.
+     *
+     * @param target the file to replace
+     * @param content writes the new content
+     * @throws IOException if an I/O error occurs; the target is then left unchanged
+     */
+    public static void write(Path target, Content content) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16)) {
+            CheckedOutputStream checked = new CheckedOutputStream(out, crc);
+            content.writeTo(checked);
+            checked.flush();
+            out.write(footer(crc.getValue()).getBytes(StandardCharsets.US_ASCII));
+        }
+        commit(tmp, target);
+    }
+
+    /**
+     * Atomically replaces a text file with the given lines followed by a checksum
+     * footer. Lines are written as UTF-8, each followed by a line separator.
+     *
+     * @param target the file to replace
+     * @param lines the lines to write, without line terminators
+     * @throws IOException if an I/O error occurs; the target is then left unchanged
+     */
+    public static void writeLines(Path target, Iterable<String> lines) throws IOException {
+        write(target, out -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+            writer.flush();
+        });
+    }
+
+    /**
+     * Reads a whole file and verifies its checksum footer, if it has one.
+     *
+     * @param path the file to read
+     * @return a buffer holding the content, without the footer
+     * @throws IOException if an I/O error occurs or the checksum does not match
+     */
+    public static ByteBuffer read(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        return ByteBuffer.wrap(bytes, 0, contentLength(path, bytes));
+    }
+
+    /**
+     * Opens a verified text file for reading line by line. The footer is not
+     * returned as a line.
+     *
+     * @param path the file to read
+     * @return a reader over the content
+     * @throws IOException if an I/O error occurs or the checksum does not match
+     */
+    public static BufferedReader newReader(Path path) throws IOException {
+        ByteBuffer content = read(path);
+        return new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(content.array(), 0, content.limit()), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Forces a fully written temporary file to disk and renames it over the target,
+     * atomically where the file system supports it.
+     *
+     * @param tmp the temporary file, in the same directory as the target
+     * @param target the file to replace
+     * @throws IOException if an I/O error occurs
+     */
+    public static void commit(Path tmp, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static int contentLength(Path path, byte[] bytes) throws IOException {
+        int footerStart = bytes.length - FOOTER_LENGTH;
+        if (footerStart < 0 || bytes[bytes.length - 1] != '\n'
+                || !FOOTER_PREFIX.equals(new String(bytes, footerStart, FOOTER_PREFIX.length(), StandardCharsets.US_ASCII))) {
+            return bytes.length;
+        }
+        String stored = new String(bytes, footerStart, FOOTER_LENGTH - 1, StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, footerStart);
+        if (!stored.equals(footer(crc.getValue()).trim())) {
+            throw new IOException(path + " is corrupt: its content does not match the " + stored
+                    + " checksum footer. If it was edited by hand, delete the footer line.");
+        }
+        return footerStart;
+    }
+
+    private static String footer(long crc) {
+        return FOOTER_PREFIX + String.format("%08x", crc) + "\n";
+    }
+}
@@ -0,0 +1,189 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Loads and stores flights, customers and bookings as a single binary snapshot,
+ * {@code data.bin}, as an alternative to the three {@code ::}-separated text files.
+ * <p>
+ * The file starts with the magic number {@code FBSB} and a format version, followed
+ * by a flights, a customers and a bookings section, each prefixed with its record
+ * count. Numbers are fixed-width big-endian, dates are stored as epoch days and
+ * strings as a length-prefixed UTF-8 byte sequence, so reading a record is a
+ * handful of buffer reads with no text parsing.
+ * <ul>
+ * <li>flight: {@code int id, str number, str origin, str destination, int departureDay,
+ * int capacity, double price, double cancellationRebookFee, byte status}</li>
+ * <li>customer: {@code int id, str name, str phone, str email, byte status}</li>
+ * <li>booking: {@code int id, int customerId, int flightId, int bookingDay, byte status}</li>
+ * </ul>
+ * The snapshot ends with the checksum footer written by {@link AtomicFile}.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class BinaryDataManager implements DataManager {
+
+    static final String RESOURCE = DATA_DIRECTORY + "/data.bin";
+
+    /** "FBSB" in ASCII. */
+    static final int MAGIC = 0x46425342;
+    /** The format version written by this class. */
+    static final int VERSION = 1;
+
+    private final Path path;
+
+    /**
+     * Constructs a manager backed by the default snapshot file.
+     */
+    public BinaryDataManager() {
+        this(Paths.get(RESOURCE));
+    }
+
+    /**
+     * Constructs a manager backed by the given snapshot file.
+     *
+     * @param path the snapshot file
+     */
+    public BinaryDataManager(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Checks whether the snapshot file exists.
+     *
+     * @return true if there is a snapshot to load
+     */
+    public boolean exists() {
+        return Files.exists(path);
+    }
+
+    @Override
+    public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        ByteBuffer in = AtomicFile.read(path);
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new FlightBookingSystemException(path + " is not a binary flight booking snapshot");
+            }
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new FlightBookingSystemException("Unsupported binary snapshot version " + version);
+            }
+
+            int flights = in.getInt();
+            for (int i = 0; i < flights; i++) {
+                fbs.addFlight(new Flight(in.getInt(), readString(in), readString(in), readString(in),
+                        LocalDate.ofEpochDay(in.getInt()), in.getInt(), in.getDouble(), in.getDouble(), in.get()));
+            }
+
+            int customers = in.getInt();
+            for (int i = 0; i < customers; i++) {
+                fbs.addCustomer(new Customer(in.getInt(), readString(in), readString(in), readString(in), in.get()));
+            }
+
+            IdAllocator allocator = FlightBookingSystemData.getIdAllocator();
+            int bookings = in.getInt();
+            for (int i = 0; i < bookings; i++) {
+                int id = in.getInt();
+                Customer customer = fbs.getCustomerByID(in.getInt());
+                Flight flight = fbs.getFlightByID(in.getInt());
+                fbs.addBooking(new Booking(id, customer, flight, LocalDate.ofEpochDay(in.getInt()), in.get()));
+                allocator.observe(IdAllocator.Sequence.BOOKING, id);
+            }
+            if (in.hasRemaining()) {
+                // A damaged footer is not recognised and ends up here as trailing bytes
+                throw new FlightBookingSystemException("Binary snapshot " + path + " has " + in.remaining()
+                        + " unexpected trailing bytes");
+            }
+        } catch (BufferUnderflowException ex) {
+            throw new FlightBookingSystemException("Binary snapshot " + path + " is truncated");
+        }
+    }
+
+    @Override
+    public void storeData(FlightBookingSystem fbs) throws IOException {
+        write(path, fbs.getFlights(), fbs.getCustomers(), fbs.getBookings());
+    }
+
+    /**
+     * Writes a snapshot of the given entities with {@link AtomicFile#write}, so a
+     * crash never leaves a partially written snapshot behind.
+     *
+     * @param target the snapshot file
+     * @param flights the flights to write
+     * @param customers the customers to write
+     * @param bookings the bookings to write
+     * @throws IOException if an I/O error occurs
+     */
+    static void write(Path target, List<Flight> flights, List<Customer> customers, List<Booking> bookings)
+            throws IOException {
+        AtomicFile.write(target, stream -> {
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(flights.size());
+            for (Flight flight : flights) {
+                out.writeInt(flight.getId());
+                writeString(out, flight.getFlightNumber());
+                writeString(out, flight.getOrigin());
+                writeString(out, flight.getDestination());
+                out.writeInt((int) flight.getDepartureDate().toEpochDay());
+                out.writeInt(flight.getCapacity());
+                out.writeDouble(flight.getPrice());
+                out.writeDouble(flight.getCancellationRebookFee());
+                out.writeByte(flight.getStatus());
+            }
+
+            out.writeInt(customers.size());
+            for (Customer customer : customers) {
+                out.writeInt(customer.getId());
+                writeString(out, customer.getName());
+                writeString(out, customer.getPhone());
+                writeString(out, customer.getEmail());
+                out.writeByte(customer.getStatus());
+            }
+
+            out.writeInt(bookings.size());
+            for (Booking booking : bookings) {
+                out.writeInt(booking.getId());
+                out.writeInt(booking.getCustomer().getId());
+                out.writeInt(booking.getFlight().getId());
+                out.writeInt((int) booking.getBookingDate().toEpochDay());
+                out.writeByte(booking.getStatus());
+            }
+            out.flush();
+        });
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -7,6 +7,8 @@ import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
 import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -18,28 +20,93 @@ import java.util.*;
  */
 public class BookingDataManager implements DataManager {
 
-    private static final String RESOURCE = "./resources/data/bookings.txt";
+    static final String RESOURCE = DATA_DIRECTORY + "/bookings.txt";
     private static final String SEPARATOR = "::";
 
+    private final Path file;
+
+    /**
+     * A parsed line of the bookings file, before its customer and flight IDs have
+     * been resolved.
+     */
+    static final class Row {
+        final int customerId;
+        final int flightId;
+        final LocalDate bookingDate;
+        final int status;
+        /** The stored booking ID, or 0 for rows written before IDs were persisted. */
+        int bookingId;
+
+        Row(int customerId, int flightId, LocalDate bookingDate, int status, int bookingId) {
+            this.customerId = customerId;
+            this.flightId = flightId;
+            this.bookingDate = bookingDate;
+            this.status = status;
+            this.bookingId = bookingId;
+        }
+    }
+
+    /**
+     * Constructs a data manager for the default bookings file.
+     */
+    public BookingDataManager() {
+        this(Paths.get(RESOURCE));
+    }
+
+    /**
+     * Constructs a data manager for the given bookings file.
+     *
+     * @param file the bookings file
+     */
+    public BookingDataManager(Path file) {
+        this.file = file;
+    }
+
     @Override
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
-        List<String> lines = readLinesFromFile(RESOURCE);
+        List<String> lines = readLinesFromFile();
+        List<Row> rows = new ArrayList<>(lines.size());
+        RecordTokenizer fields = new RecordTokenizer();
         int lineNumber = 1;
-
         for (String line : lines) {
             try {
-                Booking booking = parseBooking(line, fbs);
-                fbs.addBooking(booking);
+                rows.add(parseRow(fields.reset(line)));
             } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
                 throw new FlightBookingSystemException("Error parsing booking data on line " + lineNumber + ": " + ex.getMessage());
             }
             lineNumber++;
         }
+
+        assignLegacyIds(rows);
+        for (Row row : rows) {
+            fbs.addBooking(resolve(row, fbs));
+        }
     }
 
-    private List<String> readLinesFromFile(String filePath) throws IOException {
+    /**
+     * Gives every row without a stored booking ID a newly allocated one. Rows written
+     * before booking IDs were persisted have no ID field, so every stored ID is
+     * observed first to keep the allocated IDs from colliding with a later row.
+     *
+     * @param rows the rows of the bookings file, in file order
+     */
+    static void assignLegacyIds(List<Row> rows) {
+        IdAllocator allocator = FlightBookingSystemData.getIdAllocator();
+        for (Row row : rows) {
+            if (row.bookingId > 0) {
+                allocator.observe(IdAllocator.Sequence.BOOKING, row.bookingId);
+            }
+        }
+        for (Row row : rows) {
+            if (row.bookingId <= 0) {
+                row.bookingId = allocator.nextBookingId();
+            }
+        }
+    }
+
+    private List<String> readLinesFromFile() throws IOException {
         List<String> lines = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+        try (BufferedReader reader = AtomicFile.newReader(file)) {
             String line;
             while ((line = reader.readLine()) != null) {
                 lines.add(line);
@@ -48,27 +115,44 @@ public class BookingDataManager implements DataManager {
         return lines;
     }
 
-    private Booking parseBooking(String line, FlightBookingSystem fbs) throws NumberFormatException, FlightBookingSystemException {
-        String[] properties = line.split(SEPARATOR, -1);
-
-        if (properties.length < 4) {
+    /**
+     * Parses a single line of the bookings file.
+     *
+     * @param fields the tokenizer, reset to the line
+     * @return the parsed row
+     * @throws NumberFormatException if a numeric field is invalid or the line is incomplete
+     */
+    static Row parseRow(RecordTokenizer fields) {
+        int customerId = fields.nextInt();
+        int flightId = fields.nextInt();
+        LocalDate bookingDate = fields.nextDate();
+        if (!fields.hasNext()) {
             throw new NumberFormatException("Incomplete booking data.");
         }
+        int status = fields.nextInt();
+        int bookingId = fields.hasNext() ? fields.nextInt() : 0;
 
-        int customerId = Integer.parseInt(properties[0]);
-        int flightId = Integer.parseInt(properties[1]);
-        LocalDate bookingDate = LocalDate.parse(properties[2]);
-        int status = Integer.parseInt(properties[3]);
+        return new Row(customerId, flightId, bookingDate, status, bookingId);
+    }
 
-        Customer customer = fbs.getCustomerByID(customerId);
+    /**
+     * Looks up the customer and flight of a parsed row.
+     *
+     * @param row the row, with its booking ID assigned
+     * @param fbs the flight booking system holding the customers and flights
+     * @return the booking
+     * @throws FlightBookingSystemException if the customer or flight does not exist
+     */
+    static Booking resolve(Row row, FlightBookingSystem fbs) throws FlightBookingSystemException {
+        Customer customer = fbs.getCustomerByID(row.customerId);
         Flight flight;
         try {
-            flight = fbs.getFlightByID(flightId);
+            flight = fbs.getFlightByID(row.flightId);
         } catch (FlightBookingSystemException ex) {
             throw new FlightBookingSystemException("Error parsing booking: " + ex.getMessage());
         }
 
-        return new Booking(customer, flight, bookingDate, status);
+        return new Booking(row.bookingId, customer, flight, row.bookingDate, row.status);
     }
 
     @Override
@@ -79,23 +163,19 @@ public class BookingDataManager implements DataManager {
             bookingLines.add(formatBooking(booking));
         }
 
-        writeLinesToFile(RESOURCE, bookingLines);
+        writeLinesToFile(bookingLines);
     }
 
-    private String formatBooking(Booking booking) {
+    static String formatBooking(Booking booking) {
         return String.join(SEPARATOR,
                 String.valueOf(booking.getCustomer().getId()),
                 String.valueOf(booking.getFlight().getId()),
                 booking.getBookingDate().toString(),
-                String.valueOf(booking.getStatus()));
+                String.valueOf(booking.getStatus()),
+                String.valueOf(booking.getId()));
     }
 
-    private void writeLinesToFile(String filePath, List<String> lines) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (String line : lines) {
-                writer.write(line);
-                writer.newLine();
-            }
-        }
+    private void writeLinesToFile(List<String> lines) throws IOException {
+        AtomicFile.writeLines(file, lines);
     }
 }
@@ -0,0 +1,320 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Append-only write-ahead log of booking mutations.
+ * Each booking command appends a single {@link JournalRecord} instead of rewriting
+ * the bookings file, and the journal is replayed on top of the last snapshot on load.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class BookingJournal {
+
+    static final String RESOURCE = DataManager.DATA_DIRECTORY + "/bookings.journal";
+
+    private final Path path;
+    private boolean sync = true;
+    private FileChannel channel;
+    private int recordCount;
+
+    /**
+     * Constructs a journal backed by the default journal file.
+     */
+    public BookingJournal() {
+        this(Paths.get(RESOURCE));
+    }
+
+    /**
+     * Constructs a journal backed by the given file.
+     *
+     * @param path the journal file
+     */
+    public BookingJournal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Sets whether every append is forced to the storage device before returning.
+     *
+     * @param sync true to fsync each record, false to leave flushing to the operating system
+     */
+    public synchronized void setSync(boolean sync) {
+        this.sync = sync;
+    }
+
+    /**
+     * Appends a record to the end of the journal.
+     *
+     * @param record the record to append
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void append(JournalRecord record) throws IOException {
+        appendAll(Collections.singletonList(record));
+    }
+
+    /**
+     * Appends records to the end of the journal with a single write, forcing them to
+     * the storage device once for the whole batch.
+     *
+     * @param records the records to append, in order
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void appendAll(List<JournalRecord> records) throws IOException {
+        StringBuilder lines = new StringBuilder(records.size() * 48);
+        for (JournalRecord record : records) {
+            lines.append(record.format()).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        FileChannel out = channel();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        if (sync) {
+            out.force(false);
+        }
+        recordCount += records.size();
+    }
+
+    /**
+     * Gets the current size of the journal file.
+     *
+     * @return the journal size in bytes
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized long size() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            return channel.size();
+        }
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    /**
+     * Gets the number of records in the journal, as counted by the last replay plus
+     * every record appended since.
+     *
+     * @return the number of records
+     */
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Replays every complete record in the journal against the flight booking system.
+     * A trailing line without a terminator is a torn write: it is ignored and cut off
+     * the file, so the next append starts on a line of its own. Records that
+     * are already reflected in the snapshot (for example after a crash between a full
+     * store and the journal being truncated) are skipped.
+     *
+     * @param fbs the flight booking system loaded from the last snapshot
+     * @return the number of records read from the journal
+     * @throws IOException if an I/O error occurs
+     * @throws FlightBookingSystemException if a record cannot be parsed
+     */
+    public synchronized int replay(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        int complete = bytes.length;
+        while (complete > 0 && bytes[complete - 1] != '\n') {
+            complete--;
+        }
+        if (complete < bytes.length) {
+            cutTornTail(complete);
+        }
+        String content = new String(bytes, 0, complete, StandardCharsets.UTF_8);
+        int count = 0;
+        int start = 0;
+        int end;
+        while ((end = content.indexOf('\n', start)) >= 0) {
+            String line = content.substring(start, end);
+            start = end + 1;
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                apply(JournalRecord.parse(line), fbs);
+            } catch (IllegalArgumentException ex) {
+                throw new FlightBookingSystemException("Error replaying booking journal record " + (count + 1)
+                        + ": " + ex.getMessage(), ex);
+            }
+            count++;
+        }
+        recordCount = count;
+        return count;
+    }
+
+    /**
+     * Cuts a torn write off the end of the journal.
+     *
+     * @param length the length of the complete records before it
+     */
+    private void cutTornTail(long length) throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.truncate(length);
+            channel.force(true);
+            return;
+        }
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            out.truncate(length);
+            out.force(true);
+        }
+    }
+
+    /**
+     * Discards every record in the journal. Called once the data files reflect all
+     * journaled mutations.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void truncate() throws IOException {
+        if (channel != null) {
+            channel.truncate(0);
+            channel.force(true);
+        } else if (Files.exists(path)) {
+            try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                out.truncate(0);
+                out.force(true);
+            }
+        }
+        recordCount = 0;
+    }
+
+    /**
+     * Discards the first {@code length} bytes of the journal, keeping any records
+     * appended after that point. Used by the compactor once a snapshot covering those
+     * records has been written.
+     *
+     * @param length the number of leading bytes to discard
+     * @param records the number of records contained in those bytes
+     * @throws IOException if an I/O error occurs
+     */
+    synchronized void discardPrefix(long length, int records) throws IOException {
+        long size = size();
+        if (length >= size) {
+            truncate();
+            return;
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = length;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+            out.force(true);
+        }
+        close();
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        recordCount = Math.max(0, recordCount - records);
+    }
+
+    /**
+     * Closes the underlying journal file.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private void apply(JournalRecord record, FlightBookingSystem fbs) throws FlightBookingSystemException {
+        switch (record.getType()) {
+            case ADD:
+                applyAdd(record, fbs);
+                break;
+            case CANCEL:
+                applyCancel(record, fbs);
+                break;
+            case EDIT:
+                applyEdit(record, fbs);
+                break;
+        }
+    }
+
+    private void applyAdd(JournalRecord record, FlightBookingSystem fbs) throws FlightBookingSystemException {
+        if (lookup(record.getBookingId(), fbs) != null) {
+            return; // already added in the snapshot, possibly moved since
+        }
+        Customer customer = fbs.getCustomerByID(record.getCustomerId());
+        Flight flight = fbs.getFlightByID(record.getFlightId());
+        FlightBookingSystemData.getIdAllocator().observe(IdAllocator.Sequence.BOOKING, record.getBookingId());
+        fbs.addBooking(new Booking(record.getBookingId(), customer, flight, record.getBookingDate(),
+                record.getStatus()));
+    }
+
+    private void applyCancel(JournalRecord record, FlightBookingSystem fbs) {
+        Booking booking = find(record, record.getFlightId(), fbs);
+        if (booking == null) {
+            return; // already cancelled in the snapshot
+        }
+        booking.setStatus(0);
+        try {
+            fbs.removeBooking(booking);
+        } catch (FlightBookingSystemException ignored) {
+        }
+    }
+
+    private void applyEdit(JournalRecord record, FlightBookingSystem fbs) throws FlightBookingSystemException {
+        Flight newFlight = fbs.getFlightByID(record.getNewFlightId());
+        Booking booking = find(record, record.getFlightId(), fbs);
+        if (booking == null) {
+            return; // already moved in the snapshot
+        }
+        fbs.rebook(booking, booking.getCustomer(), newFlight);
+    }
+
+    /**
+     * Finds the booking a record is about, by its booking ID, as long as it is still
+     * on the given flight.
+     *
+     * @return the booking, or null if it is no longer in the system or on the flight
+     */
+    private static Booking find(JournalRecord record, int flightId, FlightBookingSystem fbs) {
+        Booking booking = lookup(record.getBookingId(), fbs);
+        return booking != null && booking.getFlight().getId() == flightId ? booking : null;
+    }
+
+    /**
+     * Looks up a booking by its ID.
+     *
+     * @return the booking, or null if it is not in the system
+     */
+    private static Booking lookup(int bookingId, FlightBookingSystem fbs) {
+        try {
+            return fbs.getBookingByID(bookingId);
+        } catch (FlightBookingSystemException ex) {
+            return null;
+        }
+    }
+}
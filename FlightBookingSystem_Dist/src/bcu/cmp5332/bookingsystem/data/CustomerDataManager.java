@@ -3,11 +3,11 @@ package bcu.cmp5332.bookingsystem.data;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.Scanner;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 
 /**
  * Manages the loading and storing of customer data.
@@ -17,25 +17,36 @@ import java.io.PrintWriter;
  */
 public class CustomerDataManager implements DataManager {
 
-    private final String RESOURCE = "./resources/data/customers.txt";
+    static final String RESOURCE = DATA_DIRECTORY + "/customers.txt";
     private static final String SEPARATOR = "::";
 
+    private final Path file;
+
+    /**
+     * Constructs a data manager for the default customers file.
+     */
+    public CustomerDataManager() {
+        this(Paths.get(RESOURCE));
+    }
+
+    /**
+     * Constructs a data manager for the given customers file.
+     *
+     * @param file the customers file
+     */
+    public CustomerDataManager(Path file) {
+        this.file = file;
+    }
+
     @Override
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
-        try (Scanner sc = new Scanner(new File(RESOURCE))) {
+        try (BufferedReader reader = AtomicFile.newReader(file)) {
+            RecordTokenizer fields = new RecordTokenizer();
             int lineNumber = 1;
-            while (sc.hasNextLine()) {
-                String line = sc.nextLine();
-                String[] properties = line.split(SEPARATOR, -1);
+            String line;
+            while ((line = reader.readLine()) != null) {
                 try {
-                    int customerId = Integer.parseInt(properties[0]);
-                    String customerName = properties[1];
-                    String customerPhoneNumber = properties[2];
-                    String email = properties[3];
-                    int status = Integer.parseInt(properties[4]);
-
-                    Customer customer = new Customer(customerId, customerName, customerPhoneNumber, email, status);
-                    fbs.addCustomer(customer);
+                    fbs.addCustomer(parseCustomer(fields.reset(line)));
                 } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
                     throw new FlightBookingSystemException("Unable to parse customer data on line " + lineNumber
                             + "\nError: " + ex.getMessage());
@@ -45,17 +56,41 @@ public class CustomerDataManager implements DataManager {
         }
     }
 
+    /**
+     * Parses a single line of the customers file.
+     *
+     * @param fields the tokenizer, reset to the line
+     * @return the parsed customer
+     * @throws NumberFormatException if a numeric field is invalid or missing
+     */
+    static Customer parseCustomer(RecordTokenizer fields) {
+        int customerId = fields.nextInt();
+        String customerName = fields.next();
+        String customerPhoneNumber = fields.next();
+        String email = fields.next();
+        int status = fields.nextInt();
+
+        return new Customer(customerId, customerName, customerPhoneNumber, email, status);
+    }
+
     @Override
     public void storeData(FlightBookingSystem fbs) throws IOException {
-        try (PrintWriter out = new PrintWriter(new FileWriter(RESOURCE))) {
-            for (Customer customer : fbs.getCustomers()) {
-                out.print(customer.getId() + SEPARATOR);
-                out.print(customer.getName() + SEPARATOR);
-                out.print(customer.getPhone() + SEPARATOR);
-                out.print(customer.getEmail() + SEPARATOR);
-                out.print(customer.getStatus());
-                out.println();
-            }
-        }
+        List<Customer> customers = fbs.getCustomers();
+        AtomicFile.writeLines(file,
+                () -> customers.stream().map(CustomerDataManager::formatCustomer).iterator());
+    }
+
+    /**
+     * Formats a customer as a single line of the customers file.
+     *
+     * @param customer the customer to format
+     * @return the formatted line, without a line terminator
+     */
+    static String formatCustomer(Customer customer) {
+        return customer.getId() + SEPARATOR
+                + customer.getName() + SEPARATOR
+                + customer.getPhone() + SEPARATOR
+                + customer.getEmail() + SEPARATOR
+                + customer.getStatus();
     }
 }
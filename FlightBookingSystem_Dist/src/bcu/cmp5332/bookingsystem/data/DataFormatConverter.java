@@ -0,0 +1,65 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+
+/**
+ * Converts the data directory between the text files and the binary snapshot
+ * written by {@link BinaryDataManager}. The source files are left in place.
+ * <p>
+ * Usage: {@code java bcu.cmp5332.bookingsystem.data.DataFormatConverter text-to-binary|binary-to-text}
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class DataFormatConverter {
+
+    public static void main(String[] args) throws IOException, FlightBookingSystemException {
+        if (args.length != 1) {
+            System.out.println("Usage: DataFormatConverter text-to-binary|binary-to-text");
+            return;
+        }
+        switch (args[0]) {
+            case "text-to-binary":
+                textToBinary();
+                break;
+            case "binary-to-text":
+                binaryToText();
+                break;
+            default:
+                System.out.println("Unknown conversion: " + args[0]);
+                return;
+        }
+        System.out.println("Converted data in " + DataManager.DATA_DIRECTORY);
+    }
+
+    /**
+     * Reads the text data files and writes them as a binary snapshot.
+     *
+     * @throws IOException if an I/O error occurs
+     * @throws FlightBookingSystemException if the text files cannot be parsed
+     */
+    public static void textToBinary() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (DataManager dm : FlightBookingSystemData.getTextDataManagers()) {
+            dm.loadData(fbs);
+        }
+        new BinaryDataManager().storeData(fbs);
+    }
+
+    /**
+     * Reads the binary snapshot and writes it as the text data files.
+     *
+     * @throws IOException if an I/O error occurs
+     * @throws FlightBookingSystemException if the snapshot cannot be read
+     */
+    public static void binaryToText() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        new BinaryDataManager().loadData(fbs);
+        for (DataManager dm : FlightBookingSystemData.getTextDataManagers()) {
+            dm.storeData(fbs);
+        }
+    }
+}
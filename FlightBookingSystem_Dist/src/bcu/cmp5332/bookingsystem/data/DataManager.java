@@ -14,6 +14,13 @@ public interface DataManager {
 
     public static final String SEPARATOR = "::";
 
+    /**
+     * Directory holding the data files. Defaults to {@code ./resources/data} and can be
+     * overridden with the {@code fbs.data.dir} system property, for example to run
+     * benchmarks against generated data.
+     */
+    public static final String DATA_DIRECTORY = System.getProperty("fbs.data.dir", "./resources/data");
+
     /**
      * Loads data into the flight booking system.
      *
@@ -4,9 +4,14 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem.EntitySet;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Manages the loading and storing of the entire flight booking system data.
@@ -17,11 +22,185 @@ import java.util.List;
 public class FlightBookingSystemData {
 
     private static final List<DataManager> dataManagers = new ArrayList<>();
+    private static final FlightDataManager flightDataManager = new FlightDataManager();
+    private static final CustomerDataManager customerDataManager = new CustomerDataManager();
+    private static final BookingDataManager bookingDataManager = new BookingDataManager();
+    private static final BinaryDataManager binaryDataManager = new BinaryDataManager();
+    private static final MappedBookingStore mappedBookingStore = new MappedBookingStore();
+    private static final String format = System.getProperty("fbs.format", "text");
+    private static final boolean binaryFormat = "binary".equals(format);
+    private static final boolean mappedFormat = "mapped".equals(format);
+    private static final BookingJournal journal = new BookingJournal();
+    private static volatile IdAllocator idAllocator = new IdAllocator();
+    private static final boolean parallelLoad = Boolean.getBoolean("fbs.load.parallel");
+    private static boolean journalEnabled = Boolean.getBoolean("fbs.journal");
+    private static boolean storeDeferred;
+    private static final boolean groupCommit = Boolean.getBoolean("fbs.groupCommit");
+    private static final boolean writeBehind = Boolean.getBoolean("fbs.writeBehind");
+    private static JournalCompactor compactor;
+    private static GroupCommitter committer;
+    private static WriteBehindPersister persister;
+    /**
+     * Set when applying booking mutations to the mapped store has failed, so the
+     * store may be missing changes that no later batch carries. Guarded by the class
+     * lock.
+     */
+    private static boolean mappedStoreBehind;
+
+    /**
+     * Held while the data files are being rewritten by a store. Always acquired
+     * before {@link #BOOKING_FILES_LOCK} and the class lock.
+     */
+    static final Object SNAPSHOT_LOCK = new Object();
+
+    /**
+     * Held while the bookings file, the mapped booking store or the binary snapshot
+     * is being rewritten, by a store or by the journal compactor, and while the
+     * journal is cleared of the records such a write covers. The compactor holds
+     * only this lock while it writes, so flights and customers are still stored
+     * during a compaction. Always acquired before the class lock.
+     */
+    static final Object BOOKING_FILES_LOCK = new Object();
 
     static {
-        dataManagers.add(new FlightDataManager());
-        dataManagers.add(new CustomerDataManager());
-        dataManagers.add(new BookingDataManager());
+        dataManagers.add(flightDataManager);
+        dataManagers.add(customerDataManager);
+        dataManagers.add(bookingDataManager);
+    }
+
+    /**
+     * Checks whether data is stored in the binary snapshot format rather than the
+     * text files. Set with the {@code fbs.format=binary} system property.
+     *
+     * @return true if the binary format is in use
+     */
+    public static boolean isBinaryFormat() {
+        return binaryFormat;
+    }
+
+    /**
+     * Checks whether bookings are kept in the memory-mapped booking store, with
+     * flights and customers in the text files. Set with the {@code fbs.format=mapped}
+     * system property.
+     *
+     * @return true if the mapped booking store is in use
+     */
+    public static boolean isMappedFormat() {
+        return mappedFormat;
+    }
+
+    /**
+     * Gets the memory-mapped booking store used in the mapped format.
+     *
+     * @return the mapped booking store
+     */
+    static MappedBookingStore getMappedBookingStore() {
+        return mappedBookingStore;
+    }
+
+    /**
+     * Gets the data managers that read and write the text data files, in load order.
+     *
+     * @return the text format data managers
+     */
+    static List<DataManager> getTextDataManagers() {
+        return dataManagers;
+    }
+
+    /**
+     * Enables or disables journal mode. In journal mode booking mutations are appended
+     * to the booking journal instead of rewriting the bookings file. Defaults to the
+     * {@code fbs.journal} system property.
+     *
+     * @param enabled true to journal booking mutations
+     */
+    public static synchronized void setJournalEnabled(boolean enabled) {
+        journalEnabled = enabled;
+    }
+
+    /**
+     * Checks whether booking mutations are being journaled.
+     *
+     * @return true if journal mode is enabled
+     */
+    public static synchronized boolean isJournalEnabled() {
+        return journalEnabled;
+    }
+
+    /**
+     * Defers the stores made by commands. While deferred, {@link #storeFlights},
+     * {@link #storeCustomers}, {@link #storeBooking} and {@link #storeChanges} return
+     * without writing; the changes stay dirty and are written together by the next
+     * {@link #store}. Used by batch runs, which store once every so many commands
+     * instead of after each one.
+     *
+     * @param deferred true to defer the stores made by commands
+     */
+    public static synchronized void setStoreDeferred(boolean deferred) {
+        storeDeferred = deferred;
+    }
+
+    /**
+     * Checks whether the stores made by commands are deferred.
+     *
+     * @return true if the stores made by commands are deferred
+     */
+    public static synchronized boolean isStoreDeferred() {
+        return storeDeferred;
+    }
+
+    /**
+     * Checks whether changes are written in the background after commands return.
+     * Set with the {@code fbs.writeBehind} system property.
+     *
+     * @return true if write-behind mode is enabled
+     */
+    public static boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Gets the booking journal used in journal mode.
+     *
+     * @return the booking journal
+     */
+    public static BookingJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Gets the allocator that hands out flight, customer and booking IDs.
+     *
+     * @return the ID allocator
+     */
+    public static IdAllocator getIdAllocator() {
+        return idAllocator;
+    }
+
+    /**
+     * Replaces the allocator that hands out flight, customer and booking IDs, for
+     * example with one backed by a file outside the data directory. Set it before
+     * the data is loaded.
+     *
+     * @param allocator the ID allocator
+     */
+    public static void setIdAllocator(IdAllocator allocator) {
+        idAllocator = allocator;
+    }
+
+    /**
+     * Starts background compaction of the booking journal for the given system.
+     * Thresholds are taken from the {@code fbs.journal.*} system properties.
+     *
+     * @param fbs the flight booking system whose state is snapshotted
+     * @return the running compactor
+     */
+    public static synchronized JournalCompactor startCompactor(FlightBookingSystem fbs) {
+        if (compactor == null) {
+            compactor = new JournalCompactor(fbs, journal);
+            compactor.start();
+        }
+        return compactor;
     }
 
     /**
@@ -33,35 +212,364 @@ public class FlightBookingSystemData {
      */
     public static FlightBookingSystem load() throws IOException, FlightBookingSystemException {
         FlightBookingSystem fbs = new FlightBookingSystem();
+        idAllocator.load();
         try {
-            for (DataManager dm : dataManagers) {
-                dm.loadData(fbs);
+            // FlightBookingSystem.addBooking links each booking to its customer and
+            // flight as it is read, so no per-entity populate pass is needed here.
+            if (binaryFormat && binaryDataManager.exists()) {
+                binaryDataManager.loadData(fbs);
+            } else if (mappedFormat) {
+                boolean migrate = !mappedBookingStore.exists();
+                loadText(fbs, migrate);
+                if (migrate) {
+                    // First start in the mapped format: bookings are appended to the store
+                    // from now on, so it has to hold the existing ones straight away.
+                    mappedBookingStore.storeData(fbs);
+                } else {
+                    mappedBookingStore.loadData(fbs);
+                }
+            } else {
+                // Also the first start after switching to the binary format: the next
+                // store writes the snapshot.
+                loadText(fbs, true);
             }
-
-            List<Customer> customersList = fbs.getCustomers();
-            for (Customer customer : customersList) {
-                customer.populate(fbs);
-            }
-
-            List<Flight> flightsList = fbs.getFlights();
-            for (Flight flight : flightsList) {
-                flight.populate(fbs);
+            // What was just read is what the data files hold. Replayed journal records
+            // are not in the bookings file yet, so they leave the bookings dirty.
+            if (!(binaryFormat && !binaryDataManager.exists())) {
+                for (EntitySet set : EntitySet.values()) {
+                    fbs.markStored(set, fbs.getVersion(set));
+                }
             }
+            // Always replay: a journal left behind by an earlier run must not be lost
+            // even if journal mode is now switched off.
+            journal.replay(fbs);
         } catch (FlightBookingSystemException ex) {
             throw new FlightBookingSystemException("Error loading flight booking system data: " + ex.getMessage());
         }
+        // The data files may have been edited by hand or written by an older version,
+        // so never trust ids.txt alone.
+        for (Flight flight : fbs.getFlights()) {
+            idAllocator.observe(IdAllocator.Sequence.FLIGHT, flight.getId());
+        }
+        for (Customer customer : fbs.getCustomers()) {
+            idAllocator.observe(IdAllocator.Sequence.CUSTOMER, customer.getId());
+        }
         return fbs;
     }
 
     /**
-     * Stores the flight booking system data.
+     * Loads the flights and customers text files and, if requested, the bookings
+     * file, in parallel when the {@code fbs.load.parallel} system property is set.
+     */
+    private static void loadText(FlightBookingSystem fbs, boolean includeBookings)
+            throws IOException, FlightBookingSystemException {
+        if (parallelLoad) {
+            new ParallelLoader().load(fbs, includeBookings);
+            return;
+        }
+        flightDataManager.loadData(fbs);
+        customerDataManager.loadData(fbs);
+        if (includeBookings) {
+            bookingDataManager.loadData(fbs);
+        }
+    }
+
+    /**
+     * Stores the flight booking system data. Only the entity sets that have changed
+     * since they were last stored are written; in the binary format the snapshot is
+     * written if any of them has changed.
+     * <p>
+     * This always writes before returning, also in write-behind mode, where the
+     * changes still queued are written first.
      *
      * @param fbs the flight booking system
      * @throws IOException if an I/O error occurs
      */
     public static void store(FlightBookingSystem fbs) throws IOException {
-        for (DataManager dm : dataManagers) {
-            dm.storeData(fbs);
+        WriteBehindPersister current;
+        synchronized (FlightBookingSystemData.class) {
+            current = persister;
+        }
+        if (current != null) {
+            try {
+                current.flush();
+            } catch (IOException ex) {
+                // Whatever the failed flush did not write is still dirty and is
+                // written below
+            }
+        }
+        storeAll(fbs);
+    }
+
+    private static void storeAll(FlightBookingSystem fbs) throws IOException {
+        synchronized (SNAPSHOT_LOCK) {
+            synchronized (BOOKING_FILES_LOCK) {
+                synchronized (FlightBookingSystemData.class) {
+                    if (binaryFormat) {
+                        if (fbs.isDirty(EntitySet.FLIGHTS) || fbs.isDirty(EntitySet.CUSTOMERS)
+                                || fbs.isDirty(EntitySet.BOOKINGS)) {
+                            storeSnapshot(fbs);
+                        }
+                        return;
+                    }
+                    storeIfDirty(fbs, EntitySet.FLIGHTS, flightDataManager);
+                    storeIfDirty(fbs, EntitySet.CUSTOMERS, customerDataManager);
+                    // The journal only holds booking changes, which leave the bookings dirty
+                    if (storeIfDirty(fbs, EntitySet.BOOKINGS,
+                            mappedFormat ? mappedBookingStore : bookingDataManager)) {
+                        journal.truncate();
+                    }
+                    mappedStoreBehind = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes an entity set's data file if the set has changed since it was last
+     * stored. The caller holds the locks.
+     *
+     * @return true if the file was written
+     */
+    private static boolean storeIfDirty(FlightBookingSystem fbs, EntitySet set, DataManager dataManager)
+            throws IOException {
+        if (!fbs.isDirty(set)) {
+            return false;
+        }
+        long version = fbs.getVersion(set);
+        dataManager.storeData(fbs);
+        fbs.markStored(set, version);
+        return true;
+    }
+
+    /**
+     * Writes the binary snapshot and clears the journal it now covers. The caller
+     * holds the locks.
+     */
+    private static void storeSnapshot(FlightBookingSystem fbs) throws IOException {
+        long[] versions = new long[EntitySet.values().length];
+        for (EntitySet set : EntitySet.values()) {
+            versions[set.ordinal()] = fbs.getVersion(set);
+        }
+        binaryDataManager.storeData(fbs);
+        for (EntitySet set : EntitySet.values()) {
+            fbs.markStored(set, versions[set.ordinal()]);
+        }
+        journal.truncate();
+    }
+
+    /**
+     * Stores the flights after a flight has been added or changed. Only the flights
+     * file is rewritten in the text format, and only if a flight has changed; the
+     * binary format writes a full snapshot. In write-behind mode the change is only
+     * queued, and while stores are deferred nothing is written.
+     *
+     * @param fbs the flight booking system
+     * @throws IOException if an I/O error occurs
+     */
+    public static void storeFlights(FlightBookingSystem fbs) throws IOException {
+        if (isStoreDeferred()) {
+            return;
+        }
+        if (writeBehind) {
+            persister().submit(fbs, null);
+            return;
+        }
+        storePart(fbs, EntitySet.FLIGHTS, flightDataManager);
+    }
+
+    /**
+     * Stores the customers after a customer has been added or changed. Only the
+     * customers file is rewritten in the text format, and only if a customer has
+     * changed; the binary format writes a full snapshot. In write-behind mode the
+     * change is only queued, and while stores are deferred nothing is written.
+     *
+     * @param fbs the flight booking system
+     * @throws IOException if an I/O error occurs
+     */
+    public static void storeCustomers(FlightBookingSystem fbs) throws IOException {
+        if (isStoreDeferred()) {
+            return;
+        }
+        if (writeBehind) {
+            persister().submit(fbs, null);
+            return;
+        }
+        storePart(fbs, EntitySet.CUSTOMERS, customerDataManager);
+    }
+
+    /**
+     * Stores a change that spans the entity sets, such as a flight deactivated
+     * together with its bookings: the booking mutations first, then the flights and
+     * customers files if they have changed. In write-behind mode the changes are only
+     * queued, and while stores are deferred nothing is written.
+     *
+     * @param fbs the flight booking system
+     * @param bookings the booking mutations that have been applied to the system, in
+     *                 order
+     * @throws IOException if an I/O error occurs
+     */
+    public static void storeChanges(FlightBookingSystem fbs, List<JournalRecord> bookings) throws IOException {
+        if (isStoreDeferred()) {
+            return;
+        }
+        if (writeBehind) {
+            WriteBehindPersister current = persister();
+            for (JournalRecord record : bookings) {
+                current.submit(fbs, record);
+            }
+            current.submit(fbs, null);
+            return;
+        }
+        // The same writes as a write-behind flush of these changes
+        flushBehind(fbs, bookings);
+    }
+
+    private static void storePart(FlightBookingSystem fbs, EntitySet set, DataManager textDataManager)
+            throws IOException {
+        if (binaryFormat) {
+            storeAll(fbs);
+            return;
+        }
+        synchronized (SNAPSHOT_LOCK) {
+            synchronized (FlightBookingSystemData.class) {
+                storeIfDirty(fbs, set, textDataManager);
+            }
+        }
+    }
+
+    /**
+     * Persists a single booking mutation and returns once it is durable. In journal
+     * mode the record is appended to the booking journal; in the mapped format the
+     * booking's record is written in place; otherwise the bookings file is rewritten.
+     * <p>
+     * With the {@code fbs.groupCommit} system property set, the mutation is handed to
+     * a {@link GroupCommitter} and written in one batch with those of concurrent
+     * callers. In write-behind mode it is only queued and this returns straight away;
+     * while stores are deferred it is not written at all, and the bookings stay dirty
+     * until the next {@link #store}.
+     *
+     * @param fbs the flight booking system
+     * @param record the booking mutation that has just been applied to the system
+     * @throws IOException if an I/O error occurs
+     */
+    public static void storeBooking(FlightBookingSystem fbs, JournalRecord record) throws IOException {
+        if (isStoreDeferred()) {
+            return;
+        }
+        if (writeBehind) {
+            persister().submit(fbs, record);
+            return;
+        }
+        if (!groupCommit) {
+            storeBookings(fbs, Collections.singletonList(record));
+            return;
+        }
+        try {
+            storeBookingAsync(fbs, record).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the booking to be saved");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Error saving booking data: " + cause, cause);
+        }
+    }
+
+    /**
+     * Persists a single booking mutation without waiting for it. With group commit
+     * enabled the mutation is queued for the next batch; otherwise it is written
+     * before this method returns.
+     *
+     * @param fbs the flight booking system
+     * @param record the booking mutation that has just been applied to the system
+     * @return a future that completes once the mutation is durable
+     */
+    public static CompletableFuture<Void> storeBookingAsync(FlightBookingSystem fbs, JournalRecord record) {
+        if (groupCommit) {
+            return committer().submit(fbs, record);
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        try {
+            storeBookings(fbs, Collections.singletonList(record));
+            done.complete(null);
+        } catch (IOException ex) {
+            done.completeExceptionally(ex);
+        }
+        return done;
+    }
+
+    private static synchronized WriteBehindPersister persister() {
+        if (persister == null) {
+            persister = new WriteBehindPersister(FlightBookingSystemData::flushBehind);
+        }
+        return persister;
+    }
+
+    /**
+     * Writes one write-behind flush: the queued booking mutations, then the flights
+     * and customers files if they have changed.
+     */
+    private static void flushBehind(FlightBookingSystem fbs, List<JournalRecord> bookings) throws IOException {
+        if (!bookings.isEmpty()) {
+            storeBookings(fbs, bookings);
+        }
+        storePart(fbs, EntitySet.FLIGHTS, flightDataManager);
+        storePart(fbs, EntitySet.CUSTOMERS, customerDataManager);
+    }
+
+    private static synchronized GroupCommitter committer() {
+        if (committer == null) {
+            committer = new GroupCommitter(FlightBookingSystemData::storeBookings);
+        }
+        return committer;
+    }
+
+    /**
+     * Persists booking mutations that have been applied to the system, in order, with
+     * one write and one fsync for the whole batch.
+     */
+    private static void storeBookings(FlightBookingSystem fbs, List<JournalRecord> records) throws IOException {
+        if (!isJournalEnabled()) {
+            synchronized (SNAPSHOT_LOCK) {
+                synchronized (BOOKING_FILES_LOCK) {
+                    synchronized (FlightBookingSystemData.class) {
+                        if (binaryFormat) {
+                            storeSnapshot(fbs);
+                        } else if (mappedFormat && journal.size() == 0 && !mappedStoreBehind) {
+                            // The store holds every earlier change, since none has failed
+                            // to apply since the last full write, so these are all there is
+                            // to write
+                            long version = fbs.getVersion(EntitySet.BOOKINGS);
+                            try {
+                                mappedBookingStore.applyAll(records);
+                            } catch (IOException ex) {
+                                // The bookings stay dirty and are rewritten in full next time
+                                mappedStoreBehind = true;
+                                throw ex;
+                            }
+                            fbs.markStored(EntitySet.BOOKINGS, version);
+                        } else {
+                            storeIfDirty(fbs, EntitySet.BOOKINGS,
+                                    mappedFormat ? mappedBookingStore : bookingDataManager);
+                            journal.truncate();
+                            mappedStoreBehind = false;
+                        }
+                    }
+                }
+            }
+            return;
+        }
+        JournalCompactor current;
+        synchronized (FlightBookingSystemData.class) {
+            journal.appendAll(records);
+            current = compactor;
+        }
+        if (current != null) {
+            current.checkThresholds();
         }
     }
 }
@@ -3,14 +3,13 @@ package bcu.cmp5332.bookingsystem.data;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
-import java.io.File;
-import java.io.FileWriter;
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 /**
  * Manages the loading and storing of flight data.
@@ -20,29 +19,36 @@ import java.util.Scanner;
  */
 public class FlightDataManager implements DataManager {
 
-    private final String RESOURCE = "./resources/data/flights.txt";
+    static final String RESOURCE = DATA_DIRECTORY + "/flights.txt";
     private static final String SEPARATOR = "::";
 
+    private final Path file;
+
+    /**
+     * Constructs a data manager for the default flights file.
+     */
+    public FlightDataManager() {
+        this(Paths.get(RESOURCE));
+    }
+
+    /**
+     * Constructs a data manager for the given flights file.
+     *
+     * @param file the flights file
+     */
+    public FlightDataManager(Path file) {
+        this.file = file;
+    }
+
     @Override
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
-        try (Scanner sc = new Scanner(new File(RESOURCE))) {
+        try (BufferedReader reader = AtomicFile.newReader(file)) {
+            RecordTokenizer fields = new RecordTokenizer();
             int lineNumber = 1;
-            while (sc.hasNextLine()) {
-                String line = sc.nextLine();
-                String[] properties = line.split(SEPARATOR, -1);
+            String line;
+            while ((line = reader.readLine()) != null) {
                 try {
-                    int id = Integer.parseInt(properties[0]);
-                    String flightNumber = properties[1];
-                    String origin = properties[2];
-                    String destination = properties[3];
-                    LocalDate departureDate = LocalDate.parse(properties[4]);
-                    int capacity = Integer.parseInt(properties[5]);
-                    double price = Double.parseDouble(properties[6]);
-                    double cancellationRebookFee = Double.parseDouble(properties[7]);
-                    int status = Integer.parseInt(properties[8]);
-
-                    Flight flight = new Flight(id, flightNumber, origin, destination, departureDate, capacity, price, cancellationRebookFee, status);
-                    fbs.addFlight(flight);
+                    fbs.addFlight(parseFlight(fields.reset(line)));
                 } catch (NumberFormatException ex) {
                     throw new FlightBookingSystemException("Unable to parse flight data on line " + lineNumber + "\nError: " + ex);
                 }
@@ -51,22 +57,50 @@ public class FlightDataManager implements DataManager {
         }
     }
 
+    /**
+     * Parses a single line of the flights file. Airport names are shared between
+     * the flights parsed with the same tokenizer.
+     *
+     * @param fields the tokenizer, reset to the line
+     * @return the parsed flight
+     * @throws NumberFormatException if a numeric field is invalid or missing
+     */
+    static Flight parseFlight(RecordTokenizer fields) {
+        int id = fields.nextInt();
+        String flightNumber = fields.next();
+        String origin = fields.nextShared();
+        String destination = fields.nextShared();
+        LocalDate departureDate = fields.nextDate();
+        int capacity = fields.nextInt();
+        double price = fields.nextDouble();
+        double cancellationRebookFee = fields.nextDouble();
+        int status = fields.nextInt();
+
+        return new Flight(id, flightNumber, origin, destination, departureDate, capacity, price, cancellationRebookFee, status);
+    }
+
     @Override
     public void storeData(FlightBookingSystem fbs) throws IOException {
-        try (PrintWriter out = new PrintWriter(new FileWriter(RESOURCE, false))) {
-            for (Flight flight : fbs.getFlights()) {
-                out.print(flight.getId() + SEPARATOR);
-                out.print(flight.getFlightNumber() + SEPARATOR);
-                out.print(flight.getOrigin() + SEPARATOR);
-                out.print(flight.getDestination() + SEPARATOR);
-                out.print(flight.getDepartureDate() + SEPARATOR);
-                out.print(flight.getCapacity() + SEPARATOR);
-                out.print(flight.getPrice() + SEPARATOR);
-                out.print(flight.getCancellationRebookFee() + SEPARATOR);
-                out.print(flight.getStatus() + SEPARATOR);
-                out.println();
-            }
-        }
+        List<Flight> flights = fbs.getFlights();
+        AtomicFile.writeLines(file, () -> flights.stream().map(FlightDataManager::formatFlight).iterator());
+    }
+
+    /**
+     * Formats a flight as a single line of the flights file.
+     *
+     * @param flight the flight to format
+     * @return the formatted line, without a line terminator
+     */
+    static String formatFlight(Flight flight) {
+        return flight.getId() + SEPARATOR
+                + flight.getFlightNumber() + SEPARATOR
+                + flight.getOrigin() + SEPARATOR
+                + flight.getDestination() + SEPARATOR
+                + flight.getDepartureDate() + SEPARATOR
+                + flight.getCapacity() + SEPARATOR
+                + flight.getPrice() + SEPARATOR
+                + flight.getCancellationRebookFee() + SEPARATOR
+                + flight.getStatus() + SEPARATOR;
     }
 
     /**
@@ -77,20 +111,16 @@ public class FlightDataManager implements DataManager {
      * @throws IOException if an I/O error occurs
      */
     public void removeFlightFromFile(FlightBookingSystem fbs, int flightId) throws IOException {
-        File file = new File(RESOURCE);
         List<String> lines = new ArrayList<>();
-        try (Scanner scanner = new Scanner(file)) {
-            while (scanner.hasNextLine()) {
-                lines.add(scanner.nextLine());
+        try (BufferedReader reader = AtomicFile.newReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
             }
         }
 
         lines.removeIf(line -> line.split(SEPARATOR)[0].equals(String.valueOf(flightId)));
 
-        try (PrintWriter out = new PrintWriter(new FileWriter(file, false))) {
-            for (String line : lines) {
-                out.println(line);
-            }
-        }
+        AtomicFile.writeLines(file, lines);
     }
 }
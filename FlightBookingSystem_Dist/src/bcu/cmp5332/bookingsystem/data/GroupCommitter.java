@@ -0,0 +1,154 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists booking mutations from concurrent commands in batches on a single writer
+ * thread.
+ * <p>
+ * Callers {@link #submit} a mutation they have already applied to the system and get
+ * a future that completes once the mutation is durable. While the writer is busy
+ * writing and forcing one batch, further mutations queue up; the writer then takes
+ * everything that has queued, up to {@link #MAX_BATCH} records, and hands it to the
+ * {@link Sink} in one call, so a whole batch costs a single write and a single fsync.
+ * A caller that is alone still gets its record written straight away.
+ * <p>
+ * If the sink fails, every future in the batch completes exceptionally with the
+ * same exception.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class GroupCommitter {
+
+    /** Maximum number of records written in one batch. */
+    public static final int MAX_BATCH = 1024;
+
+    /**
+     * Durably writes a batch of booking mutations.
+     */
+    public interface Sink {
+        /**
+         * Writes the given mutations, in order, and returns once they are durable.
+         *
+         * @param fbs the flight booking system the mutations were applied to
+         * @param records the mutations to write
+         * @throws IOException if an I/O error occurs
+         */
+        void commit(FlightBookingSystem fbs, List<JournalRecord> records) throws IOException;
+    }
+
+    private static final class Pending {
+        final FlightBookingSystem fbs;
+        final JournalRecord record;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Pending(FlightBookingSystem fbs, JournalRecord record) {
+            this.fbs = fbs;
+            this.record = record;
+        }
+    }
+
+    private final Sink sink;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong records = new AtomicLong();
+    private final Thread writer;
+
+    /**
+     * Constructs a group committer and starts its writer thread.
+     *
+     * @param sink writes each batch
+     */
+    public GroupCommitter(Sink sink) {
+        this.sink = sink;
+        this.writer = new Thread(this::run, "group-commit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a booking mutation to be written with the next batch.
+     *
+     * @param fbs the flight booking system the mutation was applied to
+     * @param record the booking mutation
+     * @return a future that completes once the mutation is durable, or exceptionally
+     *         with the {@link IOException} that prevented it
+     */
+    public CompletableFuture<Void> submit(FlightBookingSystem fbs, JournalRecord record) {
+        Pending pending = new Pending(fbs, record);
+        queue.add(pending);
+        return pending.done;
+    }
+
+    /**
+     * Gets the number of batches written so far.
+     *
+     * @return the number of batches
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * Gets the number of records written so far.
+     *
+     * @return the number of records
+     */
+    public long getRecordCount() {
+        return records.get();
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException ex) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            // A batch is committed against one system; runs for different systems are
+            // written one after the other, in queue order
+            int start = 0;
+            while (start < batch.size()) {
+                FlightBookingSystem fbs = batch.get(start).fbs;
+                int end = start + 1;
+                while (end < batch.size() && batch.get(end).fbs == fbs) {
+                    end++;
+                }
+                commit(fbs, batch.subList(start, end));
+                start = end;
+            }
+            batch.clear();
+        }
+    }
+
+    private void commit(FlightBookingSystem fbs, List<Pending> run) {
+        List<JournalRecord> mutations = new ArrayList<>(run.size());
+        for (Pending pending : run) {
+            mutations.add(pending.record);
+        }
+        try {
+            sink.commit(fbs, mutations);
+        } catch (IOException | RuntimeException ex) {
+            for (Pending pending : run) {
+                pending.done.completeExceptionally(ex);
+            }
+            return;
+        }
+        batches.incrementAndGet();
+        records.addAndGet(run.size());
+        for (Pending pending : run) {
+            pending.done.complete(null);
+        }
+    }
+}
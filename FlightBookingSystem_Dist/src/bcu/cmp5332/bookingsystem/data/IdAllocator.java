@@ -0,0 +1,170 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out flight, customer and booking IDs from persisted, monotonic sequences.
+ * <p>
+ * IDs are allocated in memory from a block whose upper bound is recorded in
+ * {@code ids.txt} ({@code sequence::nextUnreservedId} per line) before any ID in
+ * it is handed out. Only exhausting a block touches the disk, so allocation is
+ * O(1), and an ID is never reused after a restart, although the unused tail of the
+ * last block is skipped.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class IdAllocator {
+
+    /**
+     * The kinds of entity that receive IDs.
+     */
+    public enum Sequence {
+        FLIGHT, CUSTOMER, BOOKING
+    }
+
+    static final String RESOURCE = DataManager.DATA_DIRECTORY + "/ids.txt";
+    private static final String SEPARATOR = "::";
+    private static final int DEFAULT_BLOCK_SIZE = 100;
+
+    private final Path path;
+    private final int blockSize;
+    private final Map<Sequence, Integer> next = new EnumMap<>(Sequence.class);
+    private final Map<Sequence, Integer> reservedUpTo = new EnumMap<>(Sequence.class);
+
+    /**
+     * Constructs an allocator backed by the default IDs file.
+     */
+    public IdAllocator() {
+        this(Paths.get(RESOURCE), DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructs an allocator backed by the given file.
+     *
+     * @param path the file recording the reserved upper bound of each sequence
+     * @param blockSize the number of IDs reserved per disk write
+     */
+    public IdAllocator(Path path, int blockSize) {
+        this.path = path;
+        this.blockSize = blockSize;
+        for (Sequence sequence : Sequence.values()) {
+            next.put(sequence, 1);
+            reservedUpTo.put(sequence, 1);
+        }
+    }
+
+    /**
+     * Reads the persisted sequence positions. Sequences missing from the file start at 1.
+     *
+     * @throws IOException if an I/O error occurs or the file is malformed
+     */
+    public synchronized void load() throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (BufferedReader reader = AtomicFile.newReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] properties = line.split(SEPARATOR, -1);
+                try {
+                    Sequence sequence = Sequence.valueOf(properties[0]);
+                    int value = Integer.parseInt(properties[1]);
+                    next.put(sequence, Math.max(next.get(sequence), value));
+                    reservedUpTo.put(sequence, Math.max(reservedUpTo.get(sequence), value));
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+                    throw new IOException("Unable to parse ID sequence line: " + line, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Allocates the next flight ID.
+     *
+     * @return a flight ID that has never been handed out before
+     */
+    public int nextFlightId() {
+        return reserve(Sequence.FLIGHT, 1);
+    }
+
+    /**
+     * Allocates the next customer ID.
+     *
+     * @return a customer ID that has never been handed out before
+     */
+    public int nextCustomerId() {
+        return reserve(Sequence.CUSTOMER, 1);
+    }
+
+    /**
+     * Allocates the next booking ID.
+     *
+     * @return a booking ID that has never been handed out before
+     */
+    public int nextBookingId() {
+        return reserve(Sequence.BOOKING, 1);
+    }
+
+    /**
+     * Reserves a contiguous block of IDs, for example for a bulk import.
+     *
+     * @param sequence the sequence to allocate from
+     * @param count the number of IDs to reserve
+     * @return the first ID of the block; the block is {@code [first, first + count)}
+     * @throws UncheckedIOException if the new upper bound cannot be persisted
+     */
+    public synchronized int reserve(Sequence sequence, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Number of IDs to reserve should be higher than 0");
+        }
+        int first = next.get(sequence);
+        int end = first + count;
+        int reserved = reservedUpTo.get(sequence);
+        if (end > reserved) {
+            reservedUpTo.put(sequence, end + blockSize);
+            try {
+                persist();
+            } catch (IOException ex) {
+                reservedUpTo.put(sequence, reserved);
+                throw new UncheckedIOException("Unable to persist ID sequences", ex);
+            }
+        }
+        next.put(sequence, end);
+        return first;
+    }
+
+    /**
+     * Records an ID that was assigned outside the allocator, such as one loaded from
+     * a data file or entered by the user, so that it is never handed out again.
+     * The new position is persisted with the next block reservation.
+     *
+     * @param sequence the sequence the ID belongs to
+     * @param id the ID in use
+     */
+    public synchronized void observe(Sequence sequence, int id) {
+        if (id >= next.get(sequence)) {
+            next.put(sequence, id + 1);
+        }
+    }
+
+    private void persist() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Sequence sequence : Sequence.values()) {
+            lines.add(sequence.name() + SEPARATOR + reservedUpTo.get(sequence));
+        }
+        AtomicFile.writeLines(path, lines);
+    }
+}
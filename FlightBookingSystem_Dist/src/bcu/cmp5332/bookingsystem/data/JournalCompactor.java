@@ -0,0 +1,243 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem.EntitySet;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checkpoints the booking journal in the background. When the journal grows past
+ * the configured size or record count, the compactor writes a fresh bookings
+ * snapshot (or one binary snapshot in the binary format, or a rewritten mapped
+ * booking store in the mapped format), swaps it in with an atomic rename and drops
+ * the journal records the snapshot now covers. The journal only holds booking
+ * changes, so the flights and customers files are left to their own stores.
+ * <p>
+ * Only the capture of the entity lists happens under the
+ * {@link FlightBookingSystemData} lock. While the snapshot is written the compactor
+ * holds just {@link FlightBookingSystemData#BOOKING_FILES_LOCK}, which no command
+ * but a full store waits for, so command execution in the CLI loop and the GUI is
+ * never held up by snapshot I/O. Records appended while the snapshot is being
+ * written are kept in the journal.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class JournalCompactor {
+
+    /** Default journal size, in bytes, that triggers a compaction. */
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+    /** Default number of journal records that triggers a compaction. */
+    public static final int DEFAULT_MAX_RECORDS = 10000;
+    /** Default interval between threshold checks, in milliseconds. */
+    public static final long DEFAULT_CHECK_INTERVAL_MILLIS = 5000;
+
+    /**
+     * Writes a snapshot of the flight booking system.
+     */
+    public interface SnapshotWriter {
+        /**
+         * Writes the entities captured for a snapshot and makes them durable.
+         *
+         * @param flights the flights
+         * @param customers the customers
+         * @param bookings the bookings
+         * @throws IOException if an I/O error occurs
+         */
+        void write(List<Flight> flights, List<Customer> customers, List<Booking> bookings) throws IOException;
+    }
+
+    private final FlightBookingSystem fbs;
+    private final BookingJournal journal;
+    private final long maxBytes;
+    private final int maxRecords;
+    private final long checkIntervalMillis;
+    private final SnapshotWriter writer;
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private ScheduledExecutorService executor;
+
+    /**
+     * Constructs a compactor with thresholds read from the {@code fbs.journal.maxBytes},
+     * {@code fbs.journal.maxRecords} and {@code fbs.journal.checkMillis} system properties.
+     *
+     * @param fbs the flight booking system to snapshot
+     * @param journal the journal to compact
+     */
+    public JournalCompactor(FlightBookingSystem fbs, BookingJournal journal) {
+        this(fbs, journal,
+                Long.getLong("fbs.journal.maxBytes", DEFAULT_MAX_BYTES),
+                Integer.getInteger("fbs.journal.maxRecords", DEFAULT_MAX_RECORDS),
+                Long.getLong("fbs.journal.checkMillis", DEFAULT_CHECK_INTERVAL_MILLIS));
+    }
+
+    /**
+     * Constructs a compactor with explicit thresholds.
+     *
+     * @param fbs the flight booking system to snapshot
+     * @param journal the journal to compact
+     * @param maxBytes the journal size in bytes that triggers a compaction
+     * @param maxRecords the number of journal records that triggers a compaction
+     * @param checkIntervalMillis the interval between periodic threshold checks
+     */
+    public JournalCompactor(FlightBookingSystem fbs, BookingJournal journal, long maxBytes, int maxRecords,
+            long checkIntervalMillis) {
+        this(fbs, journal, maxBytes, maxRecords, checkIntervalMillis, JournalCompactor::writeDataFiles);
+    }
+
+    /**
+     * Constructs a compactor with explicit thresholds that writes its snapshots with
+     * the given writer instead of to the data files.
+     *
+     * @param fbs the flight booking system to snapshot
+     * @param journal the journal to compact
+     * @param maxBytes the journal size in bytes that triggers a compaction
+     * @param maxRecords the number of journal records that triggers a compaction
+     * @param checkIntervalMillis the interval between periodic threshold checks
+     * @param writer writes the snapshots
+     */
+    public JournalCompactor(FlightBookingSystem fbs, BookingJournal journal, long maxBytes, int maxRecords,
+            long checkIntervalMillis, SnapshotWriter writer) {
+        this.fbs = fbs;
+        this.journal = journal;
+        this.maxBytes = maxBytes;
+        this.maxRecords = maxRecords;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.writer = writer;
+    }
+
+    /**
+     * Starts the background thread that periodically checks the thresholds.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::checkThresholds, checkIntervalMillis, checkIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background thread, waiting for a running compaction to finish.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            executor = null;
+        }
+    }
+
+    /**
+     * Schedules a compaction on the background thread if the journal has passed
+     * either threshold. Returns immediately.
+     */
+    public void checkThresholds() {
+        try {
+            if (journal.getRecordCount() < maxRecords && journal.size() < maxBytes) {
+                return;
+            }
+        } catch (IOException ex) {
+            return;
+        }
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = executor;
+        }
+        if (current != null && pending.compareAndSet(false, true)) {
+            current.execute(() -> {
+                try {
+                    compact();
+                } catch (IOException ex) {
+                    System.err.println("Journal compaction failed: " + ex.getMessage());
+                } finally {
+                    pending.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes a new snapshot of the bookings and discards the journal records it
+     * covers. Runs on the calling thread.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void compact() throws IOException {
+        synchronized (FlightBookingSystemData.BOOKING_FILES_LOCK) {
+            List<Flight> flights;
+            List<Customer> customers;
+            List<Booking> bookings;
+            long[] versions = new long[EntitySet.values().length];
+            long journalLength;
+            int journalRecords;
+            // Appends are serialised on the FlightBookingSystemData class lock, so everything
+            // before journalLength is reflected in the lists captured here. Records appended
+            // later may be reflected as well; replay skips those.
+            synchronized (FlightBookingSystemData.class) {
+                flights = fbs.getFlights();
+                customers = fbs.getCustomers();
+                bookings = fbs.getBookings();
+                for (EntitySet set : EntitySet.values()) {
+                    versions[set.ordinal()] = fbs.getVersion(set);
+                }
+                journalLength = journal.size();
+                journalRecords = journal.getRecordCount();
+            }
+
+            writer.write(flights, customers, bookings);
+            markStored(versions);
+            journal.discardPrefix(journalLength, journalRecords);
+        }
+    }
+
+    /**
+     * Writes a snapshot to the booking data file of the format in use; in the binary
+     * format, to the snapshot holding all three sets.
+     */
+    private static void writeDataFiles(List<Flight> flights, List<Customer> customers, List<Booking> bookings)
+            throws IOException {
+        if (FlightBookingSystemData.isBinaryFormat()) {
+            BinaryDataManager.write(Paths.get(BinaryDataManager.RESOURCE), flights, customers, bookings);
+            return;
+        }
+        if (FlightBookingSystemData.isMappedFormat()) {
+            FlightBookingSystemData.getMappedBookingStore().write(bookings);
+            return;
+        }
+
+        List<String> lines = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            lines.add(BookingDataManager.formatBooking(booking));
+        }
+        AtomicFile.writeLines(Paths.get(BookingDataManager.RESOURCE), lines);
+    }
+
+    /**
+     * Records the sets the snapshot holds as stored at the captured versions: the
+     * bookings, and in the binary format the flights and customers as well.
+     */
+    private void markStored(long[] versions) {
+        for (EntitySet set : EntitySet.values()) {
+            if (set == EntitySet.BOOKINGS || FlightBookingSystemData.isBinaryFormat()) {
+                fbs.markStored(set, versions[set.ordinal()]);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.Booking;
+import java.time.LocalDate;
+
+/**
+ * A single booking mutation as written to the booking journal.
+ * Records are stored one per line using the same {@code ::} separator as the data files:
+ * <ul>
+ * <li>{@code ADD::customerId::flightId::bookingDate::status::bookingId}</li>
+ * <li>{@code CANCEL::customerId::flightId::bookingId}</li>
+ * <li>{@code EDIT::customerId::oldFlightId::newFlightId::bookingId}</li>
+ * </ul>
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class JournalRecord {
+
+    /**
+     * The kind of booking mutation a record describes.
+     */
+    public enum Type {
+        ADD, CANCEL, EDIT
+    }
+
+    private static final String SEPARATOR = "::";
+
+    private final Type type;
+    private final int customerId;
+    private final int flightId;
+    private final int newFlightId;
+    private final LocalDate bookingDate;
+    private final int status;
+    private final int bookingId;
+
+    private JournalRecord(Type type, int customerId, int flightId, int newFlightId, LocalDate bookingDate, int status,
+            int bookingId) {
+        this.type = type;
+        this.customerId = customerId;
+        this.flightId = flightId;
+        this.newFlightId = newFlightId;
+        this.bookingDate = bookingDate;
+        this.status = status;
+        this.bookingId = bookingId;
+    }
+
+    /**
+     * Creates a record for a newly added booking.
+     *
+     * @param booking the booking that was added
+     * @return the journal record
+     */
+    public static JournalRecord added(Booking booking) {
+        return new JournalRecord(Type.ADD, booking.getCustomer().getId(), booking.getFlight().getId(), 0,
+                booking.getBookingDate(), booking.getStatus(), booking.getId());
+    }
+
+    /**
+     * Creates a record for a cancelled booking.
+     *
+     * @param booking the booking that was cancelled
+     * @return the journal record
+     */
+    public static JournalRecord cancelled(Booking booking) {
+        return new JournalRecord(Type.CANCEL, booking.getCustomer().getId(), booking.getFlight().getId(), 0, null, 0,
+                booking.getId());
+    }
+
+    /**
+     * Creates a record for a booking moved to another flight.
+     *
+     * @param booking the booking after it has been moved
+     * @param oldFlightId the ID of the flight the booking was on before the edit
+     * @return the journal record
+     */
+    public static JournalRecord edited(Booking booking, int oldFlightId) {
+        return new JournalRecord(Type.EDIT, booking.getCustomer().getId(), oldFlightId, booking.getFlight().getId(),
+                null, booking.getStatus(), booking.getId());
+    }
+
+    /**
+     * Parses a record from a single journal line.
+     *
+     * @param line the journal line, without its line terminator
+     * @return the parsed record
+     * @throws IllegalArgumentException if the line is not a valid record
+     */
+    public static JournalRecord parse(String line) {
+        String[] properties = line.split(SEPARATOR, -1);
+        try {
+            Type type = Type.valueOf(properties[0]);
+            int customerId = Integer.parseInt(properties[1]);
+            int flightId = Integer.parseInt(properties[2]);
+            switch (type) {
+                case ADD:
+                    return new JournalRecord(type, customerId, flightId, 0, LocalDate.parse(properties[3]),
+                            Integer.parseInt(properties[4]), Integer.parseInt(properties[5]));
+                case EDIT:
+                    return new JournalRecord(type, customerId, flightId, Integer.parseInt(properties[3]), null, 0,
+                            Integer.parseInt(properties[4]));
+                default:
+                    return new JournalRecord(type, customerId, flightId, 0, null, 0, Integer.parseInt(properties[3]));
+            }
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid journal record: " + line, ex);
+        }
+    }
+
+    /**
+     * Formats this record as a single journal line, without a line terminator.
+     *
+     * @return the formatted record
+     */
+    public String format() {
+        switch (type) {
+            case ADD:
+                return String.join(SEPARATOR, type.name(), String.valueOf(customerId), String.valueOf(flightId),
+                        bookingDate.toString(), String.valueOf(status), String.valueOf(bookingId));
+            case EDIT:
+                return String.join(SEPARATOR, type.name(), String.valueOf(customerId), String.valueOf(flightId),
+                        String.valueOf(newFlightId), String.valueOf(bookingId));
+            default:
+                return String.join(SEPARATOR, type.name(), String.valueOf(customerId), String.valueOf(flightId),
+                        String.valueOf(bookingId));
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public int getFlightId() {
+        return flightId;
+    }
+
+    public int getNewFlightId() {
+        return newFlightId;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the ID of the booking the record is about.
+     *
+     * @return the booking ID
+     */
+    public int getBookingId() {
+        return bookingId;
+    }
+}
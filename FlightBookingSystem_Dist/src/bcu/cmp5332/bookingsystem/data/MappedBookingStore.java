@@ -0,0 +1,298 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores bookings as fixed-size records in a memory-mapped file, {@code bookings.dat},
+ * so that a single booking mutation touches only its own record instead of rewriting
+ * every booking.
+ * <p>
+ * The file has a 16 byte header (the magic number {@code FBSM}, a format version and
+ * the number of records written) followed by 20 byte records:
+ * {@code int id, int customerId, int flightId, int bookingDay, int status}, where the
+ * booking day is an epoch day. New bookings are appended, cancelling a booking writes
+ * status 0 into its record and moving a booking to another flight overwrites the
+ * flight ID. Cancelled records are skipped on load and dropped by the next full
+ * {@link #storeData store}.
+ * <p>
+ * Full stores replace the file atomically through {@link AtomicFile#commit}. The file
+ * has no checksum footer, since records are overwritten in place between stores.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class MappedBookingStore implements DataManager {
+
+    static final String RESOURCE = DATA_DIRECTORY + "/bookings.dat";
+
+    /** "FBSM" in ASCII. */
+    static final int MAGIC = 0x4642534D;
+    /** The format version written by this class. */
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 20;
+
+    private static final int COUNT_OFFSET = 8;
+    private static final int CUSTOMER_OFFSET = 4;
+    private static final int FLIGHT_OFFSET = 8;
+    private static final int DAY_OFFSET = 12;
+    private static final int STATUS_OFFSET = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int recordCount;
+    /** Record index of every live booking, keyed by booking ID. */
+    private final Map<Integer, Integer> slots = new HashMap<>();
+
+    /**
+     * Constructs a store backed by the default bookings file.
+     */
+    public MappedBookingStore() {
+        this(Paths.get(RESOURCE));
+    }
+
+    /**
+     * Constructs a store backed by the given bookings file.
+     *
+     * @param path the bookings file
+     */
+    public MappedBookingStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Checks whether the bookings file exists.
+     *
+     * @return true if there are stored bookings to load
+     */
+    public boolean exists() {
+        return Files.exists(path);
+    }
+
+    @Override
+    public synchronized void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        map();
+        if (buffer.getInt(0) != MAGIC) {
+            throw new FlightBookingSystemException(path + " is not a mapped booking store");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new FlightBookingSystemException("Unsupported booking store version " + version);
+        }
+        int count = buffer.getInt(COUNT_OFFSET);
+        if (count < 0 || (long) HEADER_SIZE + (long) count * RECORD_SIZE > buffer.capacity()) {
+            throw new FlightBookingSystemException("Booking store " + path + " is truncated");
+        }
+
+        IdAllocator allocator = FlightBookingSystemData.getIdAllocator();
+        slots.clear();
+        recordCount = count;
+        // Records are read straight from the mapping, there is no intermediate copy.
+        for (int slot = 0; slot < count; slot++) {
+            int offset = offset(slot);
+            int status = buffer.getInt(offset + STATUS_OFFSET);
+            if (status == 0) {
+                continue;
+            }
+            int id = buffer.getInt(offset);
+            Customer customer = fbs.getCustomerByID(buffer.getInt(offset + CUSTOMER_OFFSET));
+            Flight flight = fbs.getFlightByID(buffer.getInt(offset + FLIGHT_OFFSET));
+            fbs.addBooking(new Booking(id, customer, flight, LocalDate.ofEpochDay(buffer.getInt(offset + DAY_OFFSET)),
+                    status));
+            allocator.observe(IdAllocator.Sequence.BOOKING, id);
+            slots.put(id, slot);
+        }
+    }
+
+    @Override
+    public void storeData(FlightBookingSystem fbs) throws IOException {
+        write(fbs.getBookings());
+    }
+
+    /**
+     * Replaces the file with one holding only the given bookings, reclaiming the
+     * records of cancelled bookings. The new file is written to a temporary file,
+     * forced and atomically renamed over the old one before it is mapped.
+     *
+     * @param bookings the bookings to store
+     * @throws IOException if an I/O error occurs
+     */
+    synchronized void write(List<Booking> bookings) throws IOException {
+        int capacity = Math.max(INITIAL_CAPACITY, bookings.size());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer block = ByteBuffer.allocate(1 << 16);
+            block.putInt(MAGIC).putInt(VERSION).putInt(bookings.size()).putInt(0);
+            for (Booking booking : bookings) {
+                if (block.remaining() < RECORD_SIZE) {
+                    drain(block, out);
+                }
+                block.putInt(booking.getId())
+                        .putInt(booking.getCustomer().getId())
+                        .putInt(booking.getFlight().getId())
+                        .putInt((int) booking.getBookingDate().toEpochDay())
+                        .putInt(booking.getStatus());
+            }
+            drain(block, out);
+            // Preallocate room for appends so the file is not remapped on every new booking
+            long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+            if (out.size() < size) {
+                out.write(ByteBuffer.allocate(1), size - 1);
+            }
+        }
+        close();
+        AtomicFile.commit(tmp, path);
+
+        map();
+        slots.clear();
+        recordCount = bookings.size();
+        for (int slot = 0; slot < recordCount; slot++) {
+            Booking booking = bookings.get(slot);
+            slots.put(booking.getId(), slot);
+        }
+    }
+
+    /**
+     * Applies a single booking mutation to its record in place and flushes the
+     * modified page to disk.
+     *
+     * @param record the booking mutation that has just been applied to the system
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void apply(JournalRecord record) throws IOException {
+        applyAll(Collections.singletonList(record));
+    }
+
+    /**
+     * Applies booking mutations to their records in place, in order, and flushes the
+     * modified pages to disk once for the whole batch.
+     *
+     * @param records the booking mutations that have just been applied to the system
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void applyAll(List<JournalRecord> records) throws IOException {
+        if (buffer == null) {
+            throw new IOException("Booking store " + path + " has not been loaded");
+        }
+        for (JournalRecord record : records) {
+            write(record);
+        }
+        buffer.force();
+    }
+
+    private void write(JournalRecord record) throws IOException {
+        switch (record.getType()) {
+            case ADD:
+                int slot = recordCount;
+                ensureCapacity(slot + 1);
+                int offset = offset(slot);
+                buffer.putInt(offset, record.getBookingId());
+                buffer.putInt(offset + CUSTOMER_OFFSET, record.getCustomerId());
+                buffer.putInt(offset + FLIGHT_OFFSET, record.getFlightId());
+                buffer.putInt(offset + DAY_OFFSET, (int) record.getBookingDate().toEpochDay());
+                buffer.putInt(offset + STATUS_OFFSET, record.getStatus());
+                // Publish the record only once it is complete
+                recordCount++;
+                buffer.putInt(COUNT_OFFSET, recordCount);
+                slots.put(record.getBookingId(), slot);
+                break;
+            case CANCEL:
+                Integer cancelled = slots.remove(record.getBookingId());
+                if (cancelled == null) {
+                    throw new IOException("No stored booking with ID " + record.getBookingId());
+                }
+                buffer.putInt(offset(cancelled) + STATUS_OFFSET, 0);
+                break;
+            case EDIT:
+                Integer moved = slots.get(record.getBookingId());
+                if (moved == null) {
+                    throw new IOException("No stored booking with ID " + record.getBookingId());
+                }
+                buffer.putInt(offset(moved) + FLIGHT_OFFSET, record.getNewFlightId());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown booking mutation: " + record.getType());
+        }
+    }
+
+    /**
+     * Gets the number of records in the file, including cancelled ones.
+     *
+     * @return the number of records
+     */
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Unmaps and closes the bookings file. It is mapped again by the next load or store.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void close() throws IOException {
+        buffer = null;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void map() throws IOException {
+        close();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+            close();
+            throw new IOException("Booking store " + path + " has an invalid size: " + size + " bytes");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private void ensureCapacity(int records) throws IOException {
+        long required = HEADER_SIZE + (long) records * RECORD_SIZE;
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        long grown = Math.max(required, HEADER_SIZE + 2L * (buffer.capacity() - HEADER_SIZE));
+        if (grown > Integer.MAX_VALUE) {
+            throw new IOException("Booking store " + path + " is full");
+        }
+        buffer.force();
+        channel.write(ByteBuffer.allocate(1), grown - 1);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, grown);
+    }
+
+    private static void drain(ByteBuffer block, FileChannel out) throws IOException {
+        block.flip();
+        while (block.hasRemaining()) {
+            out.write(block);
+        }
+        block.clear();
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,265 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Loads the text data files on a fork-join pool instead of one file and one line at
+ * a time.
+ * <p>
+ * Each file is read and verified with {@link AtomicFile#read}, then recursively
+ * split into line-aligned byte ranges. Each range is decoded once and its lines are parsed in place with a
+ * {@link RecordTokenizer}, concurrently with the other ranges. The flights, customers and
+ * bookings files are all parsed at the same time, since parsing a booking line does
+ * not need its customer or flight. Once the flights and customers have been added,
+ * the parsed booking rows are resolved and added chunk by chunk, again in parallel;
+ * {@link FlightBookingSystem#addBooking} is safe to call concurrently.
+ * <p>
+ * Enabled with the {@code fbs.load.parallel} system property. Parse errors are
+ * reported with the same line numbers as the sequential data managers.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class ParallelLoader {
+
+    /** Byte ranges smaller than this are parsed without being split further. */
+    static final int MIN_CHUNK_BYTES = 256 * 1024;
+
+    /**
+     * Parses one line of a data file.
+     *
+     * @param <T> the type of the parsed record
+     */
+    interface LineParser<T> {
+        T parse(RecordTokenizer fields);
+    }
+
+    /**
+     * The records parsed from one byte range, in file order, or the first line of
+     * the range that could not be parsed.
+     *
+     * @param <T> the type of the parsed records
+     */
+    static final class Chunk<T> {
+        final List<T> records = new ArrayList<>();
+        int lines;
+        int errorLine;
+        RuntimeException error;
+    }
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a loader that runs on the common fork-join pool.
+     */
+    public ParallelLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a loader that runs on the given pool.
+     *
+     * @param pool the pool that parses and resolves chunks
+     */
+    public ParallelLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Loads the flights and customers files and, if requested, the bookings file.
+     *
+     * @param fbs the flight booking system to load into
+     * @param includeBookings true to load {@code bookings.txt} as well
+     * @throws IOException if a data file cannot be read
+     * @throws FlightBookingSystemException if a data file cannot be parsed
+     */
+    public void load(FlightBookingSystem fbs, boolean includeBookings)
+            throws IOException, FlightBookingSystemException {
+        load(fbs, Paths.get(FlightDataManager.RESOURCE), Paths.get(CustomerDataManager.RESOURCE),
+                includeBookings ? Paths.get(BookingDataManager.RESOURCE) : null);
+    }
+
+    /**
+     * Loads the given flights and customers files and, if one is given, the given
+     * bookings file.
+     *
+     * @param fbs the flight booking system to load into
+     * @param flightsFile the flights file
+     * @param customersFile the customers file
+     * @param bookingsFile the bookings file, or null to load no bookings
+     * @throws IOException if a data file cannot be read
+     * @throws FlightBookingSystemException if a data file cannot be parsed
+     */
+    public void load(FlightBookingSystem fbs, Path flightsFile, Path customersFile, Path bookingsFile)
+            throws IOException, FlightBookingSystemException {
+        ForkJoinTask<List<Chunk<Flight>>> flights = pool.submit(
+                chunks(flightsFile, FlightDataManager::parseFlight));
+        ForkJoinTask<List<Chunk<Customer>>> customers = pool.submit(
+                chunks(customersFile, CustomerDataManager::parseCustomer));
+        ForkJoinTask<List<Chunk<BookingDataManager.Row>>> bookings = bookingsFile != null
+                ? pool.submit(chunks(bookingsFile, BookingDataManager::parseRow))
+                : null;
+
+        int lineNumber = 1;
+        for (Chunk<Flight> chunk : flights.join()) {
+            // The flights file reports the exception type as well, like FlightDataManager
+            check(chunk, lineNumber, "Unable to parse flight data on line ", ex -> "\nError: " + ex);
+            for (Flight flight : chunk.records) {
+                fbs.addFlight(flight);
+            }
+            lineNumber += chunk.lines;
+        }
+        lineNumber = 1;
+        for (Chunk<Customer> chunk : customers.join()) {
+            check(chunk, lineNumber, "Unable to parse customer data on line ", ex -> "\nError: " + ex.getMessage());
+            for (Customer customer : chunk.records) {
+                fbs.addCustomer(customer);
+            }
+            lineNumber += chunk.lines;
+        }
+        if (bookings == null) {
+            return;
+        }
+
+        List<Chunk<BookingDataManager.Row>> bookingChunks = bookings.join();
+        List<BookingDataManager.Row> rows = new ArrayList<>();
+        lineNumber = 1;
+        for (Chunk<BookingDataManager.Row> chunk : bookingChunks) {
+            check(chunk, lineNumber, "Error parsing booking data on line ", ex -> ": " + ex.getMessage());
+            rows.addAll(chunk.records);
+            lineNumber += chunk.lines;
+        }
+        BookingDataManager.assignLegacyIds(rows);
+
+        List<ForkJoinTask<FlightBookingSystemException>> resolved = new ArrayList<>(bookingChunks.size());
+        for (Chunk<BookingDataManager.Row> chunk : bookingChunks) {
+            resolved.add(pool.submit(() -> {
+                try {
+                    for (BookingDataManager.Row row : chunk.records) {
+                        fbs.addBooking(BookingDataManager.resolve(row, fbs));
+                    }
+                    return null;
+                } catch (FlightBookingSystemException ex) {
+                    return ex;
+                }
+            }));
+        }
+        // Wait for every chunk before reporting, so no task is still adding bookings
+        FlightBookingSystemException failure = null;
+        for (ForkJoinTask<FlightBookingSystemException> task : resolved) {
+            FlightBookingSystemException ex = task.join();
+            if (failure == null) {
+                failure = ex;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void check(Chunk<?> chunk, int firstLine, String message,
+            Function<RuntimeException, String> detail) throws FlightBookingSystemException {
+        if (chunk.error != null) {
+            throw new FlightBookingSystemException(message + (firstLine + chunk.errorLine - 1)
+                    + detail.apply(chunk.error));
+        }
+    }
+
+    private static <T> ChunkTask<T> chunks(Path path, LineParser<T> parser) throws IOException {
+        ByteBuffer data = AtomicFile.read(path);
+        return new ChunkTask<>(data, 0, data.limit(), parser);
+    }
+
+    /**
+     * Parses a line-aligned byte range, splitting it in two at a line boundary while
+     * it is larger than {@link #MIN_CHUNK_BYTES}.
+     */
+    private static final class ChunkTask<T> extends RecursiveTask<List<Chunk<T>>> {
+
+        private final ByteBuffer data;
+        private final int start;
+        private final int end;
+        private final LineParser<T> parser;
+
+        ChunkTask(ByteBuffer data, int start, int end, LineParser<T> parser) {
+            this.data = data;
+            this.start = start;
+            this.end = end;
+            this.parser = parser;
+        }
+
+        @Override
+        protected List<Chunk<T>> compute() {
+            if (end - start > MIN_CHUNK_BYTES) {
+                int middle = nextLine(data, start + (end - start) / 2, end);
+                if (middle < end) {
+                    ChunkTask<T> left = new ChunkTask<>(data, start, middle, parser);
+                    left.fork();
+                    List<Chunk<T>> right = new ChunkTask<>(data, middle, end, parser).compute();
+                    List<Chunk<T>> chunks = left.join();
+                    chunks.addAll(right);
+                    return chunks;
+                }
+            }
+            List<Chunk<T>> chunks = new ArrayList<>(1);
+            chunks.add(parse());
+            return chunks;
+        }
+
+        private Chunk<T> parse() {
+            Chunk<T> chunk = new Chunk<>();
+            // Decode through a duplicate, so the shared buffer's position is never touched
+            ByteBuffer range = data.duplicate();
+            range.limit(end);
+            range.position(start);
+            CharBuffer text = StandardCharsets.UTF_8.decode(range);
+            RecordTokenizer fields = new RecordTokenizer();
+            int length = text.length();
+            int lineStart = 0;
+            while (lineStart < length) {
+                int lineEnd = lineStart;
+                while (lineEnd < length && text.charAt(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int textEnd = lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                chunk.lines++;
+                if (chunk.error == null) {
+                    try {
+                        chunk.records.add(parser.parse(fields.reset(text, lineStart, textEnd)));
+                    } catch (RuntimeException ex) {
+                        // Keep counting lines so later chunks still report the right line
+                        chunk.error = ex;
+                        chunk.errorLine = chunk.lines;
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+            return chunk;
+        }
+
+        private static int nextLine(ByteBuffer data, int from, int end) {
+            for (int i = from; i < end; i++) {
+                if (data.get(i) == '\n') {
+                    return i + 1;
+                }
+            }
+            return end;
+        }
+    }
+}
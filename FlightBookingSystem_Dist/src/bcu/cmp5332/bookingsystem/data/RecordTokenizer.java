@@ -0,0 +1,303 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import java.time.LocalDate;
+
+/**
+ * Reads the {@code ::}-separated fields of a data file record one at a time, straight
+ * out of the character sequence holding the line.
+ * <p>
+ * Unlike {@code line.split("::")} no array and no per-field {@code String} is
+ * created: integers, decimals and ISO dates are parsed in place and only free-text
+ * fields are materialised. Fields read with {@link #nextShared()} are deduplicated,
+ * so the handful of airport names shared by thousands of flights are each held
+ * once. A tokenizer is reset for every record and reused for a whole file; it is not
+ * thread-safe.
+ * <p>
+ * Malformed numbers throw {@link NumberFormatException} with the same message as
+ * {@link Integer#parseInt}, and a record with too few fields throws it as well.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public final class RecordTokenizer {
+
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    /** Largest mantissa whose quotient by a power of ten is still correctly rounded. */
+    private static final long MAX_EXACT_MANTISSA = (1L << 53) - 1;
+    /** Number of distinct shared strings kept before new ones are no longer remembered. */
+    private static final int MAX_SHARED = 4096;
+
+    private CharSequence text;
+    private int position;
+    private int end;
+    private int field;
+
+    private String[] shared = new String[64];
+    private int sharedCount;
+
+    /**
+     * Starts reading a new record.
+     *
+     * @param line the record, without its line terminator
+     * @return this tokenizer
+     */
+    public RecordTokenizer reset(CharSequence line) {
+        return reset(line, 0, line.length());
+    }
+
+    /**
+     * Starts reading a new record held in part of a larger character sequence.
+     *
+     * @param text the characters holding the record
+     * @param start the index of the first character of the record
+     * @param end the index after the last character of the record
+     * @return this tokenizer
+     */
+    public RecordTokenizer reset(CharSequence text, int start, int end) {
+        this.text = text;
+        this.position = start;
+        this.end = end;
+        this.field = 0;
+        return this;
+    }
+
+    /**
+     * Checks whether the record has another field.
+     *
+     * @return true if there is a field left to read
+     */
+    public boolean hasNext() {
+        return position <= end;
+    }
+
+    /**
+     * Skips the next field.
+     */
+    public void skip() {
+        advance(fieldEnd());
+    }
+
+    /**
+     * Reads the next field as a string.
+     *
+     * @return the field
+     */
+    public String next() {
+        int start = position;
+        int fieldEnd = fieldEnd();
+        advance(fieldEnd);
+        return text.subSequence(start, fieldEnd).toString();
+    }
+
+    /**
+     * Reads the next field as a string that is likely to repeat across records, such
+     * as an airport name, returning the same instance for equal fields.
+     *
+     * @return the field
+     */
+    public String nextShared() {
+        int start = position;
+        int fieldEnd = fieldEnd();
+        advance(fieldEnd);
+
+        int hash = 0;
+        for (int i = start; i < fieldEnd; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        int mask = shared.length - 1;
+        int slot = mix(hash) & mask;
+        String candidate;
+        while ((candidate = shared[slot]) != null) {
+            if (candidate.hashCode() == hash && matches(candidate, start, fieldEnd)) {
+                return candidate;
+            }
+            slot = (slot + 1) & mask;
+        }
+        String value = text.subSequence(start, fieldEnd).toString();
+        if (sharedCount < MAX_SHARED) {
+            shared[slot] = value;
+            if (++sharedCount * 2 > shared.length) {
+                rehash();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Reads the next field as a decimal integer.
+     *
+     * @return the value of the field
+     * @throws NumberFormatException if the field is not a valid integer
+     */
+    public int nextInt() {
+        int start = position;
+        int fieldEnd = fieldEnd();
+        advance(fieldEnd);
+
+        int i = start;
+        boolean negative = false;
+        if (i < fieldEnd && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        if (i == fieldEnd) {
+            throw invalid(start, fieldEnd);
+        }
+        // Accumulate negatively so Integer.MIN_VALUE does not overflow
+        long limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        long value = 0;
+        for (; i < fieldEnd; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(start, fieldEnd);
+            }
+            value = value * 10 - digit;
+            if (value < limit) {
+                throw invalid(start, fieldEnd);
+            }
+        }
+        return (int) (negative ? value : -value);
+    }
+
+    /**
+     * Reads the next field as a decimal number. Plain decimals such as {@code 1000.5}
+     * are parsed in place; anything else, such as exponents or very long mantissas,
+     * falls back to {@link Double#parseDouble} so the result is always correctly
+     * rounded.
+     *
+     * @return the value of the field
+     * @throws NumberFormatException if the field is not a valid number
+     */
+    public double nextDouble() {
+        int start = position;
+        int fieldEnd = fieldEnd();
+        advance(fieldEnd);
+
+        int i = start;
+        boolean negative = false;
+        if (i < fieldEnd && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < fieldEnd; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9' || mantissa > MAX_EXACT_MANTISSA / 10) {
+                return parseDouble(start, fieldEnd);
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            digits++;
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        if (digits == 0 || mantissa > MAX_EXACT_MANTISSA || fractionDigits >= POWERS_OF_TEN.length) {
+            return parseDouble(start, fieldEnd);
+        }
+        // Both operands are exact, so the single division is correctly rounded
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads the next field as an ISO {@code yyyy-MM-dd} date. Any other form falls back
+     * to {@link LocalDate#parse}.
+     *
+     * @return the date
+     * @throws java.time.DateTimeException if the field is not a valid date
+     */
+    public LocalDate nextDate() {
+        int start = position;
+        int fieldEnd = fieldEnd();
+        advance(fieldEnd);
+
+        if (fieldEnd - start == 10 && text.charAt(start + 4) == '-' && text.charAt(start + 7) == '-') {
+            int year = digits(start, start + 4);
+            int month = digits(start + 5, start + 7);
+            int day = digits(start + 8, start + 10);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(text.subSequence(start, fieldEnd));
+    }
+
+    private int fieldEnd() {
+        if (position > end) {
+            throw new NumberFormatException("Incomplete record: no field " + (field + 1));
+        }
+        for (int i = position; i + 1 < end; i++) {
+            if (text.charAt(i) == ':' && text.charAt(i + 1) == ':') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private void advance(int fieldEnd) {
+        // Past the separator; beyond end once the last field has been read
+        position = fieldEnd + DataManager.SEPARATOR.length();
+        if (fieldEnd == end) {
+            position = end + 1;
+        }
+        field++;
+    }
+
+    private int digits(int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private double parseDouble(int start, int fieldEnd) {
+        return Double.parseDouble(text.subSequence(start, fieldEnd).toString());
+    }
+
+    private NumberFormatException invalid(int start, int fieldEnd) {
+        return new NumberFormatException("For input string: \"" + text.subSequence(start, fieldEnd) + "\"");
+    }
+
+    private boolean matches(String candidate, int start, int fieldEnd) {
+        if (candidate.length() != fieldEnd - start) {
+            return false;
+        }
+        for (int i = 0; i < candidate.length(); i++) {
+            if (candidate.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        String[] old = shared;
+        shared = new String[old.length * 2];
+        int mask = shared.length - 1;
+        for (String value : old) {
+            if (value != null) {
+                int slot = mix(value.hashCode()) & mask;
+                while (shared[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                shared[slot] = value;
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
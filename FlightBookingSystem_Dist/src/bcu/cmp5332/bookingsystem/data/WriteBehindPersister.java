@@ -0,0 +1,239 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists changes in the background so that commands return as soon as the
+ * in-memory system has been updated.
+ * <p>
+ * Every change is queued as a mutation: a booking mutation carries its
+ * {@link JournalRecord}, a flight or customer change only says that the system has
+ * changed. A writer thread flushes the queued mutations together once
+ * {@code maxMutations} have queued or {@code flushMillis} have passed since the first
+ * of them, whichever comes first. Flights and customers are written once per flush
+ * however many times they changed, since only their dirty files are rewritten.
+ * <p>
+ * The queue holds at most {@code queueCapacity} mutations. When it is full,
+ * {@link #submit} blocks until the writer has caught up, so a slow disk slows
+ * commands down instead of letting unsaved changes pile up without limit. Changes
+ * made in the last {@code flushMillis} are lost if the process crashes; a failed
+ * flush is reported on standard error and by the next {@link #flush}, and the
+ * affected entity sets stay dirty, so the next full store writes them.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class WriteBehindPersister {
+
+    /** Default maximum time, in milliseconds, a change waits before it is written. */
+    public static final long DEFAULT_FLUSH_MILLIS = 1000;
+    /** Default number of queued mutations that triggers a flush. */
+    public static final int DEFAULT_MAX_MUTATIONS = 1000;
+    /** Default number of mutations the queue holds before submitters block. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    /**
+     * Writes the changes of one flush.
+     */
+    public interface Sink {
+        /**
+         * Writes everything that has changed in the system, including the given
+         * booking mutations, in order.
+         *
+         * @param fbs the flight booking system that changed
+         * @param bookings the booking mutations since the last flush, possibly none
+         * @throws IOException if an I/O error occurs
+         */
+        void flush(FlightBookingSystem fbs, List<JournalRecord> bookings) throws IOException;
+    }
+
+    /**
+     * A queued change, or a request to flush everything queued before it.
+     */
+    private static final class Mutation {
+        final FlightBookingSystem fbs;
+        final JournalRecord record;
+        final CountDownLatch flushed;
+
+        Mutation(FlightBookingSystem fbs, JournalRecord record, CountDownLatch flushed) {
+            this.fbs = fbs;
+            this.record = record;
+            this.flushed = flushed;
+        }
+    }
+
+    private final Sink sink;
+    private final long flushMillis;
+    private final int maxMutations;
+    private final BlockingQueue<Mutation> queue;
+    private final AtomicLong flushes = new AtomicLong();
+    private volatile IOException lastFailure;
+
+    /**
+     * Constructs a persister with settings read from the
+     * {@code fbs.writeBehind.flushMillis}, {@code fbs.writeBehind.maxMutations} and
+     * {@code fbs.writeBehind.queueCapacity} system properties, and starts its writer
+     * thread.
+     *
+     * @param sink writes each flush
+     */
+    public WriteBehindPersister(Sink sink) {
+        this(sink,
+                Long.getLong("fbs.writeBehind.flushMillis", DEFAULT_FLUSH_MILLIS),
+                Integer.getInteger("fbs.writeBehind.maxMutations", DEFAULT_MAX_MUTATIONS),
+                Integer.getInteger("fbs.writeBehind.queueCapacity", DEFAULT_QUEUE_CAPACITY));
+    }
+
+    /**
+     * Constructs a persister with explicit settings and starts its writer thread.
+     *
+     * @param sink writes each flush
+     * @param flushMillis the longest time a change waits before it is written
+     * @param maxMutations the number of queued mutations that triggers a flush
+     * @param queueCapacity the number of mutations queued before submitters block
+     */
+    public WriteBehindPersister(Sink sink, long flushMillis, int maxMutations, int queueCapacity) {
+        if (flushMillis <= 0 || maxMutations <= 0 || queueCapacity < maxMutations) {
+            throw new IllegalArgumentException("Invalid write-behind settings: flushMillis=" + flushMillis
+                    + ", maxMutations=" + maxMutations + ", queueCapacity=" + queueCapacity);
+        }
+        this.sink = sink;
+        this.flushMillis = flushMillis;
+        this.maxMutations = maxMutations;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Thread writer = new Thread(this::run, "write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a change to be written with the next flush, blocking while the queue is
+     * full.
+     *
+     * @param fbs the flight booking system that changed
+     * @param record the booking mutation, or null for a flight or customer change
+     * @throws InterruptedIOException if interrupted while waiting for room in the queue
+     */
+    public void submit(FlightBookingSystem fbs, JournalRecord record) throws InterruptedIOException {
+        put(new Mutation(fbs, record, null));
+    }
+
+    /**
+     * Writes every change queued so far and waits until it has been written.
+     *
+     * @throws IOException if this or an earlier background flush failed since the
+     *         last call
+     */
+    public void flush() throws IOException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        put(new Mutation(null, null, flushed));
+        try {
+            flushed.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for changes to be saved");
+        }
+        IOException failure = lastFailure;
+        if (failure != null) {
+            lastFailure = null;
+            throw failure;
+        }
+    }
+
+    /**
+     * Gets the number of flushes written so far.
+     *
+     * @return the number of flushes
+     */
+    public long getFlushCount() {
+        return flushes.get();
+    }
+
+    private void put(Mutation mutation) throws InterruptedIOException {
+        try {
+            queue.put(mutation);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the write-behind queue");
+        }
+    }
+
+    private void run() {
+        List<Mutation> batch = new ArrayList<>();
+        long deadline = 0;
+        boolean flushRequested = false;
+        while (true) {
+            try {
+                Mutation next;
+                if (batch.isEmpty()) {
+                    next = queue.take();
+                    deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushMillis);
+                } else {
+                    next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+                if (next != null) {
+                    int from = batch.size();
+                    batch.add(next);
+                    queue.drainTo(batch, maxMutations - batch.size());
+                    for (int i = from; i < batch.size(); i++) {
+                        flushRequested |= batch.get(i).flushed != null;
+                    }
+                }
+            } catch (InterruptedException ex) {
+                return;
+            }
+            if (!batch.isEmpty() && (flushRequested || batch.size() >= maxMutations
+                    || System.nanoTime() - deadline >= 0)) {
+                write(batch);
+                batch.clear();
+                flushRequested = false;
+            }
+        }
+    }
+
+    private void write(List<Mutation> batch) {
+        // Changes to different systems are written one system at a time, bookings in
+        // queue order
+        List<FlightBookingSystem> systems = new ArrayList<>();
+        for (Mutation mutation : batch) {
+            if (mutation.fbs != null && !systems.contains(mutation.fbs)) {
+                systems.add(mutation.fbs);
+            }
+        }
+        IOException failure = null;
+        for (FlightBookingSystem fbs : systems) {
+            List<JournalRecord> bookings = new ArrayList<>();
+            for (Mutation mutation : batch) {
+                if (mutation.fbs == fbs && mutation.record != null) {
+                    bookings.add(mutation.record);
+                }
+            }
+            try {
+                sink.flush(fbs, bookings);
+            } catch (IOException | RuntimeException ex) {
+                failure = ex instanceof IOException ? (IOException) ex : new IOException(ex.getMessage(), ex);
+                System.err.println("Write-behind flush failed: " + ex.getMessage());
+            }
+        }
+        if (failure != null) {
+            lastFailure = failure;
+        } else if (!systems.isEmpty()) {
+            flushes.incrementAndGet();
+        }
+        for (Mutation mutation : batch) {
+            if (mutation.flushed != null) {
+                mutation.flushed.countDown();
+            }
+        }
+    }
+}
@@ -2,7 +2,6 @@ package bcu.cmp5332.bookingsystem.gui;
 
 import bcu.cmp5332.bookingsystem.commands.AddCustomer;
 import bcu.cmp5332.bookingsystem.commands.Command;
-import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 
 import java.awt.BorderLayout;
 import java.awt.GridLayout;
@@ -71,7 +70,7 @@ public class AddCustomerWindow extends JFrame implements ActionListener {
 		topPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 		JLabel customerIdLabel = new JLabel("Customer ID ");
 		customerIdLabel.setFont(new Font("Arial", Font.PLAIN, 14)); // Increase tooltip text size
-		customerIdLabel.setToolTipText("Enter the Customer ID");
+		customerIdLabel.setToolTipText("Enter the Customer ID, or leave blank to assign one");
 		topPanel.add(customerIdLabel);
 		topPanel.add(customerIdText);
 		JLabel fullNameLabel = new JLabel("Full Name ");
@@ -126,7 +125,9 @@ public class AddCustomerWindow extends JFrame implements ActionListener {
 	 */
 	private void addCustomer() {
 		try {
-			int customerId = Integer.parseInt(customerIdText.getText());
+			// A blank ID lets the system assign the next free one
+			String customerIdInput = customerIdText.getText().trim();
+			int customerId = customerIdInput.isEmpty() ? 0 : Integer.parseInt(customerIdInput);
 			String fullName = fullNameText.getText();
 			String phoneNumber = phoneNumberText.getText();
 			String email = emailText.getText();
@@ -137,23 +138,18 @@ public class AddCustomerWindow extends JFrame implements ActionListener {
 				return;
 			}
 
-			// Create and execute the AddCustomer Command
+			// Create the AddCustomer Command and run it in the background
 			Command addCustomer = new AddCustomer(customerId, fullName, phoneNumber, email); // Updated variable
-			addCustomer.execute(mw.getFlightBookingSystem());
+			mw.getDispatcher().dispatch("Adding customer " + fullName, addCustomer, this, () -> {
+				// Refresh the view with the list of customers
+				mw.displayCustomers();
 
-			// Refresh the view with the list of customers
-			mw.displayCustomers();
-
-			// Refresh the GUI
-			mw.refreshGUI();
-
-			// Hide (close) the AddCustomerWindow
-			this.setVisible(false);
+				// Hide (close) the AddCustomerWindow
+				this.setVisible(false);
+			});
 		} catch (NumberFormatException nfe) {
 			JOptionPane.showMessageDialog(this, "Customer ID must be a valid integer", "Error",
 					JOptionPane.ERROR_MESSAGE);
-		} catch (FlightBookingSystemException ex) {
-			JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
 		}
 	}
 
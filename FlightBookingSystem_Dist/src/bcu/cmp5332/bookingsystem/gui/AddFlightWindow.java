@@ -2,7 +2,6 @@ package bcu.cmp5332.bookingsystem.gui;
 
 import bcu.cmp5332.bookingsystem.commands.AddFlight;
 import bcu.cmp5332.bookingsystem.commands.Command;
-import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 
 import java.awt.BorderLayout;
 import java.awt.FlowLayout;
@@ -154,19 +153,12 @@ public class AddFlightWindow extends JFrame implements ActionListener {
 
             // Create and execute the AddFlight Command
             Command addFlight = new AddFlight(flightNumber, origin, destination, departureDate, capacity, price, cancellationRebookPrice, status);
-            addFlight.execute(mw.getFlightBookingSystem());
-
-            // Refresh the entire GUI
-            mw.refreshGUI();
-
-            // Hide (close) the AddFlightWindow
-            this.setVisible(false);
+            mw.getDispatcher().dispatch("Adding flight " + flightNumber, addFlight, this,
+                    () -> this.setVisible(false));
         } catch (DateTimeParseException dtpe) {
             JOptionPane.showMessageDialog(this, "Date must be in YYYY-MM-DD format", "Error", JOptionPane.ERROR_MESSAGE);
         } catch (NumberFormatException nfe) {
             JOptionPane.showMessageDialog(this, "Capacity and Price must be valid numbers", "Error", JOptionPane.ERROR_MESSAGE);
-        } catch (FlightBookingSystemException ex) {
-            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 }
@@ -96,15 +96,10 @@ public class CancelBookingWindow extends JFrame implements ActionListener {
             // Show confirmation dialog with cancellation fee
             int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to cancel this booking?\nCancellation Fee: $" + cancellationFee, "Confirmation", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
-                // Create and execute the CancelBooking Command
+                // Create the CancelBooking Command and run it in the background
                 Command cancelBooking = new CancelBooking(customerId, flightId);
-                cancelBooking.execute(fbs);
-
-                // Refresh the entire GUI
-                mw.refreshGUI();
-
-                // Hide (close) the CancelBookingWindow
-                this.setVisible(false);
+                mw.getDispatcher().dispatch("Cancelling booking", cancelBooking, this,
+                        () -> this.setVisible(false));
             }
         } catch (NumberFormatException nfe) {
             JOptionPane.showMessageDialog(this, "Customer ID and Flight ID must be valid integers", "Error", JOptionPane.ERROR_MESSAGE);
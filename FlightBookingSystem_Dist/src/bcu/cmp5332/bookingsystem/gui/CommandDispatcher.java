@@ -0,0 +1,152 @@
+package bcu.cmp5332.bookingsystem.gui;
+
+import bcu.cmp5332.bookingsystem.commands.Command;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Window;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+/**
+ * Runs the commands issued from the GUI off the Swing event thread, so the windows
+ * stay responsive while a command saves the data files.
+ * <p>
+ * Each command runs as a {@link SwingWorker} on a single background thread, so
+ * commands complete in the order they were issued, and its result is handled back
+ * on the event thread. While a command runs, the window that issued it is disabled,
+ * so it cannot be submitted twice, and the status bar shows its description next to
+ * an indeterminate progress bar. A command that fails has its message shown in an
+ * error dialog.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class CommandDispatcher {
+
+    private final FlightBookingSystem fbs;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "gui-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final JPanel statusBar = new JPanel(new BorderLayout(10, 0));
+    private final JLabel statusLabel = new JLabel();
+    private final JProgressBar progressBar = new JProgressBar();
+    /** Number of tasks submitted and not yet finished; only used on the event thread. */
+    private int running;
+
+    /**
+     * Constructs a dispatcher for commands against a flight booking system.
+     *
+     * @param fbs the flight booking system the commands run against
+     */
+    public CommandDispatcher(FlightBookingSystem fbs) {
+        this.fbs = fbs;
+        progressBar.setIndeterminate(true);
+        statusBar.setBorder(BorderFactory.createEmptyBorder(2, 10, 2, 10));
+        statusBar.add(statusLabel, BorderLayout.CENTER);
+        statusBar.add(progressBar, BorderLayout.EAST);
+        statusBar.setVisible(false);
+    }
+
+    /**
+     * Gets the status bar that shows the tasks in progress. It is hidden while none
+     * are running.
+     *
+     * @return the status bar
+     */
+    public JPanel getStatusBar() {
+        return statusBar;
+    }
+
+    /**
+     * Runs a command in the background. Must be called on the event thread.
+     *
+     * @param description what the command does, shown while it runs
+     * @param command the command
+     * @param parent the window that issued the command, or null
+     * @param onSuccess run on the event thread once the command has completed
+     */
+    public void dispatch(String description, Command command, Component parent, Runnable onSuccess) {
+        run(description, parent, () -> {
+            command.execute(fbs);
+            return null;
+        }, result -> onSuccess.run(), ex -> showError(parent, ex));
+    }
+
+    /**
+     * Runs a task in the background. Must be called on the event thread.
+     *
+     * @param <T> the type of the task's result
+     * @param description what the task does, shown while it runs
+     * @param parent the window that started the task, or null
+     * @param task the task
+     * @param onSuccess given the task's result on the event thread
+     * @param onFailure given the exception the task failed with on the event thread
+     */
+    public <T> void run(String description, Component parent, Callable<T> task, Consumer<T> onSuccess,
+            Consumer<Exception> onFailure) {
+        Window owner = parent instanceof Window ? (Window) parent
+                : parent == null ? null : SwingUtilities.getWindowAncestor(parent);
+        if (owner != null) {
+            owner.setEnabled(false);
+        }
+        started(description);
+        executor.execute(new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return task.call();
+            }
+
+            @Override
+            protected void done() {
+                finished();
+                if (owner != null) {
+                    owner.setEnabled(true);
+                }
+                T result;
+                try {
+                    result = get();
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    onFailure.accept(cause instanceof Exception ? (Exception) cause : ex);
+                    return;
+                } catch (InterruptedException ex) {
+                    onFailure.accept(ex);
+                    return;
+                }
+                onSuccess.accept(result);
+            }
+        });
+    }
+
+    private void started(String description) {
+        running++;
+        statusLabel.setText(description + "...");
+        statusBar.setVisible(true);
+    }
+
+    private void finished() {
+        running--;
+        if (running == 0) {
+            statusBar.setVisible(false);
+        }
+    }
+
+    private static void showError(Component parent, Exception ex) {
+        JOptionPane.showMessageDialog(parent, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    }
+}
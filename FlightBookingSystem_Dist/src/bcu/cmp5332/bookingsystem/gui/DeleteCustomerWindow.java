@@ -12,7 +12,6 @@ package bcu.cmp5332.bookingsystem.gui;
 
 import bcu.cmp5332.bookingsystem.commands.Command;
 import bcu.cmp5332.bookingsystem.commands.DeleteCustomer;
-import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 
 import javax.swing.*;
 import java.awt.*;
@@ -105,20 +104,13 @@ public class DeleteCustomerWindow extends JFrame implements ActionListener {
 
             int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete this customer?", "Confirmation", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
-                // Create and execute the DeleteCustomer Command
+                // Create the DeleteCustomer Command and run it in the background
                 Command deleteCustomer = new DeleteCustomer(customerId);
-                deleteCustomer.execute(mw.getFlightBookingSystem());
-
-                // Refresh the entire GUI
-                mw.refreshGUI();
-
-                // Hide (close) the DeleteCustomerWindow
-                this.setVisible(false);
+                mw.getDispatcher().dispatch("Deleting customer " + customerId, deleteCustomer, this,
+                        () -> this.setVisible(false));
             }
         } catch (NumberFormatException nfe) {
             JOptionPane.showMessageDialog(this, "Customer ID must be a valid integer", "Error", JOptionPane.ERROR_MESSAGE);
-        } catch (FlightBookingSystemException ex) {
-            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 }
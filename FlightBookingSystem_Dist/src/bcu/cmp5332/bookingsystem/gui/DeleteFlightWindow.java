@@ -12,7 +12,6 @@ package bcu.cmp5332.bookingsystem.gui;
 
 import bcu.cmp5332.bookingsystem.commands.Command;
 import bcu.cmp5332.bookingsystem.commands.DeleteFlight;
-import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 
 import javax.swing.*;
 import java.awt.*;
@@ -91,20 +90,13 @@ public class DeleteFlightWindow extends JFrame implements ActionListener {
 
             int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete this flight?", "Confirmation", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
-                // Create and execute the DeleteFlight Command
+                // Create the DeleteFlight Command and run it in the background
                 Command deleteFlight = new DeleteFlight(flightId);
-                deleteFlight.execute(mw.getFlightBookingSystem());
-
-                // Refresh the entire GUI
-                mw.refreshGUI();
-
-                // Hide (close) the DeleteFlightWindow
-                this.setVisible(false);
+                mw.getDispatcher().dispatch("Deleting flight " + flightId, deleteFlight, this,
+                        () -> this.setVisible(false));
             }
         } catch (NumberFormatException nfe) {
             JOptionPane.showMessageDialog(this, "Flight ID must be a valid integer", "Error", JOptionPane.ERROR_MESSAGE);
-        } catch (FlightBookingSystemException ex) {
-            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 }
@@ -2,54 +2,59 @@ package bcu.cmp5332.bookingsystem.gui;
 
 import bcu.cmp5332.bookingsystem.model.Flight;
 
-import javax.swing.table.AbstractTableModel;
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
-
-public class FlightTableModel extends AbstractTableModel {
-
-    private final List<Flight> flights;
-    private final String[] columnNames = {"Flight No", "Origin", "Destination", "Departure Date", "Capacity", "Price", "Dynamic Price"};
-
-    public FlightTableModel(List<Flight> flights) {
-        this.flights = flights;
-    }
-
-    @Override
-    public int getRowCount() {
-        return flights.size();
-    }
-
-    @Override
-    public int getColumnCount() {
-        return columnNames.length;
+import java.util.function.Predicate;
+
+/**
+ * Table model for the flights tables, reading the flights from an index of the
+ * booking system.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class FlightTableModel extends IndexTableModel<Flight> {
+
+    /** The order of the departure date index: by departure date, then by ID. */
+    public static final Comparator<Flight> DEPARTURE_ORDER =
+            Comparator.comparing(Flight::getDepartureDate).thenComparingInt(Flight::getId);
+
+    /**
+     * Constructs a model over the flights of the departure date index that pass a
+     * filter.
+     *
+     * @param flights the departure date index, or a range of it
+     * @param filter selects the flights shown; it must reject every flight outside
+     *               the range
+     * @param bookingDate the date used to calculate the current price
+     */
+    public FlightTableModel(RowSource<Flight> flights, Predicate<Flight> filter, LocalDate bookingDate) {
+        super(flights, filter, DEPARTURE_ORDER);
+        addColumns(bookingDate);
     }
 
-    @Override
-    public String getColumnName(int column) {
-        return columnNames[column];
+    /**
+     * Constructs a model over a list of flights.
+     *
+     * @param flights the flights, in display order
+     * @param bookingDate the date used to calculate the current price
+     */
+    public FlightTableModel(List<Flight> flights, LocalDate bookingDate) {
+        super(flights);
+        addColumns(bookingDate);
     }
 
-    @Override
-    public Object getValueAt(int rowIndex, int columnIndex) {
-        Flight flight = flights.get(rowIndex);
-        switch (columnIndex) {
-            case 0:
-                return flight.getFlightNumber();
-            case 1:
-                return flight.getOrigin();
-            case 2:
-                return flight.getDestination();
-            case 3:
-                return flight.getDepartureDate();
-            case 4:
-                return flight.getCapacity();
-            case 5:
-                return flight.getPrice();
-            case 6:
-                return flight.calculatePrice(LocalDate.now());
-            default:
-                return null;
-        }
+    private void addColumns(LocalDate bookingDate) {
+        addColumn("ID", Flight::getId);
+        addColumn("Flight No", Flight::getFlightNumber);
+        addColumn("Origin", Flight::getOrigin);
+        addColumn("Destination", Flight::getDestination);
+        addColumn("Departure Date", Flight::getDepartureDate);
+        addColumn("Capacity", Flight::getCapacity);
+        addColumn("Available Seats", Flight::getAvailableSeats);
+        addColumn("Price", Flight::getPrice);
+        addColumn("Calculated Price", flight -> flight.calculatePrice(bookingDate));
+        addColumn("Cancellation/ Rebook Fee", Flight::getCancellationRebookFee);
     }
 }
@@ -0,0 +1,389 @@
+package bcu.cmp5332.bookingsystem.gui;
+
+import bcu.cmp5332.bookingsystem.model.ChangeEvent;
+import bcu.cmp5332.bookingsystem.model.EntityCount;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A table model that reads its rows straight from an ordered index of the booking
+ * system instead of from a copy of the data.
+ * <p>
+ * A {@link javax.swing.JTable} only asks for the rows it paints, and it asks for
+ * them in order. The model keeps an iterator over the index at the last row read, so
+ * painting the next visible rows costs a few steps of that iterator. To jump to a
+ * distant row, after scrolling or a selection, it restarts the iterator from the
+ * nearest checkpoint. Every walk remembers each {@value #CHECKPOINT_INTERVAL}th
+ * row it passes beyond the last checkpoint, so the model holds one reference per
+ * {@value #CHECKPOINT_INTERVAL} rows of the table read so far, and once a row has
+ * been read is never more than that many steps away from it.
+ * <p>
+ * A model given a count of its rows with {@link #setRowCounter} takes its row count
+ * from that, so opening or refreshing the table costs the same however many rows it
+ * has. Otherwise the row count is found by one walk over the index.
+ * <p>
+ * The rows are a live view: changes to the system show up the next time a row is
+ * read. Rows added, removed or changed are passed to {@link #rowChanged}, which
+ * finds the row by walking from the nearest checkpoint in the index order, moves
+ * the row count by one and tells the table about that row alone; {@link #refresh}
+ * recounts everything.
+ * Changes must be passed on the Swing event thread, in the order they were made.
+ * Changes reach the event thread some time after they were made, so a recount may
+ * already hold rows whose changes are still queued; a model given the version of
+ * its entity set with {@link #setVersionSource}, or a count carrying it, passes
+ * over those.
+ *
+ * @param <T> the type of the rows
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class IndexTableModel<T> extends AbstractTableModel {
+
+    /** Number of rows between the checkpoints the model restarts its walk from. */
+    public static final int CHECKPOINT_INTERVAL = 1024;
+
+    /**
+     * An ordered collection of rows that can be walked from any row in it.
+     *
+     * @param <T> the type of the rows
+     */
+    public interface RowSource<T> {
+        /**
+         * Gets an iterator over the rows from a row onwards.
+         *
+         * @param from the first row, inclusive, or null to start at the first row
+         * @return the iterator
+         */
+        Iterator<T> iterator(T from);
+    }
+
+    /** A row and its row index, kept for every {@value #CHECKPOINT_INTERVAL}th row. */
+    private static final class Checkpoint<T> {
+        final T row;
+        int index;
+
+        Checkpoint(T row, int index) {
+            this.row = row;
+            this.index = index;
+        }
+    }
+
+    private final RowSource<T> source;
+    private final Predicate<T> filter;
+    private final Comparator<T> order;
+    private final List<T> rows;
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<Function<T, Object>> columnValues = new ArrayList<>();
+
+    private LongSupplier versionSource;
+    private Supplier<EntityCount> rowCounter;
+    private int rowCount = -1;
+    private long countedVersion;
+    private final List<Checkpoint<T>> checkpoints = new ArrayList<>();
+    private Iterator<T> cursor;
+    private int cursorRow;
+    private T current;
+
+    /**
+     * Constructs a model over the rows of an index that pass a filter.
+     *
+     * @param source the index to read the rows from
+     * @param filter selects the rows shown
+     * @param order the order of the index, used to find changed rows
+     */
+    public IndexTableModel(RowSource<T> source, Predicate<T> filter, Comparator<T> order) {
+        this(source, filter, order, null);
+    }
+
+    /**
+     * Constructs a model over the rows of a list.
+     *
+     * @param rows the rows, typically a small read-only view such as the passengers
+     *             of a flight
+     */
+    public IndexTableModel(List<T> rows) {
+        this(from -> from == null ? rows.iterator() : rows.listIterator(Math.max(0, rows.indexOf(from))),
+                row -> true, null, rows);
+    }
+
+    private IndexTableModel(RowSource<T> source, Predicate<T> filter, Comparator<T> order, List<T> rows) {
+        this.source = source;
+        this.filter = filter;
+        this.order = order;
+        this.rows = rows;
+    }
+
+    /**
+     * Adds a column to the table.
+     *
+     * @param name the column heading
+     * @param value reads the cell value from a row
+     * @return this model
+     */
+    public IndexTableModel<T> addColumn(String name, Function<T, Object> value) {
+        columnNames.add(name);
+        columnValues.add(value);
+        return this;
+    }
+
+    /**
+     * Sets where the model reads the version of the entity set its rows come from.
+     * The rows are recounted, and the version read, on the next read.
+     *
+     * @param versionSource reads the current version of the entity set
+     * @return this model
+     */
+    public IndexTableModel<T> setVersionSource(LongSupplier versionSource) {
+        this.versionSource = versionSource;
+        refresh();
+        return this;
+    }
+
+    /**
+     * Sets where the model reads the number of rows its filter selects, so it does
+     * not walk the index to count them. The count must be of exactly the rows the
+     * filter selects, and carry the version of their entity set it was counted at.
+     * The rows are recounted on the next read.
+     *
+     * @param rowCounter counts the rows
+     * @return this model
+     */
+    public IndexTableModel<T> setRowCounter(Supplier<EntityCount> rowCounter) {
+        this.rowCounter = rowCounter;
+        refresh();
+        return this;
+    }
+
+    /**
+     * Gets the row at an index.
+     *
+     * @param rowIndex the row index
+     * @return the row, or null if it is no longer in the index
+     */
+    public T getRow(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= getRowCount()) {
+            return null;
+        }
+        // The last checkpoint at or before the row
+        Checkpoint<T> start = null;
+        int low = 0;
+        int high = checkpoints.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (checkpoints.get(middle).index <= rowIndex) {
+                start = checkpoints.get(middle);
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (cursor == null || rowIndex < cursorRow || (start != null && start.index > cursorRow)) {
+            cursor = source.iterator(start == null ? null : start.row);
+            cursorRow = start == null ? -1 : start.index - 1;
+            current = null;
+        }
+        while (cursorRow < rowIndex) {
+            if (!cursor.hasNext()) {
+                return null;
+            }
+            T next = cursor.next();
+            if (filter.test(next)) {
+                current = next;
+                cursorRow++;
+                passed(next, cursorRow);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Applies a change to one row: an added row is inserted, a removed row deleted
+     * and a changed row repainted, each at its place in the index. Rows the filter
+     * does not select are ignored. A row that has moved, or one that cannot be found
+     * where the index order says it should be, makes the model {@link #refresh}.
+     *
+     * @param type the kind of change
+     * @param row the row that changed
+     */
+    public void rowChanged(ChangeEvent.Type type, T row) {
+        rowChanged(type, row, Long.MAX_VALUE);
+    }
+
+    /**
+     * Applies a change to one row, unless the rows were last counted at or after
+     * the version of the change and so already hold it. {@link ChangeEvent.Type#CHANGED}
+     * changes are always repainted, as a flight's seats or a customer's bookings
+     * change without advancing the version.
+     *
+     * @param type the kind of change
+     * @param row the row that changed
+     * @param version the version of the entity set once the change was made
+     * @see #rowChanged(ChangeEvent.Type, Object)
+     */
+    public void rowChanged(ChangeEvent.Type type, T row, long version) {
+        if (rowCount < 0) {
+            // Not counted yet, so the table has not asked for any rows
+            return;
+        }
+        if (type != ChangeEvent.Type.CHANGED && version <= countedVersion) {
+            return;
+        }
+        // A list no longer holds a removed row, so where it was is unknown
+        if (type == ChangeEvent.Type.MOVED || (type == ChangeEvent.Type.REMOVED && rows != null)
+                || (order == null && rows == null)) {
+            refresh();
+            return;
+        }
+        if (!filter.test(row)) {
+            return;
+        }
+        int index = locate(row);
+        switch (type) {
+            case ADDED:
+                if (index < 0) {
+                    refresh();
+                    return;
+                }
+                shiftCheckpoints(index, 1);
+                rowCount++;
+                cursor = null;
+                fireTableRowsInserted(index, index);
+                break;
+            case REMOVED:
+                if (index >= 0) {
+                    refresh();
+                    return;
+                }
+                index = -index - 1;
+                checkpoints.removeIf(checkpoint -> checkpoint.row == row);
+                shiftCheckpoints(index + 1, -1);
+                rowCount--;
+                cursor = null;
+                fireTableRowsDeleted(index, index);
+                break;
+            default:
+                if (index >= 0) {
+                    fireTableRowsUpdated(index, index);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Remembers a row as a checkpoint if it is the first row a whole interval past
+     * the last checkpoint. Walks only pass rows beyond the last checkpoint by
+     * walking on from it, so the checkpoints stay in order and no more than
+     * {@value #CHECKPOINT_INTERVAL} rows apart.
+     */
+    private void passed(T row, int index) {
+        if (checkpoints.isEmpty() ? index == 0
+                : index >= checkpoints.get(checkpoints.size() - 1).index + CHECKPOINT_INTERVAL) {
+            checkpoints.add(new Checkpoint<>(row, index));
+        }
+    }
+
+    /**
+     * Finds a row in the index.
+     *
+     * @return the row index, or {@code -(insertion point) - 1} if the row is not in
+     *         the index
+     */
+    private int locate(T row) {
+        if (rows != null) {
+            int index = rows.indexOf(row);
+            return index >= 0 ? index : -1;
+        }
+        Checkpoint<T> start = null;
+        int low = 0;
+        int high = checkpoints.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (order.compare(checkpoints.get(middle).row, row) <= 0) {
+                start = checkpoints.get(middle);
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        int index = start == null ? 0 : start.index;
+        for (Iterator<T> walk = source.iterator(start == null ? null : start.row); walk.hasNext();) {
+            T next = walk.next();
+            if (next == row) {
+                return index;
+            }
+            if (order.compare(next, row) > 0) {
+                break;
+            }
+            if (filter.test(next)) {
+                passed(next, index);
+                index++;
+            }
+        }
+        return -index - 1;
+    }
+
+    private void shiftCheckpoints(int from, int delta) {
+        for (Checkpoint<T> checkpoint : checkpoints) {
+            if (checkpoint.index >= from) {
+                checkpoint.index += delta;
+            }
+        }
+    }
+
+    /**
+     * Recounts the rows and tells the table that all of them may have changed.
+     */
+    public void refresh() {
+        rowCount = -1;
+        cursor = null;
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        if (rowCount < 0 && rowCounter != null) {
+            EntityCount count = rowCounter.get();
+            countedVersion = count.getVersion();
+            checkpoints.clear();
+            rowCount = count.getCount();
+        } else if (rowCount < 0) {
+            // Read before the walk, so a change the walk misses is not passed over
+            countedVersion = versionSource == null ? Long.MIN_VALUE : versionSource.getAsLong();
+            checkpoints.clear();
+            int count = 0;
+            for (Iterator<T> rows = source.iterator(null); rows.hasNext();) {
+                T row = rows.next();
+                if (filter.test(row)) {
+                    passed(row, count);
+                    count++;
+                }
+            }
+            rowCount = count;
+        }
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames.get(column);
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        T row = getRow(rowIndex);
+        return row == null ? null : columnValues.get(columnIndex).apply(row);
+    }
+}
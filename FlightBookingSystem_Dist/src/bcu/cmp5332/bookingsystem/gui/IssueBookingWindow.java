@@ -95,9 +95,7 @@ public class IssueBookingWindow extends JFrame implements ActionListener {
             int confirm = JOptionPane.showConfirmDialog(this, "Price for this booking: $" + formattedPrice + "\n\nAre you sure you want to issue this booking?", "Confirmation", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
                 Command addBooking = new AddBooking(customerId, flightId, fbs.getCurrentDate(), 1);
-                addBooking.execute(fbs);
-                mw.refreshGUI();
-                this.setVisible(false);
+                mw.getDispatcher().dispatch("Issuing booking", addBooking, this, () -> this.setVisible(false));
             }
         } catch (NumberFormatException nfe) {
             JOptionPane.showMessageDialog(this, "Customer ID and Flight ID must be valid integers", "Error", JOptionPane.ERROR_MESSAGE);
@@ -1,12 +1,13 @@
 package bcu.cmp5332.bookingsystem.gui;
 
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.io.IOException;
 import javax.swing.*;
+import javax.swing.table.TableModel;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.Color;
 import java.awt.Font;
@@ -27,15 +28,27 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 public class MainWindow extends JFrame implements ActionListener {
     private JMenuBar menuBar;
     private FlightBookingSystem fbs;
+    private final CommandDispatcher dispatcher;
+    /** Applies changes to the table on display; only used on the event thread. */
+    private ChangeListener view;
+    private JScrollPane content;
 
     /**
      * Constructs a new MainWindow object with a reference to the flight booking system.
+     * The table on display follows every later change to the system, made from this
+     * window or elsewhere, by updating just the affected rows.
      * @param fbs The FlightBookingSystem object representing the flight booking system.
      */
     public MainWindow(FlightBookingSystem fbs) {
         this.fbs = fbs;
+        this.dispatcher = new CommandDispatcher(fbs);
         initialize();
-        displayFlights(flight -> flight.getStatus() == 1 && flight.getDepartureDate().isAfter(LocalDate.now()));
+        displayFutureFlights();
+        fbs.addChangeListener(event -> SwingUtilities.invokeLater(() -> {
+            if (view != null) {
+                view.entityChanged(event);
+            }
+        }));
     }
 
     /**
@@ -53,6 +66,7 @@ public class MainWindow extends JFrame implements ActionListener {
         getContentPane().setBackground(new Color(240, 248, 255)); // Set background color to AliceBlue
         setupMenu();
         setupExitButton();
+        getContentPane().add(dispatcher.getStatusBar(), BorderLayout.SOUTH);
         setVisible(true);
     }
 
@@ -66,6 +80,7 @@ public class MainWindow extends JFrame implements ActionListener {
         JMenu flightsMenu = createMenu("Flights", new String[] {
                 "View all flights",
                 "View future flights",
+                "Search Flights",
                 "Add Flight",
                 "Delete Flight",
                 "Show Passengers",
@@ -136,10 +151,13 @@ public class MainWindow extends JFrame implements ActionListener {
                 saveAndExit();
                 break;
             case "View all flights":
-                displayFlights(flight -> flight.getStatus() == 1);
+                displayFlights(1);
                 break;
             case "View future flights":
-                displayFlights(flight -> flight.getStatus() == 1 && flight.getDepartureDate().isAfter(LocalDate.now()));
+                displayFutureFlights();
+                break;
+            case "Search Flights":
+                searchFlights();
                 break;
             case "Add Flight":
                 new AddFlightWindow(this);
@@ -181,61 +199,79 @@ public class MainWindow extends JFrame implements ActionListener {
     }
 
     /**
-     * Saves the flight booking system data and exits the application.
+     * Saves the flight booking system data in the background and exits the
+     * application once it is saved.
      */
     private void saveAndExit() {
-        try {
+        dispatcher.run("Saving data", this, () -> {
             FlightBookingSystemData.store(fbs);
-        } catch (IOException ex) {
+            return null;
+        }, result -> System.exit(0), ex -> {
             JOptionPane.showMessageDialog(this, "Error saving data", "Error", JOptionPane.ERROR_MESSAGE);
-        }
-        System.exit(0);
+            System.exit(0);
+        });
     }
 
     /**
-     * Displays the flights that match the specified filter.
-     * @param filter The filter to apply to the flights.
+     * Displays the flights with the specified status, read from the departure date
+     * index in date order and counted by the system.
+     * @param status The status of the flights to show.
      */
-    private void displayFlights(java.util.function.Predicate<Flight> filter) {
-        List<Flight> flightsList = fbs.getFlights().stream().filter(filter).collect(Collectors.toList());
-
-        String[] columns = { "ID", "Flight No", "Origin", "Destination", "Departure Date", "Capacity",
-                "Available Seats", "Price", "Calculated Price", "Cancellation/ Rebook Fee" };
-        Object[][] data = flightsList.stream().map(flight -> {
-            LocalDate bookingDate = LocalDate.now(); // Assuming current date as booking date
-            double calculatedPrice = flight.calculatePrice(bookingDate);
-            return new Object[] {
-                flight.getId(), flight.getFlightNumber(), flight.getOrigin(), flight.getDestination(),
-                flight.getDepartureDate(), flight.getCapacity(), flight.getAvailableSeats(), flight.getPrice(),
-                calculatedPrice, flight.getCancellationRebookFee()
-            };
-        }).toArray(Object[][]::new);
-
-        JTable table = new JTable(data, columns);
-        table.setRowHeight(30);
-        table.setIntercellSpacing(new Dimension(10, 10));
-        table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
-        table.setBackground(new Color(173, 216, 230));
-        table.getTableHeader().setBackground(new Color(173, 216, 230));
-        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
+    private void displayFlights(int status) {
+        FlightTableModel model = new FlightTableModel(from -> fbs.getFlightsDepartingFrom(from).iterator(),
+                flight -> flight.getStatus() == status, LocalDate.now());
+        model.setRowCounter(() -> fbs.count(FlightBookingSystem.EntitySet.FLIGHTS, status));
+        showFlights(model);
+    }
+
+    /**
+     * Displays the active flights departing after today, read from the departure
+     * date index in date order.
+     */
+    private void displayFutureFlights() {
+        LocalDate today = LocalDate.now();
+        showFlights(new FlightTableModel(from -> (from == null ? fbs.getFlightsDepartingAfter(today)
+                : fbs.getFlightsDepartingFrom(from)).iterator(),
+                flight -> flight.getStatus() == 1 && flight.getDepartureDate().isAfter(today), today));
+    }
 
-        table.getColumnModel().getColumn(0).setPreferredWidth(50);
-        table.getColumnModel().getColumn(1).setPreferredWidth(150);
-        table.getColumnModel().getColumn(2).setPreferredWidth(150);
-        table.getColumnModel().getColumn(3).setPreferredWidth(150);
-        table.getColumnModel().getColumn(4).setPreferredWidth(150);
-        table.getColumnModel().getColumn(5).setPreferredWidth(100);
-        table.getColumnModel().getColumn(6).setPreferredWidth(100);
-        table.getColumnModel().getColumn(7).setPreferredWidth(100);
-        table.getColumnModel().getColumn(8).setPreferredWidth(150);
-        table.getColumnModel().getColumn(9).setPreferredWidth(150);
+    /**
+     * Prompts for an origin and a destination and displays the active flights
+     * between them, ordered by departure date.
+     */
+    private void searchFlights() {
+        String origin = JOptionPane.showInputDialog(this, "Origin:");
+        if (origin == null) {
+            return;
+        }
+        String destination = JOptionPane.showInputDialog(this, "Destination:");
+        if (destination == null) {
+            return;
+        }
+        displayFlights(fbs.searchFlights(origin, destination));
+    }
+
+    /**
+     * Displays the given flights.
+     * @param flightsList The flights to show, in display order.
+     */
+    private void displayFlights(List<Flight> flightsList) {
+        // Assuming current date as booking date
+        showFlights(new FlightTableModel(flightsList, LocalDate.now()));
+    }
 
+    /**
+     * Displays a flights table; selecting a flight shows its passengers.
+     * @param model The flights to show.
+     */
+    private void showFlights(FlightTableModel model) {
+        JTable table = createTable(model, 50, 150, 150, 150, 150, 100, 100, 100, 150, 150);
         table.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
-                int selectedRow = table.getSelectedRow();
-                if (selectedRow != -1) {
+                Flight flight = model.getRow(table.getSelectedRow());
+                if (flight != null) {
                     try {
-                        displayPassengersForFlight((int) table.getValueAt(selectedRow, 0));
+                        displayPassengersForFlight(flight.getId());
                     } catch (FlightBookingSystemException ex) {
                         showError("Error fetching passengers");
                     }
@@ -243,48 +279,48 @@ public class MainWindow extends JFrame implements ActionListener {
             }
         });
 
-        updateContentPane(new JScrollPane(table));
+        updateContentPane(new JScrollPane(table),
+                follow(model, FlightBookingSystem.EntitySet.FLIGHTS, Flight.class));
     }
 
     /**
      * Displays the deleted flights.
      */
     private void displayDeletedFlights() {
-        displayFlights(flight -> flight.getStatus() == 0);
+        displayFlights(0);
+    }
+
+    /**
+     * Creates a model over the customers with the specified status, read from the
+     * customer index in ID order and counted by the system.
+     * @param status The status of the customers to show.
+     * @return The customers table model.
+     */
+    private IndexTableModel<Customer> customersModel(int status) {
+        return new IndexTableModel<Customer>(
+                from -> fbs.getCustomersFrom(from == null ? Integer.MIN_VALUE : from.getId()).iterator(),
+                customer -> customer.getStatus() == status, Comparator.comparingInt(Customer::getId))
+                .setRowCounter(() -> fbs.count(FlightBookingSystem.EntitySet.CUSTOMERS, status))
+                .addColumn("ID", Customer::getId)
+                .addColumn("Name", Customer::getName)
+                .addColumn("Email", Customer::getEmail)
+                .addColumn("Phone", Customer::getPhone)
+                .addColumn("Bookings", customer -> customer.getBookings().size());
     }
 
     /**
      * Displays the customers.
      */
     public void displayCustomers() {
-        List<Customer> customersList = fbs.getCustomers().stream().filter(customer -> customer.getStatus() == 1)
-                .collect(Collectors.toList());
-        String[] columns = { "ID", "Name", "Email", "Phone", "Bookings" };
-        Object[][] data = customersList.stream().map(customer -> new Object[] {
-                customer.getId(), customer.getName(), customer.getEmail(), customer.getPhone(),
-                customer.getBookings().size()
-        }).toArray(Object[][]::new);
-
-        JTable table = new JTable(data, columns);
-        table.setRowHeight(30);
-        table.setIntercellSpacing(new Dimension(10, 10));
-        table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
-        table.setBackground(new Color(173, 216, 230));
-        table.getTableHeader().setBackground(new Color(173, 216, 230));
-        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
-
-        table.getColumnModel().getColumn(0).setPreferredWidth(50);
-        table.getColumnModel().getColumn(1).setPreferredWidth(200);
-        table.getColumnModel().getColumn(2).setPreferredWidth(250);
-        table.getColumnModel().getColumn(3).setPreferredWidth(200);
-        table.getColumnModel().getColumn(4).setPreferredWidth(100);
+        IndexTableModel<Customer> model = customersModel(1);
+        JTable table = createTable(model, 50, 200, 250, 200, 100);
 
         table.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
-                int selectedRow = table.getSelectedRow();
-                if (selectedRow != -1) {
+                Customer customer = model.getRow(table.getSelectedRow());
+                if (customer != null) {
                     try {
-                        displayBookingDetails((int) table.getValueAt(selectedRow, 0));
+                        displayBookingDetails(customer.getId());
                     } catch (FlightBookingSystemException ex) {
                         showError("Error fetching booking details");
                     }
@@ -292,79 +328,24 @@ public class MainWindow extends JFrame implements ActionListener {
             }
         });
 
-        updateContentPane(new JScrollPane(table));
+        updateContentPane(new JScrollPane(table),
+                follow(model, FlightBookingSystem.EntitySet.CUSTOMERS, Customer.class));
     }
 
     /**
      * Displays the deleted customers.
      */
     private void displayDeletedCustomers() {
-        List<Customer> customersList = fbs.getCustomers().stream().filter(customer -> customer.getStatus() == 0)
-                .collect(Collectors.toList());
-        String[] columns = { "ID", "Name", "Email", "Phone", "Bookings" };
-        Object[][] data = customersList.stream().map(customer -> new Object[] {
-                customer.getId(), customer.getName(), customer.getEmail(), customer.getPhone(),
-                customer.getBookings().size()
-        }).toArray(Object[][]::new);
-
-        JTable table = new JTable(data, columns);
-        table.setRowHeight(30);
-        table.setIntercellSpacing(new Dimension(10, 10));
-        table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
-        table.setBackground(new Color(173, 216, 230));
-        table.getTableHeader().setBackground(new Color(173, 216, 230));
-        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
-
-        updateContentPane(new JScrollPane(table));
+        IndexTableModel<Customer> model = customersModel(0);
+        updateContentPane(new JScrollPane(createTable(model)),
+                follow(model, FlightBookingSystem.EntitySet.CUSTOMERS, Customer.class));
     }
 
     /**
      * Displays all flights.
      */
     public void displayAllFlights() {
-        List<Flight> flightsList = fbs.getFlights().stream().filter(flight -> flight.getStatus() == 1)
-                .collect(Collectors.toList());
-
-        String[] columns = { "ID", "Flight No", "Origin", "Destination", "Departure Date", "Capacity",
-                "Available Seats", "Price", "Cancellation/ Rebook Fee" };
-        Object[][] data = flightsList.stream().map(flight -> new Object[] {
-                flight.getId(), flight.getFlightNumber(), flight.getOrigin(), flight.getDestination(),
-                flight.getDepartureDate(),
-                flight.getCapacity(), flight.getAvailableSeats(), flight.getPrice(), flight.getCancellationRebookFee()
-        }).toArray(Object[][]::new);
-
-        JTable table = new JTable(data, columns);
-        table.setRowHeight(30);
-        table.setIntercellSpacing(new Dimension(10, 10));
-        table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
-        table.setBackground(new Color(173, 216, 230));
-        table.getTableHeader().setBackground(new Color(173, 216, 230));
-        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
-
-        table.getColumnModel().getColumn(0).setPreferredWidth(50);
-        table.getColumnModel().getColumn(1).setPreferredWidth(150);
-        table.getColumnModel().getColumn(2).setPreferredWidth(150);
-        table.getColumnModel().getColumn(3).setPreferredWidth(150);
-        table.getColumnModel().getColumn(4).setPreferredWidth(150);
-        table.getColumnModel().getColumn(5).setPreferredWidth(100);
-        table.getColumnModel().getColumn(6).setPreferredWidth(100);
-        table.getColumnModel().getColumn(7).setPreferredWidth(100);
-        table.getColumnModel().getColumn(8).setPreferredWidth(150);
-
-        table.getSelectionModel().addListSelectionListener(e -> {
-            if (!e.getValueIsAdjusting()) {
-                int selectedRow = table.getSelectedRow();
-                if (selectedRow != -1) {
-                    try {
-                        displayPassengersForFlight((int) table.getValueAt(selectedRow, 0));
-                    } catch (FlightBookingSystemException ex) {
-                        showError("Error fetching passengers");
-                    }
-                }
-            }
-        });
-
-        updateContentPane(new JScrollPane(table));
+        displayFlights(1);
     }
 
     /**
@@ -374,26 +355,19 @@ public class MainWindow extends JFrame implements ActionListener {
      */
     public void displayPassengersForFlight(int flightId) throws FlightBookingSystemException {
         Flight flight = fbs.getFlightByID(flightId);
-        List<Customer> passengers = flight.getPassengers();
-        String[] columns = { "ID", "Name", "Email", "Phone" };
-        Object[][] data = passengers.stream().map(passenger -> new Object[] {
-                passenger.getId(), passenger.getName(), passenger.getEmail(), passenger.getPhone()
-        }).toArray(Object[][]::new);
-
-        JTable table = new JTable(data, columns);
-        table.setRowHeight(30);
-        table.setIntercellSpacing(new Dimension(10, 10));
-        table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
-        table.setBackground(new Color(173, 216, 230));
-        table.getTableHeader().setBackground(new Color(173, 216, 230));
-        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
-
-        table.getColumnModel().getColumn(0).setPreferredWidth(50);
-        table.getColumnModel().getColumn(1).setPreferredWidth(200);
-        table.getColumnModel().getColumn(2).setPreferredWidth(250);
-        table.getColumnModel().getColumn(3).setPreferredWidth(200);
-
-        updateContentPane(new JScrollPane(table));
+        IndexTableModel<Customer> model = new IndexTableModel<>(flight.getPassengers())
+                .addColumn("ID", Customer::getId)
+                .addColumn("Name", Customer::getName)
+                .addColumn("Email", Customer::getEmail)
+                .addColumn("Phone", Customer::getPhone);
+
+        updateContentPane(new JScrollPane(createTable(model, 50, 200, 250, 200)), event -> {
+            if (event.getEntity() == flight) {
+                model.refresh();
+            } else if (event.getEntitySet() == FlightBookingSystem.EntitySet.CUSTOMERS) {
+                model.rowChanged(event.getType(), (Customer) event.getEntity());
+            }
+        });
     }
 
     /**
@@ -403,14 +377,27 @@ public class MainWindow extends JFrame implements ActionListener {
      */
     public void displayBookingDetails(int customerId) throws FlightBookingSystemException {
         Customer customer = fbs.getCustomerByID(customerId);
-        List<Booking> bookings = customer.getBookings();
-        String[] columns = { "Flight No", "Origin", "Destination", "Departure Date" };
-        Object[][] data = bookings.stream().map(booking -> new Object[] {
-                booking.getFlight().getFlightNumber(), booking.getFlight().getOrigin(),
-                booking.getFlight().getDestination(), booking.getFlight().getDepartureDate()
-        }).toArray(Object[][]::new);
-
-        JTable table = new JTable(data, columns);
+        IndexTableModel<Booking> model = new IndexTableModel<>(customer.getBookingsView())
+                .addColumn("Flight No", booking -> booking.getFlight().getFlightNumber())
+                .addColumn("Origin", booking -> booking.getFlight().getOrigin())
+                .addColumn("Destination", booking -> booking.getFlight().getDestination())
+                .addColumn("Departure Date", booking -> booking.getFlight().getDepartureDate());
+
+        updateContentPane(new JScrollPane(createTable(model, 150, 150, 150, 150)), event -> {
+            if (event.getEntity() == customer || event.getEntitySet() == FlightBookingSystem.EntitySet.FLIGHTS) {
+                model.refresh();
+            }
+        });
+    }
+
+    /**
+     * Creates a table over the specified model in the style shared by every view.
+     * @param model The rows to show.
+     * @param widths The preferred column widths, if any, in column order.
+     * @return The table.
+     */
+    private JTable createTable(TableModel model, int... widths) {
+        JTable table = new JTable(model);
         table.setRowHeight(30);
         table.setIntercellSpacing(new Dimension(10, 10));
         table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
@@ -418,22 +405,44 @@ public class MainWindow extends JFrame implements ActionListener {
         table.getTableHeader().setBackground(new Color(173, 216, 230));
         table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
 
-        table.getColumnModel().getColumn(0).setPreferredWidth(150);
-        table.getColumnModel().getColumn(1).setPreferredWidth(150);
-        table.getColumnModel().getColumn(2).setPreferredWidth(150);
-        table.getColumnModel().getColumn(3).setPreferredWidth(150);
+        for (int i = 0; i < widths.length; i++) {
+            table.getColumnModel().getColumn(i).setPreferredWidth(widths[i]);
+        }
+        return table;
+    }
 
-        updateContentPane(new JScrollPane(table));
+    /**
+     * Creates a listener that applies the changes to one entity set to the rows of a
+     * table model, passing over the changes the model has already counted.
+     * @param model The table model.
+     * @param set The entity set shown in the table.
+     * @param type The type of the rows.
+     * @return The listener.
+     */
+    private <T> ChangeListener follow(IndexTableModel<T> model, FlightBookingSystem.EntitySet set,
+            Class<T> type) {
+        model.setVersionSource(() -> fbs.getVersion(set));
+        return event -> {
+            if (event.getEntitySet() == set) {
+                model.rowChanged(event.getType(), type.cast(event.getEntity()), event.getVersion());
+            }
+        };
     }
 
     /**
      * Updates the content pane with the specified component.
      * @param component The component to add to the content pane.
+     * @param view Applies changes to the system to the component's table.
      */
-    private void updateContentPane(JScrollPane component) {
-        this.getContentPane().removeAll();
-        this.getContentPane().add(component);
+    private void updateContentPane(JScrollPane component, ChangeListener view) {
+        this.view = view;
+        if (content != null) {
+            this.getContentPane().remove(content);
+        }
+        content = component;
+        this.getContentPane().add(component, BorderLayout.CENTER);
         this.revalidate();
+        this.repaint();
     }
 
     /**
@@ -453,22 +462,18 @@ public class MainWindow extends JFrame implements ActionListener {
     }
 
     /**
-     * Refreshes the flights table by displaying the active flights.
+     * Returns the dispatcher that runs the commands issued from the GUI in the background.
+     * @return The CommandDispatcher object.
      */
-    public void refreshFlightsTable() {
-        displayFlights(flight -> flight.getStatus() == 1);
+    public CommandDispatcher getDispatcher() {
+        return dispatcher;
     }
 
     /**
-     * Refreshes the graphical user interface by resetting the content pane and displaying all flights.
+     * Refreshes the flights table by displaying the active flights.
      */
-    public void refreshGUI() {
-        this.getContentPane().removeAll();
-        setupMenu();
-        displayAllFlights();
-        setupExitButton();
-        this.revalidate();
-        this.repaint();
+    public void refreshFlightsTable() {
+        displayFlights(1);
     }
 
     /**
@@ -487,27 +492,18 @@ public class MainWindow extends JFrame implements ActionListener {
     }
 
     /**
-     * Displays the bookings.
+     * Displays the bookings, read from the booking index in ID order.
      */
     private void displayBookings() {
-        List<Booking> bookingsList = fbs.getBookings();
-        String[] columns = { "Booking ID", "Customer Name", "Flight Number" };
-        Object[][] data = bookingsList.stream().map(booking -> new Object[] {
-                booking.getId(), booking.getCustomer().getName(), booking.getFlight().getFlightNumber()
-        }).toArray(Object[][]::new);
-
-        JTable table = new JTable(data, columns);
-        table.setRowHeight(30);
-        table.setIntercellSpacing(new Dimension(10, 10));
-        table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
-        table.setBackground(new Color(173, 216, 230));
-        table.getTableHeader().setBackground(new Color(173, 216, 230));
-        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
-
-        table.getColumnModel().getColumn(0).setPreferredWidth(100);
-        table.getColumnModel().getColumn(1).setPreferredWidth(200);
-        table.getColumnModel().getColumn(2).setPreferredWidth(150);
-
-        updateContentPane(new JScrollPane(table));
+        IndexTableModel<Booking> model = new IndexTableModel<Booking>(
+                from -> fbs.getBookingsFrom(from == null ? Integer.MIN_VALUE : from.getId()).iterator(),
+                booking -> true, Comparator.comparingInt(Booking::getId))
+                .setRowCounter(() -> fbs.count(FlightBookingSystem.EntitySet.BOOKINGS))
+                .addColumn("Booking ID", Booking::getId)
+                .addColumn("Customer Name", booking -> booking.getCustomer().getName())
+                .addColumn("Flight Number", booking -> booking.getFlight().getFlightNumber());
+
+        updateContentPane(new JScrollPane(createTable(model, 100, 200, 150)),
+                follow(model, FlightBookingSystem.EntitySet.BOOKINGS, Booking.class));
     }
 }
@@ -109,14 +109,13 @@ public class UpdateFlightWindow extends JFrame implements ActionListener {
                 int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to rebook this flight?\nRebooking Fee: $" + rebookingFee, "Confirmation", JOptionPane.YES_NO_OPTION);
 
                 if (confirm == JOptionPane.YES_OPTION) {
-                    // Update booking with new customer ID and flight ID
-                    booking.setCustomer(newCustomer);
-                    booking.setFlight(newFlight);
-
-                    // Refresh the entire GUI
-                    mw.refreshGUI();
-
-                    JOptionPane.showMessageDialog(this, "Booking updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    // Update booking with new customer ID and flight ID in the background
+                    mw.getDispatcher().run("Updating booking", this, () -> {
+                        fbs.rebook(booking, newCustomer, newFlight);
+                        return null;
+                    }, result -> JOptionPane.showMessageDialog(this, "Booking updated successfully.", "Success",
+                            JOptionPane.INFORMATION_MESSAGE),
+                            ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
                 }
             }
         } catch (NumberFormatException nfe) {
@@ -0,0 +1,407 @@
+package bcu.cmp5332.bookingsystem.http;
+
+import bcu.cmp5332.bookingsystem.commands.AddBooking;
+import bcu.cmp5332.bookingsystem.commands.AddCustomer;
+import bcu.cmp5332.bookingsystem.commands.AddFlight;
+import bcu.cmp5332.bookingsystem.commands.CancelBooking;
+import bcu.cmp5332.bookingsystem.commands.Command;
+import bcu.cmp5332.bookingsystem.commands.DeleteCustomer;
+import bcu.cmp5332.bookingsystem.commands.DeleteFlight;
+import bcu.cmp5332.bookingsystem.commands.EditBooking;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded JSON API over the flight booking system, built on the JDK's
+ * {@code com.sun.net.httpserver} so it needs no extra dependencies and never
+ * touches Swing.
+ * <p>
+ * Reads are served straight from the model; every mutation runs the same
+ * {@link Command} the CLI and GUI use, so validation and persistence behave
+ * identically. Each request runs on its own virtual thread when the JVM supports
+ * them (Java 21+), and on a cached thread pool otherwise.
+ * <ul>
+ * <li>{@code GET /flights}, {@code GET /flights?number=..&date=..}, {@code GET /flights/{id}}</li>
+ * <li>{@code POST /flights}, {@code DELETE /flights/{id}}</li>
+ * <li>{@code GET /customers}, {@code GET /customers/{id}}, {@code POST /customers}, {@code DELETE /customers/{id}}</li>
+ * <li>{@code GET /bookings}, {@code GET /bookings?customerId=..} or {@code ?flightId=..}</li>
+ * <li>{@code POST /bookings}, {@code PUT /bookings/{customerId}}, {@code DELETE /bookings/{customerId}/{flightId}}</li>
+ * </ul>
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class BookingServer {
+
+    /** Default port, overridden by the {@code fbs.http.port} system property. */
+    public static final int DEFAULT_PORT = 8080;
+    /** Default accept backlog, overridden by the {@code fbs.http.backlog} system property. */
+    public static final int DEFAULT_BACKLOG = 1024;
+
+    private final FlightBookingSystem fbs;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server bound to the given port. The server does not accept
+     * requests until {@link #start()} is called.
+     *
+     * @param fbs the flight booking system to serve
+     * @param port the TCP port to listen on, or 0 for an ephemeral port
+     * @throws IOException if the port cannot be bound
+     */
+    public BookingServer(FlightBookingSystem fbs, int port) throws IOException {
+        this.fbs = fbs;
+        this.server = HttpServer.create(new InetSocketAddress(port),
+                Integer.getInteger("fbs.http.backlog", DEFAULT_BACKLOG));
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/flights", exchange -> handle(exchange, this::flights));
+        server.createContext("/customers", exchange -> handle(exchange, this::customers));
+        server.createContext("/bookings", exchange -> handle(exchange, this::bookings));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and waits up to the given delay for in-flight
+     * requests to finish.
+     *
+     * @param delaySeconds the maximum time to wait, in seconds
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Gets the port the server is listening on.
+     *
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private static ExecutorService newRequestExecutor() {
+        try {
+            // Executors.newVirtualThreadPerTaskExecutor() is only available from Java 21
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException ex) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "http-worker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Handles a request for one resource, given the path segments after the
+     * resource name.
+     */
+    private interface Route {
+        Response handle(String method, String[] path, Map<String, String> query, HttpExchange exchange)
+                throws FlightBookingSystemException, IOException;
+    }
+
+    private static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Thrown to answer a request with a specific HTTP error status.
+     */
+    private static final class HttpError extends RuntimeException {
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        Response response;
+        try {
+            String context = exchange.getHttpContext().getPath();
+            String rest = exchange.getRequestURI().getPath().substring(context.length());
+            String[] path = rest.isEmpty() || rest.equals("/") ? new String[0] : rest.substring(1).split("/");
+            response = route.handle(exchange.getRequestMethod(), path, parseQuery(exchange.getRequestURI().getRawQuery()),
+                    exchange);
+        } catch (HttpError ex) {
+            response = error(ex.status, ex.getMessage());
+        } catch (FlightBookingSystemException | IllegalArgumentException | DateTimeParseException ex) {
+            response = error(400, ex.getMessage());
+        } catch (UncheckedIOException ex) {
+            response = error(500, ex.getMessage());
+        } catch (RuntimeException ex) {
+            // Answer anyway, so the client is not left waiting for a response
+            System.err.println("Error handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                    + ": " + ex);
+            response = error(500, "Internal server error");
+        }
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Response flights(String method, String[] path, Map<String, String> query, HttpExchange exchange)
+            throws FlightBookingSystemException, IOException {
+        if (path.length == 0 && method.equals("GET")) {
+            if (query.containsKey("number")) {
+                LocalDate date = LocalDate.parse(required(query, "date"));
+                Flight flight = find(() -> fbs.getFlightByNumber(query.get("number"), date));
+                return ok(writeFlight(new JsonWriter(), flight, true));
+            }
+            JsonWriter json = new JsonWriter().beginArray();
+            for (Flight flight : fbs.getFlights()) {
+                writeFlight(json, flight, false);
+            }
+            return ok(json.endArray());
+        }
+        if (path.length == 0 && method.equals("POST")) {
+            Map<String, String> body = body(exchange);
+            String flightNumber = required(body, "flightNumber");
+            LocalDate departureDate = LocalDate.parse(required(body, "departureDate"));
+            execute(new AddFlight(flightNumber, required(body, "origin"), required(body, "destination"), departureDate,
+                    Integer.parseInt(required(body, "capacity")), Double.parseDouble(required(body, "price")),
+                    Double.parseDouble(body.getOrDefault("cancellationRebookFee", "0"))));
+            return new Response(201, writeFlight(new JsonWriter(), fbs.getFlightByNumber(flightNumber, departureDate),
+                    true).toString());
+        }
+        if (path.length == 1) {
+            int id = Integer.parseInt(path[0]);
+            Flight flight = find(() -> fbs.getFlightByID(id));
+            if (method.equals("GET")) {
+                return ok(writeFlight(new JsonWriter(), flight, true));
+            }
+            if (method.equals("DELETE")) {
+                execute(new DeleteFlight(id));
+                return new Response(204, "");
+            }
+        }
+        throw notAllowed(method, path);
+    }
+
+    private Response customers(String method, String[] path, Map<String, String> query, HttpExchange exchange)
+            throws FlightBookingSystemException, IOException {
+        if (path.length == 0 && method.equals("GET")) {
+            JsonWriter json = new JsonWriter().beginArray();
+            for (Customer customer : fbs.getCustomers()) {
+                writeCustomer(json, customer, false);
+            }
+            return ok(json.endArray());
+        }
+        if (path.length == 0 && method.equals("POST")) {
+            Map<String, String> body = body(exchange);
+            // 0 lets the command allocate the ID, as it does for the CLI
+            int id = body.containsKey("id") ? Integer.parseInt(body.get("id")) : 0;
+            AddCustomer command = new AddCustomer(id, required(body, "name"), required(body, "phone"),
+                    required(body, "email"));
+            execute(command);
+            return new Response(201, writeCustomer(new JsonWriter(), command.getCustomer(), true).toString());
+        }
+        if (path.length == 1) {
+            int id = Integer.parseInt(path[0]);
+            Customer customer = find(() -> fbs.getCustomerByID(id));
+            if (method.equals("GET")) {
+                return ok(writeCustomer(new JsonWriter(), customer, true));
+            }
+            if (method.equals("DELETE")) {
+                execute(new DeleteCustomer(id));
+                return new Response(204, "");
+            }
+        }
+        throw notAllowed(method, path);
+    }
+
+    private Response bookings(String method, String[] path, Map<String, String> query, HttpExchange exchange)
+            throws FlightBookingSystemException, IOException {
+        if (path.length == 0 && method.equals("GET")) {
+            List<Booking> bookings;
+            if (query.containsKey("customerId")) {
+                bookings = find(() -> fbs.getCustomerByID(Integer.parseInt(query.get("customerId")))).getBookings();
+            } else if (query.containsKey("flightId")) {
+                bookings = fbs.getBookingsForFlight(Integer.parseInt(query.get("flightId")));
+            } else {
+                bookings = fbs.getBookings();
+            }
+            JsonWriter json = new JsonWriter().beginArray();
+            for (Booking booking : bookings) {
+                writeBooking(json, booking);
+            }
+            return ok(json.endArray());
+        }
+        if (path.length == 0 && method.equals("POST")) {
+            Map<String, String> body = body(exchange);
+            int customerId = Integer.parseInt(required(body, "customerId"));
+            int flightId = Integer.parseInt(required(body, "flightId"));
+            LocalDate bookingDate = body.containsKey("bookingDate") ? LocalDate.parse(body.get("bookingDate"))
+                    : LocalDate.now();
+            AddBooking command = new AddBooking(customerId, flightId, bookingDate, 1);
+            execute(command);
+            return new Response(201, writeBooking(new JsonWriter(), command.getBooking()).toString());
+        }
+        if (path.length == 1 && method.equals("PUT")) {
+            int customerId = Integer.parseInt(path[0]);
+            int flightId = Integer.parseInt(required(body(exchange), "flightId"));
+            execute(new EditBooking(customerId, flightId));
+            return ok(writeBooking(new JsonWriter(), fbs.getBookingById(customerId, flightId)));
+        }
+        if (path.length == 2 && method.equals("DELETE")) {
+            int customerId = Integer.parseInt(path[0]);
+            int flightId = Integer.parseInt(path[1]);
+            find(() -> fbs.getBookingById(customerId, flightId));
+            execute(new CancelBooking(customerId, flightId));
+            return new Response(204, "");
+        }
+        throw notAllowed(method, path);
+    }
+
+    private void execute(Command command) throws FlightBookingSystemException {
+        command.execute(fbs);
+    }
+
+    /**
+     * A model lookup that reports a missing entity with a checked exception.
+     */
+    private interface Lookup<T> {
+        T get() throws FlightBookingSystemException;
+    }
+
+    private static <T> T find(Lookup<T> lookup) {
+        try {
+            return lookup.get();
+        } catch (FlightBookingSystemException ex) {
+            throw new HttpError(404, ex.getMessage());
+        }
+    }
+
+    private static HttpError notAllowed(String method, String[] path) {
+        return new HttpError(path.length > 2 ? 404 : 405, "Unsupported request: " + method + " /" + String.join("/", path));
+    }
+
+    private static Map<String, String> body(HttpExchange exchange) throws IOException {
+        String text = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        return JsonReader.parseObject(text);
+    }
+
+    private static String required(Map<String, String> values, String name) {
+        String value = values.get(name);
+        if (value == null) {
+            throw new HttpError(400, "Missing required value: " + name);
+        }
+        return value;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static Response ok(JsonWriter json) {
+        return new Response(200, json.toString());
+    }
+
+    private static Response error(int status, String message) {
+        return new Response(status, new JsonWriter().beginObject().name("error").value(message).endObject().toString());
+    }
+
+    private static JsonWriter writeFlight(JsonWriter json, Flight flight, boolean details) {
+        json.beginObject()
+                .name("id").value(flight.getId())
+                .name("flightNumber").value(flight.getFlightNumber())
+                .name("origin").value(flight.getOrigin())
+                .name("destination").value(flight.getDestination())
+                .name("departureDate").value(flight.getDepartureDate().toString())
+                .name("capacity").value(flight.getCapacity())
+                .name("availableSeats").value(flight.getAvailableSeats())
+                .name("price").value(flight.getPrice())
+                .name("cancellationRebookFee").value(flight.getCancellationRebookFee())
+                .name("status").value(flight.getStatus());
+        if (details) {
+            json.name("passengers").beginArray();
+            for (Customer passenger : flight.getPassengers()) {
+                json.beginObject().name("id").value(passenger.getId()).name("name").value(passenger.getName()).endObject();
+            }
+            json.endArray();
+        }
+        return json.endObject();
+    }
+
+    private static JsonWriter writeCustomer(JsonWriter json, Customer customer, boolean details) {
+        json.beginObject()
+                .name("id").value(customer.getId())
+                .name("name").value(customer.getName())
+                .name("phone").value(customer.getPhone())
+                .name("email").value(customer.getEmail())
+                .name("status").value(customer.getStatus());
+        if (details) {
+            json.name("bookings").beginArray();
+            for (Booking booking : customer.getBookings()) {
+                writeBooking(json, booking);
+            }
+            json.endArray();
+        } else {
+            json.name("bookingCount").value(customer.getBookings().size());
+        }
+        return json.endObject();
+    }
+
+    private static JsonWriter writeBooking(JsonWriter json, Booking booking) {
+        return json.beginObject()
+                .name("id").value(booking.getId())
+                .name("customerId").value(booking.getCustomer().getId())
+                .name("flightId").value(booking.getFlight().getId())
+                .name("bookingDate").value(booking.getBookingDate().toString())
+                .name("status").value(booking.getStatus())
+                .endObject();
+    }
+}
@@ -0,0 +1,182 @@
+package bcu.cmp5332.bookingsystem.http;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal streaming JSON writer used by the HTTP API, so that the server has no
+ * dependencies beyond the JDK.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class JsonWriter {
+
+    private final StringBuilder out = new StringBuilder();
+    // One entry per open object or array: true until its first element is written
+    private final Deque<Boolean> first = new ArrayDeque<>();
+    private boolean afterName;
+
+    /**
+     * Starts a JSON object.
+     *
+     * @return this writer
+     */
+    public JsonWriter beginObject() {
+        separator();
+        out.append('{');
+        first.push(true);
+        return this;
+    }
+
+    /**
+     * Ends the current JSON object.
+     *
+     * @return this writer
+     */
+    public JsonWriter endObject() {
+        first.pop();
+        out.append('}');
+        return this;
+    }
+
+    /**
+     * Starts a JSON array.
+     *
+     * @return this writer
+     */
+    public JsonWriter beginArray() {
+        separator();
+        out.append('[');
+        first.push(true);
+        return this;
+    }
+
+    /**
+     * Ends the current JSON array.
+     *
+     * @return this writer
+     */
+    public JsonWriter endArray() {
+        first.pop();
+        out.append(']');
+        return this;
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     *
+     * @param name the member name
+     * @return this writer
+     */
+    public JsonWriter name(String name) {
+        separator();
+        quote(name);
+        out.append(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or {@code null}.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(String value) {
+        separator();
+        if (value == null) {
+            out.append("null");
+        } else {
+            quote(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a numeric value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(long value) {
+        separator();
+        out.append(value);
+        return this;
+    }
+
+    /**
+     * Writes a numeric value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(double value) {
+        separator();
+        out.append(value);
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(boolean value) {
+        separator();
+        out.append(value);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private void separator() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (!first.isEmpty()) {
+            if (first.peek()) {
+                first.pop();
+                first.push(false);
+            } else {
+                out.append(',');
+            }
+        }
+    }
+
+    private void quote(String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
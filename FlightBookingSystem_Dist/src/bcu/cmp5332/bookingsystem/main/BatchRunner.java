@@ -0,0 +1,203 @@
+package bcu.cmp5332.bookingsystem.main;
+
+import bcu.cmp5332.bookingsystem.commands.Command;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.RecordTokenizer;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Runs a script of commands without prompting, such as a nightly load of the flight
+ * schedule.
+ * <p>
+ * Every command must be given in full on one line, as accepted by
+ * {@link CommandParser#parseScript}. Blank lines and lines starting with {@code #}
+ * are skipped, and {@code exit} ends the script. A parser thread reads and parses
+ * the lines ahead of the commands being executed, handing them over through a
+ * bounded queue, so reading the script overlaps with running it.
+ * <p>
+ * The stores the commands would make after each line are deferred while the script
+ * runs. Instead, everything that changed is stored once every {@code storeEvery}
+ * commands and once more at the end, so a load of tens of thousands of flights
+ * rewrites the data files a handful of times rather than once per flight. A line that
+ * cannot be parsed or fails to execute is reported with its line number and the
+ * script carries on. If the script itself cannot be read, the changes made by the
+ * lines before the failure are stored before the error is thrown.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class BatchRunner {
+
+    /** Default number of commands executed between two stores. */
+    public static final int DEFAULT_STORE_EVERY = 10000;
+    /** Number of parsed lines the parser thread may run ahead of execution. */
+    static final int QUEUE_CAPACITY = 1024;
+
+    /**
+     * Writes everything that has changed in the system.
+     */
+    public interface Store {
+        /**
+         * Stores the system.
+         *
+         * @param fbs the flight booking system
+         * @throws IOException if an I/O error occurs
+         */
+        void store(FlightBookingSystem fbs) throws IOException;
+    }
+
+    /**
+     * A parsed line: its command, or the reason it could not be parsed. The end of
+     * the script has neither.
+     */
+    private static final class Line {
+        final int number;
+        final Command command;
+        final Exception error;
+
+        Line(int number, Command command, Exception error) {
+            this.number = number;
+            this.command = command;
+            this.error = error;
+        }
+    }
+
+    private static final Line END = new Line(0, null, null);
+
+    private final FlightBookingSystem fbs;
+    private final int storeEvery;
+    private final Store store;
+    private final PrintStream errors;
+
+    /**
+     * Constructs a runner that stores to the data files every
+     * {@link #DEFAULT_STORE_EVERY} commands, reporting failed lines on standard error.
+     *
+     * @param fbs the flight booking system the commands run against
+     */
+    public BatchRunner(FlightBookingSystem fbs) {
+        this(fbs, Integer.getInteger("fbs.batch.storeEvery", DEFAULT_STORE_EVERY), FlightBookingSystemData::store,
+                System.err);
+    }
+
+    /**
+     * Constructs a runner.
+     *
+     * @param fbs the flight booking system the commands run against
+     * @param storeEvery the number of commands executed between two stores, or 0 to
+     *                   store only at the end of the script
+     * @param store writes the changes
+     * @param errors where failed lines are reported
+     */
+    public BatchRunner(FlightBookingSystem fbs, int storeEvery, Store store, PrintStream errors) {
+        if (storeEvery < 0) {
+            throw new IllegalArgumentException("storeEvery must not be negative");
+        }
+        this.fbs = fbs;
+        this.storeEvery = storeEvery;
+        this.store = store;
+        this.errors = errors;
+    }
+
+    /**
+     * Runs a script to its end and stores the changes it made.
+     *
+     * @param script the script; closed once it has been read
+     * @return the number of lines that failed
+     * @throws IOException if the script cannot be read or the changes cannot be stored
+     */
+    public int run(BufferedReader script) throws IOException {
+        BlockingQueue<Line> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        Thread parser = new Thread(() -> parse(script, queue), "batch-parser");
+        parser.setDaemon(true);
+        parser.start();
+
+        boolean deferred = FlightBookingSystemData.isStoreDeferred();
+        FlightBookingSystemData.setStoreDeferred(true);
+        int failed = 0;
+        int sinceStore = 0;
+        try {
+            while (true) {
+                Line line = queue.take();
+                if (line == END) {
+                    break;
+                }
+                if (line.error instanceof IOException) {
+                    IOException failure = (IOException) line.error;
+                    // Keep what the lines already run have changed
+                    try {
+                        store.store(fbs);
+                    } catch (IOException ex) {
+                        failure.addSuppressed(ex);
+                    }
+                    throw failure;
+                }
+                try {
+                    if (line.error != null) {
+                        throw line.error;
+                    }
+                    line.command.execute(fbs);
+                } catch (Exception ex) {
+                    errors.println("Line " + line.number + ": " + ex.getMessage());
+                    failed++;
+                }
+                if (storeEvery > 0 && ++sinceStore == storeEvery) {
+                    store.store(fbs);
+                    sinceStore = 0;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while running the script");
+        } finally {
+            parser.interrupt();
+            FlightBookingSystemData.setStoreDeferred(deferred);
+        }
+        store.store(fbs);
+        return failed;
+    }
+
+    /**
+     * Reads and parses the script on the parser thread, ending with {@link #END} or
+     * with the error that stopped the reading.
+     */
+    private static void parse(BufferedReader script, BlockingQueue<Line> queue) {
+        RecordTokenizer fields = new RecordTokenizer();
+        int number = 0;
+        try {
+            try (BufferedReader reader = script) {
+                String text;
+                while ((text = reader.readLine()) != null) {
+                    number++;
+                    String trimmed = text.trim();
+                    if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                        continue;
+                    }
+                    if (trimmed.equals("exit")) {
+                        break;
+                    }
+                    Line line;
+                    try {
+                        line = new Line(number, CommandParser.parseScript(trimmed, fields), null);
+                    } catch (FlightBookingSystemException ex) {
+                        line = new Line(number, null, ex);
+                    }
+                    queue.put(line);
+                }
+            } catch (IOException ex) {
+                queue.put(new Line(number, null, ex));
+                return;
+            }
+            queue.put(END);
+        } catch (InterruptedException ex) {
+            // Execution stopped early, so nobody is waiting for the rest
+        }
+    }
+}
@@ -14,19 +14,74 @@ import bcu.cmp5332.bookingsystem.commands.CancelBooking;
 import bcu.cmp5332.bookingsystem.commands.EditBooking;
 import bcu.cmp5332.bookingsystem.commands.DeleteCustomer;
 import bcu.cmp5332.bookingsystem.commands.DeleteFlight;
+import bcu.cmp5332.bookingsystem.commands.FindFlight;
+import bcu.cmp5332.bookingsystem.commands.SearchFlights;
+import bcu.cmp5332.bookingsystem.commands.FindConnections;
+import bcu.cmp5332.bookingsystem.data.RecordTokenizer;
+import bcu.cmp5332.bookingsystem.model.ConnectionSearch;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 
 public class CommandParser {
 
+    /**
+     * Parses a command typed at the prompt. A command given without its fields, such
+     * as a bare {@code addflight}, prompts for them on standard input.
+     *
+     * @param line the command line
+     * @return the command
+     * @throws IOException if reading a prompted field fails
+     * @throws FlightBookingSystemException if the command is invalid
+     */
     public static Command parse(String line) throws IOException, FlightBookingSystemException {
+        return parse(line, new RecordTokenizer(), true);
+    }
+
+    /**
+     * Parses a command read from a script. Every command must be given with all its
+     * fields on the line, since standard input may be the script itself; a command
+     * that would prompt is rejected. The fields of {@code addflight} and
+     * {@code addcustomer} are {@code ::}-separated, as in the data files.
+     *
+     * @param line the command line
+     * @param fields reads the {@code ::}-separated fields; reused for every line of a
+     *               script, so the airport names of its flights are each held once
+     * @return the command
+     * @throws IOException never in practice, since nothing is prompted for
+     * @throws FlightBookingSystemException if the command is invalid or incomplete
+     */
+    public static Command parseScript(String line, RecordTokenizer fields)
+            throws IOException, FlightBookingSystemException {
+        return parse(line, fields, false);
+    }
+
+    private static Command parse(String line, RecordTokenizer fields, boolean interactive)
+            throws IOException, FlightBookingSystemException {
         try {
             String[] parts = line.split(" ", 3);
             String cmd = parts[0];
+            String spec = line.substring(cmd.length()).trim();
             if (cmd.equals("addflight")) {
+                if (!spec.isEmpty()) {
+                    fields.reset(spec);
+                    String flightNumber = fields.next();
+                    String origin = fields.nextShared();
+                    String destination = fields.nextShared();
+                    LocalDate departureDate = fields.nextDate();
+                    int capacity = fields.nextInt();
+                    double price = fields.nextDouble();
+                    double cancellationRebookFee = fields.nextDouble();
+                    if (!fields.hasNext()) {
+                        return new AddFlight(flightNumber, origin, destination, departureDate, capacity, price,
+                                cancellationRebookFee);
+                    }
+                    throw new FlightBookingSystemException("Invalid command.");
+                }
+                requireInteractive(interactive, cmd);
             	BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
                 System.out.print("Flight Number: ");
                 String flightNumber = reader.readLine();
@@ -46,9 +101,23 @@ public class CommandParser {
                 return new AddFlight(flightNumber, origin, destination, departureDate, capacity, price, cancellationRebookFee);
 
             } else if (cmd.equals("addcustomer")) {
+                if (!spec.isEmpty()) {
+                    fields.reset(spec);
+                    String idField = fields.next().trim();
+                    int id = idField.isEmpty() ? 0 : Integer.parseInt(idField);
+                    String name = fields.next();
+                    String phoneNumber = fields.next();
+                    String email = fields.next();
+                    if (!fields.hasNext()) {
+                        return new AddCustomer(id, name, phoneNumber, email);
+                    }
+                    throw new FlightBookingSystemException("Invalid command.");
+                }
+                requireInteractive(interactive, cmd);
             	BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
-                System.out.print("Customer ID: ");
-                int id = Integer.parseInt(reader.readLine());
+                System.out.print("Customer ID (blank to assign): ");
+                String idInput = reader.readLine().trim();
+                int id = idInput.isEmpty() ? 0 : Integer.parseInt(idInput);
                 System.out.print("Name: ");
                 String name = reader.readLine();
                 System.out.print("Phone Number: ");
@@ -57,18 +126,58 @@ public class CommandParser {
                 String email = reader.readLine();
                 return new AddCustomer(id, name, phoneNumber, email);
 			} else if (cmd.equals("removecustomer")) {
+				if (parts.length == 2) {
+					return new DeleteCustomer(Integer.parseInt(parts[1]));
+				}
+				requireInteractive(interactive, cmd);
 				BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
 				System.out.print("Enter the Customer ID you want to remove: ");
 				int id = Integer.parseInt(reader.readLine());
 				return new DeleteCustomer(id);
 
             } else if (cmd.equals("removeflight")) {
+				if (parts.length == 2) {
+					return new DeleteFlight(Integer.parseInt(parts[1]));
+				}
+				requireInteractive(interactive, cmd);
 				BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
 				System.out.print("Enter the Flight ID you want to remove: ");
 				int id = Integer.parseInt(reader.readLine());
 				return new DeleteFlight(id);
 
             }
+            else if (cmd.equals("searchflights")) {
+                String[] args = line.trim().split("\\s+");
+                if (args.length == 3 || args.length == 4) {
+                    return new SearchFlights(args[1], args[2], args.length == 4 ? LocalDate.parse(args[3]) : null);
+                } else if (args.length == 1) {
+                    requireInteractive(interactive, cmd);
+                    // Prompt for airport names that contain spaces
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+                    System.out.print("Origin: ");
+                    String origin = reader.readLine();
+                    System.out.print("Destination: ");
+                    String destination = reader.readLine();
+                    System.out.print("Departing on or after (\"YYYY-MM-DD\", blank for any date): ");
+                    String from = reader.readLine().trim();
+                    return new SearchFlights(origin, destination, from.isEmpty() ? null : LocalDate.parse(from));
+                }
+            }
+            else if (cmd.equals("findconnections")) {
+                String[] args = line.trim().split("\\s+");
+                if (args.length >= 3 && args.length <= 5) {
+                    LocalDate from = args.length >= 4 ? LocalDate.parse(args[3]) : null;
+                    ConnectionSearch.Ranking ranking = ConnectionSearch.Ranking.PRICE;
+                    if (args.length == 5) {
+                        if (args[4].equals("arrival")) {
+                            ranking = ConnectionSearch.Ranking.ARRIVAL;
+                        } else if (!args[4].equals("price")) {
+                            throw new FlightBookingSystemException("Rank connections by price or arrival.");
+                        }
+                    }
+                    return new FindConnections(args[1], args[2], from, ranking);
+                }
+            }
             else if (cmd.equals("loadgui")) {
                 return new LoadGUI();
             } else if (parts.length == 1) {
@@ -96,15 +205,27 @@ public class CommandParser {
                 	return new EditBooking(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
                 } else if (cmd.equals("cancelbooking")) {
                 	return new CancelBooking(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                } else if (cmd.equals("findflight")) {
+                    return new FindFlight(parts[1], LocalDate.parse(parts[2]));
                 }
             }
-        } catch (NumberFormatException ex) {
+        } catch (NumberFormatException | DateTimeException ex) {
 
         }
 
         throw new FlightBookingSystemException("Invalid command.");
     }
 
+    /**
+     * Rejects a command that would prompt for its fields when it was not typed at
+     * the prompt.
+     */
+    private static void requireInteractive(boolean interactive, String cmd) throws FlightBookingSystemException {
+        if (!interactive) {
+            throw new FlightBookingSystemException("Give all the fields of " + cmd + " on the same line.");
+        }
+    }
+
     private static LocalDate parseDateWithAttempts(BufferedReader br, int attempts) throws IOException, FlightBookingSystemException {
         if (attempts < 1) {
             throw new IllegalArgumentException("Number of attempts should be higher that 0");
@@ -4,6 +4,7 @@ import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
 import bcu.cmp5332.bookingsystem.commands.Command;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import bcu.cmp5332.bookingsystem.gui.MainWindow;
+import bcu.cmp5332.bookingsystem.http.BookingServer;
 
 import java.io.*;
 
@@ -12,6 +13,18 @@ public class Main {
     public static void main(String[] args) throws IOException, FlightBookingSystemException {
 
         FlightBookingSystem fbs = FlightBookingSystemData.load();
+        if (FlightBookingSystemData.isJournalEnabled()) {
+            FlightBookingSystemData.startCompactor(fbs);
+        }
+
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer(fbs, args.length > 1 ? Integer.parseInt(args[1])
+                    : Integer.getInteger("fbs.http.port", BookingServer.DEFAULT_PORT));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            System.exit(runBatch(fbs, args.length > 1 ? args[1] : "-"));
+        }
 
         // Initialize the GUI
         new MainWindow(fbs);
@@ -34,4 +47,46 @@ public class Main {
         FlightBookingSystemData.store(fbs);
         System.exit(0);
     }
+
+    /**
+     * Runs a script of fully specified commands without the GUI or the prompt, then
+     * saves all data.
+     *
+     * @param fbs the loaded flight booking system
+     * @param script the path of the script, or {@code -} to read it from standard input
+     * @return the exit status: 0 if every line succeeded, 1 otherwise
+     * @throws IOException if the script cannot be read or the data cannot be saved
+     */
+    private static int runBatch(FlightBookingSystem fbs, String script) throws IOException {
+        BufferedReader reader = script.equals("-") ? new BufferedReader(new InputStreamReader(System.in))
+                : new BufferedReader(new FileReader(script));
+        int failed = new BatchRunner(fbs).run(reader);
+        if (failed > 0) {
+            System.err.println(failed + " line(s) of the script failed.");
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Runs the HTTP API without the GUI or the CLI loop until the process is
+     * stopped, then saves all data.
+     *
+     * @param fbs the loaded flight booking system
+     * @param port the port to listen on
+     * @throws IOException if the server cannot be started
+     */
+    private static void runServer(FlightBookingSystem fbs, int port) throws IOException {
+        BookingServer server = new BookingServer(fbs, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(5);
+            try {
+                FlightBookingSystemData.store(fbs);
+            } catch (IOException ex) {
+                System.err.println("Failed to save data on shutdown: " + ex.getMessage());
+            }
+        }, "http-shutdown"));
+        server.start();
+        System.out.println("Booking API listening on port " + server.getPort() + ". Press Ctrl+C to stop.");
+    }
 }
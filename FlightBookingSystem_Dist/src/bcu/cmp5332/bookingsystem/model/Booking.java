@@ -9,7 +9,6 @@ import java.time.LocalDate;
  */
 public class Booking {
 
-    private static int nextId = 1;
     private int id;
     private Customer customer;
     private Flight flight;
@@ -18,13 +17,14 @@ public class Booking {
 
     /**
      * Constructs a new Booking.
+     * @param id the booking ID
      * @param customer the customer making the booking
      * @param flight the flight being booked
      * @param bookingDate the date of the booking
      * @param status the status of the booking
      */
-    public Booking(Customer customer, Flight flight, LocalDate bookingDate, int status) {
-        this.id = nextId++;
+    public Booking(int id, Customer customer, Flight flight, LocalDate bookingDate, int status) {
+        this.id = id;
         this.customer = customer;
         this.flight = flight;
         this.bookingDate = bookingDate;
@@ -0,0 +1,93 @@
+package bcu.cmp5332.bookingsystem.model;
+
+/**
+ * Describes one change to a flight, customer or booking in a
+ * {@link FlightBookingSystem}, published to its {@link ChangeListener}s.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public final class ChangeEvent {
+
+    /**
+     * The kind of change.
+     */
+    public enum Type {
+        /** The entity was added to the system. */
+        ADDED,
+        /** A field of the entity changed, such as a flight's free seats, without moving it in any index. */
+        CHANGED,
+        /**
+         * The entity may have moved: its ID, departure date or status changed, so its
+         * place in the ordered indexes, or whether it is active, is different.
+         */
+        MOVED,
+        /** The entity was removed from the system, for example a cancelled booking. */
+        REMOVED
+    }
+
+    private final FlightBookingSystem.EntitySet entitySet;
+    private final Type type;
+    private final Object entity;
+    private final long version;
+
+    /**
+     * Constructs a change event.
+     *
+     * @param entitySet the entity set that changed
+     * @param type the kind of change
+     * @param entity the flight, customer or booking that changed
+     * @param version the version of the entity set once the change was made
+     */
+    public ChangeEvent(FlightBookingSystem.EntitySet entitySet, Type type, Object entity, long version) {
+        this.entitySet = entitySet;
+        this.type = type;
+        this.entity = entity;
+        this.version = version;
+    }
+
+    /**
+     * Gets the entity set that changed.
+     *
+     * @return the entity set
+     */
+    public FlightBookingSystem.EntitySet getEntitySet() {
+        return entitySet;
+    }
+
+    /**
+     * Gets the kind of change.
+     *
+     * @return the type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the flight, customer or booking that changed.
+     *
+     * @return the entity
+     */
+    public Object getEntity() {
+        return entity;
+    }
+
+    /**
+     * Gets the version of the entity set once the change was made. A view that read
+     * the set at this version or later already shows the change. A
+     * {@link Type#CHANGED} event for a flight or customer whose seats or bookings
+     * changed carries the version current when it was published, since those
+     * changes do not advance the version.
+     *
+     * @return the version, as returned by {@link FlightBookingSystem#getVersion}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return entitySet + " " + type + " " + entity;
+    }
+}
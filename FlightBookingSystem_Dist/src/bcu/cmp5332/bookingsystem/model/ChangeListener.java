@@ -0,0 +1,21 @@
+package bcu.cmp5332.bookingsystem.model;
+
+/**
+ * Receives the changes made to a {@link FlightBookingSystem}.
+ * <p>
+ * Listeners are called on the thread that made the change, after the change is
+ * complete and outside the system's locks, so they must be quick and must not
+ * assume they are on the Swing event thread.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public interface ChangeListener {
+
+    /**
+     * Called after an entity has changed.
+     *
+     * @param event the change
+     */
+    void entityChanged(ChangeEvent event);
+}
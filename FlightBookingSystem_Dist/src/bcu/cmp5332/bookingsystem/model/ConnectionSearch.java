@@ -0,0 +1,350 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Finds itineraries of one or more connecting flights between two airports, for
+ * routes with no direct flight.
+ * <p>
+ * The search runs over a time-expanded graph of the scheduled flights. Every flight
+ * is a departure node at its origin; the departure nodes of an airport are ordered by
+ * date and linked by waiting edges, and each flight has an edge to the first
+ * departure at its destination that respects the minimum layover. A bounded
+ * Dijkstra search from the origin then explores at most two edges per node, wait or
+ * fly, and never goes beyond the leg limit or the search window. So a query only
+ * touches the flights that could be part of an itinerary, however many flights are
+ * scheduled in total.
+ * <p>
+ * Flights carry a departure date but no times, so each leg is taken to arrive on its
+ * departure date and layovers are counted in whole days; a minimum layover of 0
+ * allows a same-day connection. Only active flights with a free seat are used.
+ * <p>
+ * The graph is a snapshot of the flights, rebuilt on the next search once the flights
+ * have changed. Searches are safe to run concurrently.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public class ConnectionSearch {
+
+    /** Default number of days after the earliest departure that an itinerary may arrive by. */
+    public static final int DEFAULT_WINDOW_DAYS = 7;
+    /** Default number of itineraries returned. */
+    public static final int DEFAULT_MAX_RESULTS = 5;
+
+    /**
+     * The order in which itineraries are returned.
+     */
+    public enum Ranking {
+        /** Cheapest total price first, then earliest arrival. */
+        PRICE,
+        /** Earliest arrival first, then cheapest total price. */
+        ARRIVAL
+    }
+
+    /**
+     * A sequence of connecting flights from the origin to the destination.
+     */
+    public static final class Itinerary {
+        private final List<Flight> legs;
+        private final double totalPrice;
+
+        Itinerary(List<Flight> legs, double totalPrice) {
+            this.legs = Collections.unmodifiableList(legs);
+            this.totalPrice = totalPrice;
+        }
+
+        /**
+         * Gets the flights of the itinerary, in travel order.
+         *
+         * @return the legs
+         */
+        public List<Flight> getLegs() {
+            return legs;
+        }
+
+        /**
+         * Gets the sum of the current prices of the legs.
+         *
+         * @return the total price
+         */
+        public double getTotalPrice() {
+            return totalPrice;
+        }
+
+        /**
+         * Gets the date the first leg departs.
+         *
+         * @return the departure date
+         */
+        public LocalDate getDepartureDate() {
+            return legs.get(0).getDepartureDate();
+        }
+
+        /**
+         * Gets the date the last leg arrives.
+         *
+         * @return the arrival date
+         */
+        public LocalDate getArrivalDate() {
+            return legs.get(legs.size() - 1).getDepartureDate();
+        }
+    }
+
+    private final FlightBookingSystem fbs;
+    private final int windowDays;
+    private final int maxResults;
+    private volatile Graph graph;
+
+    /**
+     * Constructs a connection search over the flights of a booking system with the
+     * default search window and number of results.
+     *
+     * @param fbs the flight booking system
+     */
+    public ConnectionSearch(FlightBookingSystem fbs) {
+        this(fbs, DEFAULT_WINDOW_DAYS, DEFAULT_MAX_RESULTS);
+    }
+
+    /**
+     * Constructs a connection search over the flights of a booking system.
+     *
+     * @param fbs the flight booking system
+     * @param windowDays the number of days after the earliest departure that an
+     *                   itinerary may arrive by
+     * @param maxResults the maximum number of itineraries returned by a search
+     */
+    public ConnectionSearch(FlightBookingSystem fbs, int windowDays, int maxResults) {
+        this.fbs = fbs;
+        this.windowDays = windowDays;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Finds itineraries from one airport to another. Airport names are matched
+     * ignoring case and surrounding spaces.
+     *
+     * @param origin the origin airport
+     * @param destination the destination airport
+     * @param earliestDeparture the earliest date the first leg may depart
+     * @param maxLegs the maximum number of flights in an itinerary
+     * @param minLayoverDays the minimum number of days between arriving on one leg
+     *                       and departing on the next
+     * @param ranking the order of the results
+     * @return up to the maximum number of distinct itineraries, best first; empty if
+     *         either airport has no flights
+     */
+    public List<Itinerary> search(String origin, String destination, LocalDate earliestDeparture, int maxLegs,
+            int minLayoverDays, Ranking ranking) {
+        if (maxLegs < 1 || minLayoverDays < 0) {
+            throw new IllegalArgumentException("Invalid connection search: maxLegs=" + maxLegs
+                    + ", minLayoverDays=" + minLayoverDays);
+        }
+        Graph current = graph();
+        Integer from = current.airports.get(normalise(origin));
+        Integer to = current.airports.get(normalise(destination));
+        List<Itinerary> results = new ArrayList<>();
+        if (from == null || to == null || from.equals(to)) {
+            return results;
+        }
+
+        long horizon = earliestDeparture.toEpochDay() + windowDays;
+        LocalDate bookingDate = fbs.getCurrentDate();
+        Comparator<Label> order = ranking == Ranking.PRICE
+                ? Comparator.<Label>comparingDouble(l -> l.price).thenComparingLong(l -> l.day)
+                : Comparator.<Label>comparingLong(l -> l.day).thenComparingDouble(l -> l.price);
+        PriorityQueue<Label> queue = new PriorityQueue<>(order);
+        Set<Long> settled = new HashSet<>();
+
+        int first = current.firstDeparture(from, earliestDeparture.toEpochDay());
+        if (first >= 0 && current.days[first] <= horizon) {
+            queue.add(new Label(first, 0, 0.0, current.days[first], null, null, false));
+        }
+        while (!queue.isEmpty() && results.size() < maxResults) {
+            Label label = queue.poll();
+            if (label.arrived) {
+                results.add(label.toItinerary());
+                continue;
+            }
+            if (!settled.add((long) label.node * (maxLegs + 1) + label.legs)) {
+                continue;
+            }
+            int node = label.node;
+
+            // Wait for the next departure from the same airport
+            int next = node + 1;
+            if (next < current.flights.length && current.airportOf[next] == current.airportOf[node]
+                    && current.days[next] <= horizon) {
+                queue.add(new Label(next, label.legs, label.price, current.days[next], label.previous,
+                        label.flight, false));
+            }
+
+            // Take this departure
+            Flight flight = current.flights[node];
+            int arrivalAirport = current.destinationOf[node];
+            if (arrivalAirport == from || flight.getStatus() != 1 || flight.getAvailableSeats() <= 0) {
+                continue;
+            }
+            double price = label.price + flight.calculatePrice(bookingDate);
+            long arrivalDay = current.days[node];
+            Label flown = new Label(node, label.legs + 1, price, arrivalDay, label, flight, arrivalAirport == to);
+            if (flown.arrived) {
+                queue.add(flown);
+            } else if (flown.legs < maxLegs) {
+                int connection = current.firstDeparture(arrivalAirport, arrivalDay + minLayoverDays);
+                if (connection >= 0 && current.days[connection] <= horizon) {
+                    queue.add(new Label(connection, flown.legs, price, current.days[connection], label, flight,
+                            false));
+                }
+            }
+        }
+        return results;
+    }
+
+    private Graph graph() {
+        long version = fbs.getVersion(FlightBookingSystem.EntitySet.FLIGHTS);
+        Graph current = graph;
+        if (current == null || current.version != version) {
+            synchronized (this) {
+                current = graph;
+                if (current == null || current.version != version) {
+                    current = new Graph(fbs.getFlights(), version);
+                    graph = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static String normalise(String airport) {
+        return airport == null ? "" : airport.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A state of the search: standing at a departure node after some legs, or, once
+     * {@code arrived}, at the destination. {@code flight} is the last leg flown and
+     * {@code previous} the label it was flown from.
+     */
+    private static final class Label {
+        final int node;
+        final int legs;
+        final double price;
+        final long day;
+        final Label previous;
+        final Flight flight;
+        final boolean arrived;
+
+        Label(int node, int legs, double price, long day, Label previous, Flight flight, boolean arrived) {
+            this.node = node;
+            this.legs = legs;
+            this.price = price;
+            this.day = day;
+            this.previous = previous;
+            this.flight = flight;
+            this.arrived = arrived;
+        }
+
+        Itinerary toItinerary() {
+            List<Flight> legs = new ArrayList<>();
+            for (Label label = this; label != null && label.flight != null; label = label.previous) {
+                legs.add(label.flight);
+            }
+            Collections.reverse(legs);
+            return new Itinerary(legs, price);
+        }
+    }
+
+    /**
+     * The time-expanded graph: every flight is a departure node, grouped by origin
+     * airport and ordered by date within each airport, so the waiting edge from a
+     * node is simply the next index.
+     */
+    private static final class Graph {
+        final long version;
+        final Map<String, Integer> airports = new HashMap<>();
+        final Flight[] flights;
+        final long[] days;
+        final int[] airportOf;
+        final int[] destinationOf;
+        /** Index of the first departure of each airport, or -1 if it has none. */
+        final int[] airportStart;
+        /** Index after the last departure of each airport. */
+        final int[] airportEnd;
+
+        Graph(List<Flight> all, long version) {
+            this.version = version;
+            for (Flight flight : all) {
+                airport(flight.getOrigin());
+                airport(flight.getDestination());
+            }
+            int count = all.size();
+            int[] origins = new int[count];
+            for (int i = 0; i < count; i++) {
+                origins[i] = airports.get(normalise(all.get(i).getOrigin()));
+            }
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingInt(i -> origins[i])
+                    .thenComparing(i -> all.get(i).getDepartureDate())
+                    .thenComparingInt(i -> all.get(i).getId()));
+
+            flights = new Flight[count];
+            days = new long[count];
+            airportOf = new int[count];
+            destinationOf = new int[count];
+            airportStart = new int[airports.size()];
+            airportEnd = new int[airports.size()];
+            Arrays.fill(airportStart, -1);
+            for (int n = 0; n < count; n++) {
+                Flight flight = all.get(order[n]);
+                flights[n] = flight;
+                days[n] = flight.getDepartureDate().toEpochDay();
+                airportOf[n] = origins[order[n]];
+                destinationOf[n] = airports.get(normalise(flight.getDestination()));
+                if (airportStart[airportOf[n]] < 0) {
+                    airportStart[airportOf[n]] = n;
+                }
+                airportEnd[airportOf[n]] = n + 1;
+            }
+        }
+
+        private void airport(String name) {
+            airports.putIfAbsent(normalise(name), airports.size());
+        }
+
+        /**
+         * Finds the first departure from an airport on or after a day.
+         *
+         * @return the node index, or -1 if there is none
+         */
+        int firstDeparture(int airport, long day) {
+            int low = airportStart[airport];
+            if (low < 0) {
+                return -1;
+            }
+            int high = airportEnd[airport];
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (days[middle] < day) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low < airportEnd[airport] ? low : -1;
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package bcu.cmp5332.bookingsystem.model;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import bcu.cmp5332.bookingsystem.data.AtomicFile;
+import bcu.cmp5332.bookingsystem.data.DataManager;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.RecordTokenizer;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 
 /**
@@ -22,7 +28,8 @@ public class Customer {
     private String phone;
     private String email;
     private int status;
-    private final List<Booking> bookings = new ArrayList<>();
+    private final List<Booking> bookings = new CopyOnWriteArrayList<>();
+    private FlightBookingSystem owner;
 
     /**
      * Constructs a new Customer.
@@ -46,17 +53,18 @@ public class Customer {
      * @throws FlightBookingSystemException if an error occurs while populating
      */
     public void populate(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        try (BufferedReader bookingsReader = new BufferedReader(new FileReader("./resources/data/bookings.txt"))) {
+        try (BufferedReader bookingsReader = AtomicFile.newReader(Paths.get(DataManager.DATA_DIRECTORY, "bookings.txt"))) {
+            RecordTokenizer bookingData = new RecordTokenizer();
             String bookingLine;
             while ((bookingLine = bookingsReader.readLine()) != null) {
-                String[] bookingData = bookingLine.split("::");
-                int customerId = Integer.parseInt(bookingData[0]);
-                int flightId = Integer.parseInt(bookingData[1]);
+                bookingData.reset(bookingLine);
+                int customerId = bookingData.nextInt();
+                int flightId = bookingData.nextInt();
 
                 if (customerId == this.id) {
                     Flight flight = flightBookingSystem.getFlightByID(flightId);
-                    LocalDate bookingDate = LocalDate.parse(bookingData[2]);
-                    int status = Integer.parseInt(bookingData[3]);
+                    LocalDate bookingDate = bookingData.nextDate();
+                    int status = bookingData.nextInt();
 
 
                     boolean bookingExists = bookings.stream()
@@ -64,7 +72,9 @@ public class Customer {
                                     existingBooking.getBookingDate().equals(bookingDate));
 
                     if (!bookingExists) {
-                        Booking booking = new Booking(this, flight, bookingDate, status);
+                        int bookingId = bookingData.hasNext() ? bookingData.nextInt()
+                                : FlightBookingSystemData.getIdAllocator().nextBookingId();
+                        Booking booking = new Booking(bookingId, this, flight, bookingDate, status);
                         bookings.add(booking);
                     }
                 }
@@ -89,6 +99,7 @@ public class Customer {
      */
     public void setId(int id) {
         this.id = id;
+        moved();
     }
 
     /**
@@ -105,6 +116,7 @@ public class Customer {
      */
     public void setName(String name) {
         this.name = Objects.requireNonNull(name, "Name cannot be null");
+        changed();
     }
 
     /**
@@ -121,6 +133,7 @@ public class Customer {
      */
     public void setPhone(String phone) {
         this.phone = Objects.requireNonNull(phone, "Phone cannot be null");
+        changed();
     }
 
     /**
@@ -137,6 +150,7 @@ public class Customer {
      */
     public void setEmail(String email) {
         this.email = Objects.requireNonNull(email, "Email cannot be null");
+        changed();
     }
 
     /**
@@ -147,6 +161,16 @@ public class Customer {
         return new ArrayList<>(bookings); // Return a copy to ensure immutability
     }
 
+    /**
+     * Gets the customer's bookings as a live read-only view, which shows bookings
+     * added or cancelled later. Use {@link #getBookings} for a copy that stays as
+     * it is.
+     * @return the bookings of the customer
+     */
+    public List<Booking> getBookingsView() {
+        return Collections.unmodifiableList(bookings);
+    }
+
     /**
      * Adds a booking to the customer's list of bookings.
      * @param booking the booking to add
@@ -177,7 +201,33 @@ public class Customer {
      * @param status the status of the customer
      */
     public void setStatus(int status) {
+        int oldStatus = this.status;
         this.status = status;
+        if (owner != null) {
+            owner.statusChanged(FlightBookingSystem.EntitySet.CUSTOMERS, this, oldStatus, status);
+        }
+    }
+
+    /**
+     * Sets the booking system this customer belongs to, so that changes to stored
+     * fields mark the customers as changed since the last store and are published
+     * as events.
+     * @param owner the owning booking system
+     */
+    void setOwner(FlightBookingSystem owner) {
+        this.owner = owner;
+    }
+
+    private void changed() {
+        if (owner != null) {
+            owner.changed(FlightBookingSystem.EntitySet.CUSTOMERS, ChangeEvent.Type.CHANGED, this);
+        }
+    }
+
+    private void moved() {
+        if (owner != null) {
+            owner.changed(FlightBookingSystem.EntitySet.CUSTOMERS, ChangeEvent.Type.MOVED, this);
+        }
     }
 
     /**
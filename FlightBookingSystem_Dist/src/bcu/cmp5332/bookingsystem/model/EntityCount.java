@@ -0,0 +1,49 @@
+package bcu.cmp5332.bookingsystem.model;
+
+/**
+ * The number of entities in one of the entity sets of a {@link FlightBookingSystem},
+ * together with the version of the set it was counted at.
+ *
+ * @author Ashlesha Shrestha
+ * @author Nishan Shrestha
+ */
+public final class EntityCount {
+
+    private final int count;
+    private final long version;
+
+    /**
+     * Constructs an entity count.
+     *
+     * @param count the number of entities
+     * @param version the version of the entity set the entities were counted at
+     */
+    public EntityCount(int count, long version) {
+        this.count = count;
+        this.version = version;
+    }
+
+    /**
+     * Gets the number of entities.
+     *
+     * @return the count
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the version of the entity set the entities were counted at. The count
+     * holds every change up to and including that version, and none after it.
+     *
+     * @return the version, as returned by {@link FlightBookingSystem#getVersion}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return count + " at version " + version;
+    }
+}
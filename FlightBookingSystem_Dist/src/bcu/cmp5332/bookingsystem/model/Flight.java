@@ -1,14 +1,19 @@
 package bcu.cmp5332.bookingsystem.model;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import bcu.cmp5332.bookingsystem.data.AtomicFile;
+import bcu.cmp5332.bookingsystem.data.DataManager;
+import bcu.cmp5332.bookingsystem.data.RecordTokenizer;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 
 /**
@@ -24,11 +29,13 @@ public class Flight {
     private String origin;
     private String destination;
     private LocalDate departureDate;
-    private int capacity;
+    private volatile int capacity;
     private double price;
     private double cancellationRebookFee;
     private int status; // Ensure status is correctly handled
-    private final List<Customer> passengers = new ArrayList<>();
+    private final List<Customer> passengers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger seatsTaken = new AtomicInteger();
+    private FlightBookingSystem owner;
 
     /**
      * Constructs a new Flight.
@@ -63,17 +70,21 @@ public class Flight {
      * @throws FlightBookingSystemException if an error occurs while populating
      */
     public void populate(FlightBookingSystem fbs) throws FlightBookingSystemException {
-        try (BufferedReader bookingsReader = new BufferedReader(new FileReader("./resources/data/bookings.txt"))) {
-            bookingsReader.lines()
-                    .map(line -> line.split("::"))
-                    .filter(data -> Integer.parseInt(data[1]) == this.id)
-                    .forEach(data -> {
-                        try {
-                            passengers.add(fbs.getCustomerByID(Integer.parseInt(data[0])));
-                        } catch (FlightBookingSystemException e) {
-                            e.printStackTrace();
-                        }
-                    });
+        try (BufferedReader bookingsReader = AtomicFile.newReader(Paths.get(DataManager.DATA_DIRECTORY, "bookings.txt"))) {
+            RecordTokenizer fields = new RecordTokenizer();
+            String line;
+            while ((line = bookingsReader.readLine()) != null) {
+                fields.reset(line).skip();
+                if (fields.nextInt() != this.id) {
+                    continue;
+                }
+                try {
+                    passengers.add(fbs.getCustomerByID(fields.reset(line).nextInt()));
+                    seatsTaken.incrementAndGet();
+                } catch (FlightBookingSystemException e) {
+                    e.printStackTrace();
+                }
+            }
         } catch (IOException | NumberFormatException ex) {
             ex.printStackTrace();
         }
@@ -86,6 +97,7 @@ public class Flight {
 
     public void setId(int id) {
         this.id = id;
+        moved();
     }
 
     public String getFlightNumber() {
@@ -93,7 +105,11 @@ public class Flight {
     }
 
     public void setFlightNumber(String flightNumber) {
+        if (owner != null) {
+            owner.reindexFlight(this, flightNumber, origin, destination, departureDate);
+        }
         this.flightNumber = flightNumber;
+        changed();
     }
 
     public String getOrigin() {
@@ -101,7 +117,11 @@ public class Flight {
     }
 
     public void setOrigin(String origin) {
+        if (owner != null) {
+            owner.reindexFlight(this, flightNumber, origin, destination, departureDate);
+        }
         this.origin = origin;
+        changed();
     }
 
     public String getDestination() {
@@ -109,7 +129,11 @@ public class Flight {
     }
 
     public void setDestination(String destination) {
+        if (owner != null) {
+            owner.reindexFlight(this, flightNumber, origin, destination, departureDate);
+        }
         this.destination = destination;
+        changed();
     }
 
     public LocalDate getDepartureDate() {
@@ -117,7 +141,11 @@ public class Flight {
     }
 
     public void setDepartureDate(LocalDate departureDate) {
+        if (owner != null) {
+            owner.reindexFlight(this, flightNumber, origin, destination, departureDate);
+        }
         this.departureDate = departureDate;
+        moved();
     }
 
     public int getCapacity() {
@@ -126,6 +154,7 @@ public class Flight {
 
     public void setCapacity(int capacity) {
         this.capacity = capacity;
+        changed();
     }
 
     public double getPrice() {
@@ -134,10 +163,17 @@ public class Flight {
 
     public void setPrice(double price) {
         this.price = price;
+        changed();
     }
 
+    /**
+     * Gets the passengers booked on the flight. The list is a read-only view;
+     * use {@link #addPassenger} and {@link #removePassenger} to change it.
+     *
+     * @return the passengers on the flight
+     */
     public List<Customer> getPassengers() {
-        return passengers;
+        return Collections.unmodifiableList(passengers);
     }
 
     public int getStatus() {
@@ -145,7 +181,34 @@ public class Flight {
     }
 
     public void setStatus(int status) {
+        int oldStatus = this.status;
         this.status = status;
+        if (owner != null) {
+            owner.statusChanged(FlightBookingSystem.EntitySet.FLIGHTS, this, oldStatus, status);
+        }
+    }
+
+    /**
+     * Sets the booking system this flight belongs to, so that changes to indexed
+     * fields can be reflected in its indexes and changes to any stored field mark
+     * the flights as changed since the last store and are published as events.
+     *
+     * @param owner the owning booking system, or null once the flight is removed
+     */
+    void setOwner(FlightBookingSystem owner) {
+        this.owner = owner;
+    }
+
+    private void changed() {
+        if (owner != null) {
+            owner.changed(FlightBookingSystem.EntitySet.FLIGHTS, ChangeEvent.Type.CHANGED, this);
+        }
+    }
+
+    private void moved() {
+        if (owner != null) {
+            owner.changed(FlightBookingSystem.EntitySet.FLIGHTS, ChangeEvent.Type.MOVED, this);
+        }
     }
 
     public double getCancellationRebookFee() {
@@ -154,6 +217,7 @@ public class Flight {
 
     public void setCancellationRebookFee(double cancellationRebookFee) {
         this.cancellationRebookFee = cancellationRebookFee;
+        changed();
     }
 
     /**
@@ -198,8 +262,9 @@ public class Flight {
      * @throws FlightBookingSystemException if the flight is at full capacity
      */
     public void addPassenger(Customer passenger) throws FlightBookingSystemException {
-        if (passengers.size() >= capacity) {
-            throw new FlightBookingSystemException("Flight is at full capacity. No more bookings can be made.");
+        if (!reserveSeat()) {
+            throw new FlightBookingSystemException(
+                    "Flight " + flightNumber + " is at full capacity. No more bookings can be made.");
         }
         passengers.add(passenger);
     }
@@ -212,19 +277,53 @@ public class Flight {
      *                                      flight
      */
     public void removePassenger(Customer passenger) throws FlightBookingSystemException {
-        if (!passengers.remove(passenger)) {
+        if (!dropPassenger(passenger)) {
             throw new FlightBookingSystemException(
                     "Passenger " + passenger.getName() + " is not booked on this flight.");
         }
     }
 
+    /**
+     * Removes a passenger from the flight if they are booked on it, freeing their seat.
+     *
+     * @param passenger the passenger to remove
+     * @return true if the passenger was removed
+     */
+    boolean dropPassenger(Customer passenger) {
+        if (passengers.remove(passenger)) {
+            seatsTaken.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Takes one seat from the flight's seat inventory if any are left. Lock-free:
+     * concurrent callers race with compare-and-set, so the flight can never be
+     * overbooked. Seats are only given back by removing a passenger, so the count
+     * of seats taken never drops below the passenger list.
+     *
+     * @return true if a seat was taken, false if the flight is full
+     */
+    private boolean reserveSeat() {
+        while (true) {
+            int taken = seatsTaken.get();
+            if (taken >= capacity) {
+                return false;
+            }
+            if (seatsTaken.compareAndSet(taken, taken + 1)) {
+                return true;
+            }
+        }
+    }
+
     /**
      * Gets the number of available seats on the flight.
      *
      * @return the number of available seats
      */
     public int getAvailableSeats() {
-        return capacity - passengers.size();
+        return capacity - seatsTaken.get();
     }
 
     /**
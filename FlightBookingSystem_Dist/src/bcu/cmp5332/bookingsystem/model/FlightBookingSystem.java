@@ -3,18 +3,84 @@ package bcu.cmp5332.bookingsystem.model;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The FlightBookingSystem class manages flights, customers, and bookings.
+ * <p>
+ * The system is safe to share between the CLI loop and the Swing event thread.
+ * Reads never block: every getter returns a snapshot of concurrent collections.
+ * Booking mutations are serialised per flight through a fixed set of striped
+ * locks keyed on the flight ID, so bookings on different flights proceed in
+ * parallel, and the capacity check is made under the same lock as the insert.
+ * <p>
+ * Flights are also indexed by route, each route's flights sorted by departure date,
+ * so {@link #searchFlights} finds the flights between two airports without scanning
+ * every flight, and by departure date alone, so {@link #getFlightsDepartingBetween}
+ * returns a live view of the flights in a date range. Those views, and the
+ * customer and booking views ordered by ID, let the GUI tables page through the
+ * data without copying it.
+ * <p>
+ * Every change to the flights, the customers or the bookings advances that entity
+ * set's version, so the data layer can tell which sets are dirty and skip storing
+ * the ones that have not changed since they were last written. Each change is also
+ * published as a {@link ChangeEvent} to the registered {@link ChangeListener}s, so
+ * views can update just the rows it affects. The system also counts the flights
+ * and the customers with each status, and the entities in each set, as it changes
+ * them, so {@link #count} answers without walking an index.
  * @author Ashlesha Shrestha
  * @author Nishan Shrestha
  */
 public class FlightBookingSystem {
 
+    /**
+     * The entity sets whose changes are tracked, each stored in its own data file
+     * by the text format.
+     */
+    public enum EntitySet {
+        FLIGHTS, CUSTOMERS, BOOKINGS
+    }
+
     private final LocalDate systemDate = LocalDate.parse("2020-11-11");
-    private final Map<Integer, Customer> customers = new HashMap<>();
-    private final Map<Integer, Flight> flights = new HashMap<>();
-    private final List<Booking> bookings = new LinkedList<>();
+    private static final int LOCK_STRIPES = 64;
+    /** The status passed to {@link #changed(EntitySet, int, int)} for an entity not in the system. */
+    private static final int ABSENT = Integer.MIN_VALUE;
+
+    private final ConcurrentNavigableMap<Integer, Customer> customers = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Integer, Flight> flights = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Integer, Booking> bookings = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Integer, List<Booking>> bookingsByCustomer = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, List<Booking>> bookingsByFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<BookingKey, Booking> bookingsByKey = new ConcurrentHashMap<>();
+    private final ConcurrentMap<FlightKey, Flight> flightsByNumberAndDate = new ConcurrentHashMap<>();
+    private final ConcurrentMap<RouteKey, ConcurrentNavigableMap<DepartureKey, Flight>> flightsByRoute =
+            new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<DepartureKey, Flight> flightsByDeparture = new ConcurrentSkipListMap<>();
+    private final ReentrantLock[] flightLocks = new ReentrantLock[LOCK_STRIPES];
+    private final AtomicLongArray versions = new AtomicLongArray(EntitySet.values().length);
+    private final AtomicLongArray storedVersions = new AtomicLongArray(EntitySet.values().length);
+    // Guarded by sizes, and changed together with the version of their set
+    private final int[] sizes = new int[EntitySet.values().length];
+    private final Map<EntitySet, Map<Integer, Integer>> statusCounts = new EnumMap<>(EntitySet.class);
+    private final ConnectionSearch connections = new ConnectionSearch(this);
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs an empty flight booking system.
+     */
+    public FlightBookingSystem() {
+        for (int i = 0; i < flightLocks.length; i++) {
+            flightLocks[i] = new ReentrantLock();
+        }
+        statusCounts.put(EntitySet.FLIGHTS, new HashMap<>());
+        statusCounts.put(EntitySet.CUSTOMERS, new HashMap<>());
+    }
 
     /**
      * Gets the system date.
@@ -38,19 +104,41 @@ public class FlightBookingSystem {
     /**
      * Gets the list of customers.
      *
-     * @return the list of customers
+     * @return the list of customers, ordered by customer ID
      */
     public List<Customer> getCustomers() {
         return new ArrayList<>(customers.values());
     }
 
+    /**
+     * Gets the customers from a customer ID onwards, active or not, as an
+     * unmodifiable live view ordered by customer ID.
+     *
+     * @param id the first customer ID, inclusive
+     * @return the customers with an ID of at least {@code id}
+     */
+    public Collection<Customer> getCustomersFrom(int id) {
+        return Collections.unmodifiableCollection(customers.tailMap(id, true).values());
+    }
+
     /**
      * Gets the list of bookings.
      *
-     * @return the list of bookings
+     * @return the list of bookings, ordered by booking ID
      */
     public List<Booking> getBookings() {
-        return new ArrayList<>(bookings);
+        return new ArrayList<>(bookings.values());
+    }
+
+    /**
+     * Gets the bookings from a booking ID onwards as an unmodifiable live view
+     * ordered by booking ID.
+     *
+     * @param id the first booking ID, inclusive
+     * @return the bookings with an ID of at least {@code id}
+     */
+    public Collection<Booking> getBookingsFrom(int id) {
+        return Collections.unmodifiableCollection(bookings.tailMap(id, true).values());
     }
 
     /**
@@ -68,6 +156,141 @@ public class FlightBookingSystem {
         return flight;
     }
 
+    /**
+     * Gets a flight by its flight number and departure date.
+     *
+     * @param flightNumber  the flight number
+     * @param departureDate the departure date
+     * @return the flight
+     * @throws FlightBookingSystemException if no flight with that number departs on
+     *                                      the given date
+     */
+    public Flight getFlightByNumber(String flightNumber, LocalDate departureDate) throws FlightBookingSystemException {
+        Flight flight = flightsByNumberAndDate.get(new FlightKey(flightNumber, departureDate));
+        if (flight == null) {
+            throw new FlightBookingSystemException("No flight " + flightNumber + " found departing on " + departureDate);
+        }
+        return flight;
+    }
+
+    /**
+     * Finds the active flights between two airports. Airport names are matched
+     * ignoring case and surrounding spaces.
+     *
+     * @param origin      the origin airport
+     * @param destination the destination airport
+     * @return the matching flights, ordered by departure date
+     */
+    public List<Flight> searchFlights(String origin, String destination) {
+        return searchFlights(origin, destination, null, null);
+    }
+
+    /**
+     * Finds the active flights between two airports departing within a date range.
+     * The lookup is a single search of the route index followed by a walk over the
+     * flights in the range, so its cost does not depend on the number of flights on
+     * other routes or other dates.
+     *
+     * @param origin      the origin airport
+     * @param destination the destination airport
+     * @param from        the earliest departure date, inclusive, or null for no limit
+     * @param to          the latest departure date, inclusive, or null for no limit
+     * @return the matching flights, ordered by departure date
+     */
+    public List<Flight> searchFlights(String origin, String destination, LocalDate from, LocalDate to) {
+        ConcurrentNavigableMap<DepartureKey, Flight> route = flightsByRoute.get(new RouteKey(origin, destination));
+        if (route == null || (from != null && to != null && from.isAfter(to))) {
+            return new ArrayList<>();
+        }
+        if (from != null && to != null) {
+            route = route.subMap(DepartureKey.first(from), true, DepartureKey.last(to), true);
+        } else if (from != null) {
+            route = route.tailMap(DepartureKey.first(from), true);
+        } else if (to != null) {
+            route = route.headMap(DepartureKey.last(to), true);
+        }
+        List<Flight> matches = new ArrayList<>();
+        for (Flight flight : route.values()) {
+            if (flight.getStatus() == 1) {
+                matches.add(flight);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Finds itineraries of connecting flights between two airports, departing within
+     * {@value ConnectionSearch#DEFAULT_WINDOW_DAYS} days of a date. Only active flights
+     * with a free seat are used.
+     *
+     * @param origin            the origin airport
+     * @param destination       the destination airport
+     * @param earliestDeparture the earliest date the first leg may depart
+     * @param maxLegs           the maximum number of flights in an itinerary
+     * @param minLayoverDays    the minimum number of days between connecting flights
+     * @param ranking           the order of the results
+     * @return the best itineraries, best first
+     * @see ConnectionSearch
+     */
+    public List<ConnectionSearch.Itinerary> findConnections(String origin, String destination,
+            LocalDate earliestDeparture, int maxLegs, int minLayoverDays, ConnectionSearch.Ranking ranking) {
+        return connections.search(origin, destination, earliestDeparture, maxLegs, minLayoverDays, ranking);
+    }
+
+    /**
+     * Gets the flights departing within a date range, active or not. The result is an
+     * unmodifiable view of the departure date index, ordered by departure date: it is
+     * not copied, and reflects flights added, removed or rescheduled after it was
+     * returned. Its size is counted by walking it.
+     *
+     * @param from the earliest departure date, inclusive
+     * @param to   the latest departure date, inclusive
+     * @return the flights departing from {@code from} to {@code to}
+     */
+    public Collection<Flight> getFlightsDepartingBetween(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableCollection(
+                flightsByDeparture.subMap(DepartureKey.first(from), true, DepartureKey.last(to), true).values());
+    }
+
+    /**
+     * Gets the flights departing after a date, active or not, as an unmodifiable
+     * live view ordered by departure date.
+     *
+     * @param date the date after which flights depart, exclusive
+     * @return the flights departing after {@code date}
+     */
+    public Collection<Flight> getFlightsDepartingAfter(LocalDate date) {
+        return Collections.unmodifiableCollection(flightsByDeparture.tailMap(DepartureKey.last(date), false).values());
+    }
+
+    /**
+     * Gets the flights departing before a date, active or not, as an unmodifiable
+     * live view ordered by departure date.
+     *
+     * @param date the date before which flights depart, exclusive
+     * @return the flights departing before {@code date}
+     */
+    public Collection<Flight> getFlightsDepartingBefore(LocalDate date) {
+        return Collections.unmodifiableCollection(flightsByDeparture.headMap(DepartureKey.first(date), false).values());
+    }
+
+    /**
+     * Gets the flights from a flight onwards in the departure date index, active or
+     * not, as an unmodifiable live view ordered by departure date, then by ID.
+     *
+     * @param flight the first flight, inclusive, or null to start at the earliest
+     *               departure
+     * @return the flights departing on or after {@code flight}
+     */
+    public Collection<Flight> getFlightsDepartingFrom(Flight flight) {
+        Collection<Flight> from = flight == null ? flightsByDeparture.values()
+                : flightsByDeparture.tailMap(new DepartureKey(flight), true).values();
+        return Collections.unmodifiableCollection(from);
+    }
+
     /**
      * Gets a customer by their ID.
      *
@@ -84,6 +307,21 @@ public class FlightBookingSystem {
         return customer;
     }
 
+    /**
+     * Gets a booking by its ID.
+     *
+     * @param id the booking ID
+     * @return the booking
+     * @throws FlightBookingSystemException if no booking is found with the given ID
+     */
+    public Booking getBookingByID(int id) throws FlightBookingSystemException {
+        Booking booking = bookings.get(id);
+        if (booking == null) {
+            throw new FlightBookingSystemException("No booking found with ID: " + id);
+        }
+        return booking;
+    }
+
     /**
      * Gets a booking by customer ID.
      *
@@ -93,10 +331,11 @@ public class FlightBookingSystem {
      *                                      customer ID
      */
     public Booking getBookingByCustomerId(int customerId) throws FlightBookingSystemException {
-        return bookings.stream()
-                .filter(booking -> booking.getCustomer().getId() == customerId)
-                .findFirst()
-                .orElseThrow(() -> new FlightBookingSystemException("Booking not found for customer ID " + customerId));
+        List<Booking> customerBookings = bookingsByCustomer.get(customerId);
+        if (customerBookings == null || customerBookings.isEmpty()) {
+            throw new FlightBookingSystemException("Booking not found for customer ID " + customerId);
+        }
+        return customerBookings.get(0);
     }
 
     /**
@@ -109,12 +348,23 @@ public class FlightBookingSystem {
      *                                      customer ID and flight ID
      */
     public Booking getBookingById(int customerId, int flightId) throws FlightBookingSystemException {
-        return bookings.stream()
-                .filter(booking -> booking.getCustomer().getId() == customerId
-                        && booking.getFlight().getId() == flightId)
-                .findFirst()
-                .orElseThrow(() -> new FlightBookingSystemException(
-                        "Booking not found for customer ID " + customerId + " and flight ID " + flightId));
+        for (Booking booking : bookingsByCustomer.getOrDefault(customerId, Collections.emptyList())) {
+            if (booking.getFlight().getId() == flightId) {
+                return booking;
+            }
+        }
+        throw new FlightBookingSystemException(
+                "Booking not found for customer ID " + customerId + " and flight ID " + flightId);
+    }
+
+    /**
+     * Gets the bookings made on a flight.
+     *
+     * @param flightId the flight ID
+     * @return the bookings for the flight, in the order they were added
+     */
+    public List<Booking> getBookingsForFlight(int flightId) {
+        return new ArrayList<>(bookingsByFlight.getOrDefault(flightId, Collections.emptyList()));
     }
 
     /**
@@ -125,17 +375,28 @@ public class FlightBookingSystem {
      *                                      departure date already exists
      */
     public void addFlight(Flight flight) throws FlightBookingSystemException {
-        if (flights.containsKey(flight.getId())) {
-            throw new IllegalArgumentException("Duplicate flight ID.");
-        }
-        for (Flight existing : flights.values()) {
-            if (existing.getFlightNumber().equals(flight.getFlightNumber())
-                    && existing.getDepartureDate().isEqual(flight.getDepartureDate())) {
+        ReentrantLock lock = lockFor(flight.getId());
+        long version;
+        lock.lock();
+        try {
+            if (flights.containsKey(flight.getId())) {
+                throw new IllegalArgumentException("Duplicate flight ID.");
+            }
+            FlightKey key = new FlightKey(flight.getFlightNumber(), flight.getDepartureDate());
+            if (flightsByNumberAndDate.putIfAbsent(key, flight) != null) {
                 throw new FlightBookingSystemException("There is a flight with same "
                         + "number and departure date in the system");
             }
+            flights.put(flight.getId(), flight);
+            flightsByRoute.computeIfAbsent(new RouteKey(flight.getOrigin(), flight.getDestination()),
+                    k -> new ConcurrentSkipListMap<>()).put(new DepartureKey(flight), flight);
+            flightsByDeparture.put(new DepartureKey(flight), flight);
+            flight.setOwner(this);
+            version = changed(EntitySet.FLIGHTS, ABSENT, flight.getStatus());
+        } finally {
+            lock.unlock();
         }
-        flights.put(flight.getId(), flight);
+        publish(EntitySet.FLIGHTS, ChangeEvent.Type.ADDED, flight, version);
     }
 
     /**
@@ -145,12 +406,22 @@ public class FlightBookingSystem {
      * @throws FlightBookingSystemException if the flight is not found
      */
     public void removeFlight(int flightId) throws FlightBookingSystemException {
-        Flight flight = getFlightByID(flightId);
-        if (flight != null) {
+        ReentrantLock lock = lockFor(flightId);
+        Flight flight;
+        long version;
+        lock.lock();
+        try {
+            flight = getFlightByID(flightId);
             flights.remove(flightId);
-        } else {
-            throw new FlightBookingSystemException("Flight with ID " + flightId + " not found.");
+            flightsByNumberAndDate.remove(new FlightKey(flight.getFlightNumber(), flight.getDepartureDate()), flight);
+            unindexRoute(flight);
+            flightsByDeparture.remove(new DepartureKey(flight), flight);
+            flight.setOwner(null);
+            version = changed(EntitySet.FLIGHTS, flight.getStatus(), ABSENT);
+        } finally {
+            lock.unlock();
         }
+        publish(EntitySet.FLIGHTS, ChangeEvent.Type.REMOVED, flight, version);
     }
 
     /**
@@ -164,39 +435,148 @@ public class FlightBookingSystem {
         if (customers.putIfAbsent(customer.getId(), customer) != null) {
             throw new FlightBookingSystemException("Customer with ID " + customer.getId() + " already exists.");
         }
+        customer.setOwner(this);
+        publish(EntitySet.CUSTOMERS, ChangeEvent.Type.ADDED, customer,
+                changed(EntitySet.CUSTOMERS, ABSENT, customer.getStatus()));
     }
 
     /**
-     * Adds a booking to the system.
+     * Adds a booking to the system, seating the customer on the flight and adding
+     * the booking to the customer's list. The capacity check and the insert happen
+     * atomically under the flight's lock.
      *
      * @param booking the booking to add
-     * @throws FlightBookingSystemException if the booking already exists or the
-     *                                      flight does not exist
+     * @throws FlightBookingSystemException if the booking already exists, the
+     *                                      flight does not exist or the flight is
+     *                                      full
      */
     public void addBooking(Booking booking) throws FlightBookingSystemException {
-        if (bookings.stream()
-                .anyMatch(existing -> existing.getFlight().equals(booking.getFlight())
-                        && existing.getBookingDate().equals(booking.getBookingDate())
-                        && existing.getCustomer().equals(booking.getCustomer()))) {
-            throw new FlightBookingSystemException(
-                    "Booking already exists for this flight and customer on the given date.");
-        }
-        if (!flights.containsKey(booking.getFlight().getId())) {
-            throw new FlightBookingSystemException(
-                    "Flight with ID " + booking.getFlight().getId() + " does not exist.");
+        Flight flight = booking.getFlight();
+        ReentrantLock lock = lockFor(flight.getId());
+        long version;
+        lock.lock();
+        try {
+            if (bookingsByKey.containsKey(new BookingKey(booking))) {
+                throw new FlightBookingSystemException(
+                        "Booking already exists for this flight and customer on the given date.");
+            }
+            if (flights.get(flight.getId()) != flight) {
+                throw new FlightBookingSystemException("Flight with ID " + flight.getId() + " does not exist.");
+            }
+            if (bookings.containsKey(booking.getId())) {
+                throw new FlightBookingSystemException("Booking with ID " + booking.getId() + " already exists.");
+            }
+            flight.addPassenger(booking.getCustomer());
+            bookings.put(booking.getId(), booking);
+            index(booking);
+            booking.getCustomer().addBooking(booking);
+            version = changed(EntitySet.BOOKINGS, ABSENT, booking.getStatus());
+        } finally {
+            lock.unlock();
         }
-        bookings.add(booking);
+        publish(EntitySet.BOOKINGS, ChangeEvent.Type.ADDED, booking, version);
+        publish(EntitySet.FLIGHTS, ChangeEvent.Type.CHANGED, flight);
+        publish(EntitySet.CUSTOMERS, ChangeEvent.Type.CHANGED, booking.getCustomer());
     }
 
     /**
-     * Removes a booking from the system.
+     * Removes a booking from the system, freeing the customer's seat on the flight
+     * and removing the booking from the customer's list.
      *
      * @param booking the booking to remove
      * @throws FlightBookingSystemException if the booking is not found
      */
     public void removeBooking(Booking booking) throws FlightBookingSystemException {
-        if (!bookings.remove(booking)) {
-            throw new FlightBookingSystemException("Booking not found and cannot be removed.");
+        ReentrantLock lock = lockFor(booking.getFlight().getId());
+        long version;
+        lock.lock();
+        try {
+            if (!bookings.remove(booking.getId(), booking)) {
+                throw new FlightBookingSystemException("Booking not found and cannot be removed.");
+            }
+            unindex(booking);
+            booking.getFlight().dropPassenger(booking.getCustomer());
+            booking.getCustomer().cancelBooking(booking);
+            version = changed(EntitySet.BOOKINGS, booking.getStatus(), ABSENT);
+        } finally {
+            lock.unlock();
+        }
+        publish(EntitySet.BOOKINGS, ChangeEvent.Type.REMOVED, booking, version);
+        publish(EntitySet.FLIGHTS, ChangeEvent.Type.CHANGED, booking.getFlight());
+        publish(EntitySet.CUSTOMERS, ChangeEvent.Type.CHANGED, booking.getCustomer());
+    }
+
+    /**
+     * Moves a booking to another customer and/or flight, keeping the booking
+     * indexes, passenger lists and customer booking lists in sync. Use this rather
+     * than the booking's setters for bookings that have been added to the system.
+     * Both flights are locked, in stripe order, for the duration of the move.
+     *
+     * @param booking  the booking to move
+     * @param customer the customer the booking should belong to
+     * @param flight   the flight the booking should be on
+     * @throws FlightBookingSystemException if the booking is not in the system, the
+     *                                      flight does not exist, the new flight is
+     *                                      full or the move would duplicate an
+     *                                      existing booking
+     */
+    public void rebook(Booking booking, Customer customer, Flight flight) throws FlightBookingSystemException {
+        Flight oldFlight = booking.getFlight();
+        // Lock the stripes in index order, as flight IDs that differ by a multiple of
+        // the stripe count map to the same stripes in the opposite order
+        int oldStripe = stripeFor(oldFlight.getId());
+        int newStripe = stripeFor(flight.getId());
+        ReentrantLock first = flightLocks[Math.min(oldStripe, newStripe)];
+        ReentrantLock second = oldStripe == newStripe ? null : flightLocks[Math.max(oldStripe, newStripe)];
+        Customer oldCustomer;
+        long version;
+        first.lock();
+        if (second != null) {
+            second.lock();
+        }
+        try {
+            if (bookings.get(booking.getId()) != booking || booking.getFlight() != oldFlight) {
+                throw new FlightBookingSystemException("Booking not found and cannot be updated.");
+            }
+            if (flights.get(flight.getId()) != flight) {
+                throw new FlightBookingSystemException("Flight with ID " + flight.getId() + " does not exist.");
+            }
+            Booking existing = bookingsByKey.get(new BookingKey(customer.getId(), flight.getId(), booking.getBookingDate()));
+            if (existing != null && existing != booking) {
+                throw new FlightBookingSystemException(
+                        "Booking already exists for this flight and customer on the given date.");
+            }
+            oldCustomer = booking.getCustomer();
+            if (flight != oldFlight) {
+                flight.addPassenger(customer);
+                oldFlight.dropPassenger(oldCustomer);
+            } else if (customer != oldCustomer) {
+                oldFlight.dropPassenger(oldCustomer);
+                oldFlight.addPassenger(customer);
+            }
+            unindex(booking);
+            booking.setCustomer(customer);
+            booking.setFlight(flight);
+            index(booking);
+            if (customer != oldCustomer) {
+                oldCustomer.cancelBooking(booking);
+                customer.addBooking(booking);
+            }
+            version = changed(EntitySet.BOOKINGS);
+        } finally {
+            if (second != null) {
+                second.unlock();
+            }
+            first.unlock();
+        }
+        publish(EntitySet.BOOKINGS, ChangeEvent.Type.CHANGED, booking, version);
+        publish(EntitySet.FLIGHTS, ChangeEvent.Type.CHANGED, flight);
+        if (flight != oldFlight) {
+            publish(EntitySet.FLIGHTS, ChangeEvent.Type.CHANGED, oldFlight);
+        }
+        publish(EntitySet.CUSTOMERS, ChangeEvent.Type.CHANGED, customer);
+        if (customer != oldCustomer) {
+            publish(EntitySet.CUSTOMERS, ChangeEvent.Type.CHANGED, oldCustomer);
         }
     }
 
@@ -208,4 +588,399 @@ public class FlightBookingSystem {
     public LocalDate getCurrentDate() {
         return LocalDate.now();
     }
+
+    /**
+     * Gets the current version of an entity set. The version advances on every
+     * change to the set or to one of its entities.
+     *
+     * @param set the entity set
+     * @return the version
+     */
+    public long getVersion(EntitySet set) {
+        return versions.get(set.ordinal());
+    }
+
+    /**
+     * Counts the entities in an entity set.
+     *
+     * @param set the entity set
+     * @return the number of entities, with the version they were counted at
+     */
+    public EntityCount count(EntitySet set) {
+        synchronized (sizes) {
+            return new EntityCount(sizes[set.ordinal()], getVersion(set));
+        }
+    }
+
+    /**
+     * Counts the flights or the customers with a status.
+     *
+     * @param set {@link EntitySet#FLIGHTS} or {@link EntitySet#CUSTOMERS}
+     * @param status the status, such as 1 for active or 0 for deleted
+     * @return the number of entities with that status, with the version they were
+     *         counted at
+     * @throws IllegalArgumentException if the set is {@link EntitySet#BOOKINGS},
+     *                                  which is not counted by status
+     */
+    public EntityCount count(EntitySet set, int status) {
+        Map<Integer, Integer> counts = statusCounts.get(set);
+        if (counts == null) {
+            throw new IllegalArgumentException(set + " are not counted by status.");
+        }
+        synchronized (sizes) {
+            return new EntityCount(counts.getOrDefault(status, 0), getVersion(set));
+        }
+    }
+
+    /**
+     * Checks whether an entity set has changed since it was last stored.
+     *
+     * @param set the entity set
+     * @return true if the set has unstored changes
+     */
+    public boolean isDirty(EntitySet set) {
+        return versions.get(set.ordinal()) != storedVersions.get(set.ordinal());
+    }
+
+    /**
+     * Records that an entity set has been stored as it was at the given version.
+     * Pass the version read before the set was captured for writing, so changes
+     * made while it was being written keep the set dirty.
+     *
+     * @param set the entity set
+     * @param version the version that was stored
+     */
+    public void markStored(EntitySet set, long version) {
+        storedVersions.accumulateAndGet(set.ordinal(), version, Math::max);
+    }
+
+    /**
+     * Advances an entity set's version. Called by the mutators of this class and by
+     * the setters of flights and customers in the system.
+     *
+     * @param set the entity set that has changed
+     * @return the new version
+     */
+    long changed(EntitySet set) {
+        return versions.incrementAndGet(set.ordinal());
+    }
+
+    /**
+     * Advances an entity set's version and moves one entity between the counts of
+     * two statuses, both under one lock so that {@link #count} reads a count and
+     * the version it holds every change up to.
+     *
+     * @param set the entity set that has changed
+     * @param oldStatus the entity's status before the change, or {@link #ABSENT} if
+     *                  it has just been added
+     * @param newStatus the entity's status after the change, or {@link #ABSENT} if
+     *                  it has just been removed
+     * @return the new version
+     */
+    private long changed(EntitySet set, int oldStatus, int newStatus) {
+        Map<Integer, Integer> counts = statusCounts.get(set);
+        synchronized (sizes) {
+            if (oldStatus == ABSENT) {
+                sizes[set.ordinal()]++;
+            } else if (counts != null) {
+                counts.merge(oldStatus, -1, Integer::sum);
+            }
+            if (newStatus == ABSENT) {
+                sizes[set.ordinal()]--;
+            } else if (counts != null) {
+                counts.merge(newStatus, 1, Integer::sum);
+            }
+            return changed(set);
+        }
+    }
+
+    /**
+     * Advances an entity set's version, moves a flight or a customer from the count
+     * of its old status to that of its new one, and publishes the change as
+     * {@link ChangeEvent.Type#MOVED}. Called by the status setters of flights and
+     * customers in the system.
+     *
+     * @param set the entity set that has changed
+     * @param entity the flight or customer whose status changed
+     * @param oldStatus the status it had
+     * @param newStatus the status it has now
+     */
+    void statusChanged(EntitySet set, Object entity, int oldStatus, int newStatus) {
+        publish(set, ChangeEvent.Type.MOVED, entity, changed(set, oldStatus, newStatus));
+    }
+
+    /**
+     * Advances an entity set's version and publishes the change. Called by the
+     * setters of flights and customers in the system.
+     *
+     * @param set    the entity set that has changed
+     * @param type   {@link ChangeEvent.Type#MOVED} if the entity's ID, departure date
+     *               or status changed, otherwise {@link ChangeEvent.Type#CHANGED}
+     * @param entity the flight or customer that changed
+     */
+    void changed(EntitySet set, ChangeEvent.Type type, Object entity) {
+        publish(set, type, entity, changed(set));
+    }
+
+    /**
+     * Registers a listener to be told about every later change to the system.
+     *
+     * @param listener the listener
+     */
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener
+     */
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Publishes a change to a flight or customer that does not advance the version
+     * of its set, such as a change to its seats or bookings.
+     */
+    private void publish(EntitySet set, ChangeEvent.Type type, Object entity) {
+        publish(set, type, entity, getVersion(set));
+    }
+
+    private void publish(EntitySet set, ChangeEvent.Type type, Object entity, long version) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        ChangeEvent event = new ChangeEvent(set, type, entity, version);
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.entityChanged(event);
+            } catch (RuntimeException ex) {
+                // A failing view must not fail the change that has already been made
+                System.err.println("Change listener failed on " + event + ": " + ex);
+            }
+        }
+    }
+
+    /**
+     * Updates the flight indexes before a flight's number, route or departure date
+     * changes. Called by the flight's setters.
+     *
+     * @param flight           the flight about to change
+     * @param newFlightNumber  the flight number it will have
+     * @param newOrigin        the origin it will have
+     * @param newDestination   the destination it will have
+     * @param newDepartureDate the departure date it will have
+     * @throws IllegalArgumentException if another flight already has that number and
+     *                                  departure date
+     */
+    void reindexFlight(Flight flight, String newFlightNumber, String newOrigin, String newDestination,
+            LocalDate newDepartureDate) {
+        FlightKey newKey = new FlightKey(newFlightNumber, newDepartureDate);
+        FlightKey oldKey = new FlightKey(flight.getFlightNumber(), flight.getDepartureDate());
+        if (!newKey.equals(oldKey)) {
+            Flight existing = flightsByNumberAndDate.putIfAbsent(newKey, flight);
+            if (existing != null && existing != flight) {
+                throw new IllegalArgumentException(
+                        "There is a flight with same number and departure date in the system");
+            }
+            flightsByNumberAndDate.remove(oldKey, flight);
+        }
+
+        RouteKey newRoute = new RouteKey(newOrigin, newDestination);
+        if (newRoute.equals(new RouteKey(flight.getOrigin(), flight.getDestination()))
+                && newDepartureDate.equals(flight.getDepartureDate())) {
+            return;
+        }
+        unindexRoute(flight);
+        flightsByRoute.computeIfAbsent(newRoute, k -> new ConcurrentSkipListMap<>())
+                .put(new DepartureKey(newDepartureDate, flight.getId()), flight);
+        if (!newDepartureDate.equals(flight.getDepartureDate())) {
+            flightsByDeparture.remove(new DepartureKey(flight), flight);
+            flightsByDeparture.put(new DepartureKey(newDepartureDate, flight.getId()), flight);
+        }
+    }
+
+    private void unindexRoute(Flight flight) {
+        ConcurrentNavigableMap<DepartureKey, Flight> route =
+                flightsByRoute.get(new RouteKey(flight.getOrigin(), flight.getDestination()));
+        if (route != null) {
+            route.remove(new DepartureKey(flight), flight);
+        }
+    }
+
+    private ReentrantLock lockFor(int flightId) {
+        return flightLocks[stripeFor(flightId)];
+    }
+
+    private int stripeFor(int flightId) {
+        return Math.floorMod(flightId, flightLocks.length);
+    }
+
+    private void index(Booking booking) {
+        addToIndex(bookingsByCustomer, booking.getCustomer().getId(), booking);
+        addToIndex(bookingsByFlight, booking.getFlight().getId(), booking);
+        bookingsByKey.put(new BookingKey(booking), booking);
+    }
+
+    private static void addToIndex(ConcurrentMap<Integer, List<Booking>> index, int key, Booking booking) {
+        index.compute(key, (k, indexed) -> {
+            List<Booking> list = indexed != null ? indexed : new CopyOnWriteArrayList<>();
+            list.add(booking);
+            return list;
+        });
+    }
+
+    private void unindex(Booking booking) {
+        removeFromIndex(bookingsByCustomer, booking.getCustomer().getId(), booking);
+        removeFromIndex(bookingsByFlight, booking.getFlight().getId(), booking);
+        bookingsByKey.remove(new BookingKey(booking), booking);
+    }
+
+    private static void removeFromIndex(ConcurrentMap<Integer, List<Booking>> index, int key, Booking booking) {
+        index.computeIfPresent(key, (k, indexed) -> {
+            indexed.remove(booking);
+            return indexed.isEmpty() ? null : indexed;
+        });
+    }
+
+    /**
+     * Identifies a flight by flight number and departure date, the combination
+     * that must be unique across the system.
+     */
+    private static final class FlightKey {
+        private final String flightNumber;
+        private final LocalDate departureDate;
+
+        FlightKey(String flightNumber, LocalDate departureDate) {
+            this.flightNumber = flightNumber;
+            this.departureDate = departureDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FlightKey)) {
+                return false;
+            }
+            FlightKey other = (FlightKey) o;
+            return Objects.equals(flightNumber, other.flightNumber)
+                    && Objects.equals(departureDate, other.departureDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(flightNumber, departureDate);
+        }
+    }
+
+    /**
+     * Identifies a route by its origin and destination, ignoring case and surrounding
+     * spaces.
+     */
+    private static final class RouteKey {
+        private final String origin;
+        private final String destination;
+
+        RouteKey(String origin, String destination) {
+            this.origin = normalise(origin);
+            this.destination = normalise(destination);
+        }
+
+        private static String normalise(String airport) {
+            return airport == null ? "" : airport.trim().toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RouteKey)) {
+                return false;
+            }
+            RouteKey other = (RouteKey) o;
+            return origin.equals(other.origin) && destination.equals(other.destination);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * origin.hashCode() + destination.hashCode();
+        }
+    }
+
+    /**
+     * Orders the flights on a route by departure date, then by ID.
+     */
+    private static final class DepartureKey implements Comparable<DepartureKey> {
+        private final LocalDate departureDate;
+        private final int flightId;
+
+        DepartureKey(Flight flight) {
+            this(flight.getDepartureDate(), flight.getId());
+        }
+
+        DepartureKey(LocalDate departureDate, int flightId) {
+            this.departureDate = departureDate;
+            this.flightId = flightId;
+        }
+
+        /** The lowest key on a date, for inclusive range starts. */
+        static DepartureKey first(LocalDate date) {
+            return new DepartureKey(date, Integer.MIN_VALUE);
+        }
+
+        /** The highest key on a date, for inclusive range ends. */
+        static DepartureKey last(LocalDate date) {
+            return new DepartureKey(date, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public int compareTo(DepartureKey other) {
+            int byDate = departureDate.compareTo(other.departureDate);
+            return byDate != 0 ? byDate : Integer.compare(flightId, other.flightId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof DepartureKey && compareTo((DepartureKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * departureDate.hashCode() + flightId;
+        }
+    }
+
+    /**
+     * Identifies a booking by customer, flight and booking date, the combination
+     * that must be unique across the system.
+     */
+    private static final class BookingKey {
+        private final int customerId;
+        private final int flightId;
+        private final LocalDate bookingDate;
+
+        BookingKey(Booking booking) {
+            this(booking.getCustomer().getId(), booking.getFlight().getId(), booking.getBookingDate());
+        }
+
+        BookingKey(int customerId, int flightId, LocalDate bookingDate) {
+            this.customerId = customerId;
+            this.flightId = flightId;
+            this.bookingDate = bookingDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof BookingKey)) {
+                return false;
+            }
+            BookingKey other = (BookingKey) o;
+            return customerId == other.customerId && flightId == other.flightId
+                    && Objects.equals(bookingDate, other.bookingDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(customerId, flightId, bookingDate);
+        }
+    }
 }
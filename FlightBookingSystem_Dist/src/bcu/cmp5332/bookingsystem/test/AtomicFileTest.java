@@ -0,0 +1,54 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.AtomicFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class AtomicFileTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Path file = Files.createTempDirectory("atomic").resolve("flights.txt");
+        AtomicFile.writeLines(file, Arrays.asList("1::U4701::Kathmandu", "2::U4702::Pokhara"));
+
+        assertFalse(Files.exists(file.resolveSibling("flights.txt.tmp")));
+        try (BufferedReader reader = AtomicFile.newReader(file)) {
+            assertEquals("1::U4701::Kathmandu", reader.readLine());
+            assertEquals("2::U4702::Pokhara", reader.readLine());
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    public void testDetectsCorruptContent() throws Exception {
+        Path file = Files.createTempDirectory("atomic").resolve("customers.txt");
+        AtomicFile.writeLines(file, Arrays.asList("1::John Doe::1234567890::john@example.com"));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[3] = 'X';
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> AtomicFile.read(file));
+    }
+
+    @Test
+    public void testAcceptsFileWithoutFooter() throws Exception {
+        Path file = Files.createTempDirectory("atomic").resolve("bookings.txt");
+        Files.write(file, Arrays.asList("1::1::2025-02-07"), StandardCharsets.UTF_8);
+
+        try (BufferedReader reader = AtomicFile.newReader(file)) {
+            assertEquals("1::1::2025-02-07", reader.readLine());
+            assertNull(reader.readLine());
+        }
+    }
+}
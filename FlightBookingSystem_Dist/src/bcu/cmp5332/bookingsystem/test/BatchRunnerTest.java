@@ -0,0 +1,87 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.main.BatchRunner;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchRunnerTest {
+
+    @Test
+    public void testRunsScriptAndStoresEveryFewCommands() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        List<Boolean> stores = new ArrayList<>();
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        BatchRunner runner = new BatchRunner(fbs, 2,
+                system -> stores.add(FlightBookingSystemData.isStoreDeferred()), new PrintStream(errors, true));
+
+        String script = "# Customers for the morning flights\n"
+                + "addcustomer 101::Ram Thapa::9841000001::ram@example.com\n"
+                + "\n"
+                + "addcustomer 102::Sita Rai::9841000002::sita@example.com\n"
+                + "addcustomer 103::Hari Gurung\n"
+                + "addcustomer\n"
+                + "addcustomer 104::Gita Magar::9841000004::gita@example.com\n"
+                + "exit\n"
+                + "addcustomer 105::Shyam KC::9841000005::shyam@example.com\n";
+        int failed = runner.run(new BufferedReader(new StringReader(script)));
+
+        assertEquals(2, failed);
+        String[] reported = errors.toString().trim().split("\\R");
+        assertEquals(2, reported.length);
+        assertTrue(reported[0].startsWith("Line 5: "));
+        assertTrue(reported[1].startsWith("Line 6: "));
+        // Two stores after every two of the five commands, then one at the end
+        assertEquals(3, stores.size());
+        assertEquals(Boolean.TRUE, stores.get(0));
+        assertFalse(FlightBookingSystemData.isStoreDeferred());
+        assertEquals("Sita Rai", fbs.getCustomerByID(102).getName());
+        assertEquals("gita@example.com", fbs.getCustomerByID(104).getEmail());
+        assertThrows(FlightBookingSystemException.class, () -> fbs.getCustomerByID(103));
+        assertThrows(FlightBookingSystemException.class, () -> fbs.getCustomerByID(105));
+    }
+
+    @Test
+    public void testStoresWhenScriptCannotBeRead() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        List<Integer> stored = new ArrayList<>();
+        BatchRunner runner = new BatchRunner(fbs, 0, system -> stored.add(system.getCustomers().size()),
+                new PrintStream(new ByteArrayOutputStream(), true));
+
+        String script = "addcustomer 101::Ram Thapa::9841000001::ram@example.com\n"
+                + "addcustomer 102::Sita Rai::9841000002::sita@example.com\n";
+        Reader failing = new StringReader(script) {
+            private boolean read;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                if (read) {
+                    throw new IOException("Connection reset");
+                }
+                read = true;
+                return super.read(buffer, offset, length);
+            }
+        };
+
+        IOException ex = assertThrows(IOException.class, () -> runner.run(new BufferedReader(failing)));
+        assertEquals("Connection reset", ex.getMessage());
+        assertEquals(1, stored.size());
+        assertEquals(Integer.valueOf(2), stored.get(0));
+        assertFalse(FlightBookingSystemData.isStoreDeferred());
+    }
+}
@@ -0,0 +1,58 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.BinaryDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+public class BinaryDataManagerTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Customer customer = new Customer(4, "Jānis Bērziņš", "9800000000", "janis@example.com", 1);
+        Flight flight = new Flight(7, "U4701", "Kathmandu", "Biratnagar", LocalDate.of(2025, 12, 12), 10, 1000.5, 500.0, 1);
+        fbs.addCustomer(customer);
+        fbs.addFlight(flight);
+        fbs.addBooking(new Booking(12, customer, flight, LocalDate.of(2025, 2, 7), 1));
+
+        Path file = Files.createTempDirectory("binary").resolve("data.bin");
+        new BinaryDataManager(file).storeData(fbs);
+        FlightBookingSystem loaded = new FlightBookingSystem();
+        new BinaryDataManager(file).loadData(loaded);
+
+        Flight loadedFlight = loaded.getFlightByID(7);
+        assertEquals("U4701", loadedFlight.getFlightNumber());
+        assertEquals(LocalDate.of(2025, 12, 12), loadedFlight.getDepartureDate());
+        assertEquals(1000.5, loadedFlight.getPrice(), 0.0);
+        assertEquals(9, loadedFlight.getAvailableSeats());
+        assertEquals("Jānis Bērziņš", loaded.getCustomerByID(4).getName());
+        Booking booking = loaded.getBookingById(4, 7);
+        assertEquals(12, booking.getId());
+        assertEquals(LocalDate.of(2025, 2, 7), booking.getBookingDate());
+    }
+
+    @Test
+    public void testRejectsTruncatedSnapshot() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addCustomer(new Customer(1, "John Doe", "1234567890", "john@example.com", 1));
+        Path file = Files.createTempDirectory("binary").resolve("data.bin");
+        new BinaryDataManager(file).storeData(fbs);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 6));
+
+        assertThrows(FlightBookingSystemException.class,
+                () -> new BinaryDataManager(file).loadData(new FlightBookingSystem()));
+    }
+}
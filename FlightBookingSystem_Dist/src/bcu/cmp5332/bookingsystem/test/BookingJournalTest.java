@@ -0,0 +1,121 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.BookingJournal;
+import bcu.cmp5332.bookingsystem.data.JournalRecord;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+public class BookingJournalTest {
+
+    private static FlightBookingSystem newSystem() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addCustomer(new Customer(1, "John Doe", "1234567890", "john@example.com", 1));
+        fbs.addFlight(new Flight(1, "FL123", "Kathmandu", "Pokhara", LocalDate.of(2025, 3, 1), 10, 100.0, 10.0, 1));
+        fbs.addFlight(new Flight(2, "FL456", "Pokhara", "Kathmandu", LocalDate.of(2025, 3, 2), 10, 100.0, 10.0, 1));
+        return fbs;
+    }
+
+    private static Path newJournalFile() throws Exception {
+        return Files.createTempDirectory("journal").resolve("bookings.journal");
+    }
+
+    @Test
+    public void testReplayAppliesRecordsByBookingId() throws Exception {
+        FlightBookingSystem fbs = newSystem();
+        Customer customer = fbs.getCustomerByID(1);
+        // The same customer on the same flight twice, booked on different dates
+        Booking first = new Booking(10, customer, fbs.getFlightByID(1), LocalDate.of(2025, 2, 1), 1);
+        Booking second = new Booking(11, customer, fbs.getFlightByID(1), LocalDate.of(2025, 2, 2), 1);
+        BookingJournal journal = new BookingJournal(newJournalFile());
+        journal.setSync(false);
+        journal.appendAll(Arrays.asList(JournalRecord.added(first), JournalRecord.added(second)));
+        fbs.addBooking(first);
+        fbs.addBooking(second);
+        fbs.rebook(second, customer, fbs.getFlightByID(2));
+        journal.append(JournalRecord.edited(second, 1));
+        fbs.removeBooking(first);
+        journal.append(JournalRecord.cancelled(first));
+        journal.close();
+
+        FlightBookingSystem loaded = newSystem();
+        assertEquals(4, journal.replay(loaded));
+        assertEquals(4, journal.getRecordCount());
+        assertEquals(1, loaded.getBookings().size());
+        assertThrows(FlightBookingSystemException.class, () -> loaded.getBookingByID(10));
+        assertEquals(2, loaded.getBookingByID(11).getFlight().getId());
+        assertEquals(LocalDate.of(2025, 2, 2), loaded.getBookingByID(11).getBookingDate());
+
+        // Replaying over a snapshot that already holds the changes leaves it as it is
+        assertEquals(4, journal.replay(loaded));
+        assertEquals(1, loaded.getBookings().size());
+        assertEquals(2, loaded.getBookingByID(11).getFlight().getId());
+    }
+
+    @Test
+    public void testParsesRecordsWithBookingIds() {
+        JournalRecord cancel = JournalRecord.parse("CANCEL::1::2::11");
+        assertEquals(JournalRecord.Type.CANCEL, cancel.getType());
+        assertEquals(11, cancel.getBookingId());
+        JournalRecord edit = JournalRecord.parse("EDIT::1::2::3::12");
+        assertEquals(3, edit.getNewFlightId());
+        assertEquals(12, edit.getBookingId());
+        assertEquals("EDIT::1::2::3::12", edit.format());
+        assertThrows(IllegalArgumentException.class, () -> JournalRecord.parse("CANCEL::1::2"));
+        assertThrows(IllegalArgumentException.class, () -> JournalRecord.parse("ADD::1::2::2025-02-01::1"));
+    }
+
+    @Test
+    public void testReplayCutsOffTornTail() throws Exception {
+        FlightBookingSystem fbs = newSystem();
+        Path file = newJournalFile();
+        BookingJournal journal = new BookingJournal(file);
+        Booking first = new Booking(10, fbs.getCustomerByID(1), fbs.getFlightByID(1), LocalDate.of(2025, 2, 1), 1);
+        journal.append(JournalRecord.added(first));
+        journal.close();
+        long complete = Files.size(file);
+        // A crash part way through the next append
+        Files.write(file, "ADD::1::2::2025-0".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertEquals(1, new BookingJournal(file).replay(newSystem()));
+        assertEquals(complete, Files.size(file));
+
+        journal = new BookingJournal(file);
+        Booking second = new Booking(11, fbs.getCustomerByID(1), fbs.getFlightByID(2), LocalDate.of(2025, 2, 2), 1);
+        journal.append(JournalRecord.added(second));
+        journal.close();
+        FlightBookingSystem loaded = newSystem();
+        assertEquals(2, new BookingJournal(file).replay(loaded));
+        assertEquals(2, loaded.getBookings().size());
+        assertEquals(2, loaded.getBookingByID(11).getFlight().getId());
+    }
+
+    @Test
+    public void testTruncateDiscardsEveryRecord() throws Exception {
+        FlightBookingSystem fbs = newSystem();
+        Path file = newJournalFile();
+        BookingJournal journal = new BookingJournal(file);
+        Booking first = new Booking(10, fbs.getCustomerByID(1), fbs.getFlightByID(1), LocalDate.of(2025, 2, 1), 1);
+        journal.append(JournalRecord.added(first));
+        journal.truncate();
+        assertEquals(0, journal.size());
+        assertEquals(0, journal.getRecordCount());
+
+        journal.append(JournalRecord.added(first));
+        journal.close();
+        assertEquals(1, new BookingJournal(file).replay(newSystem()));
+    }
+}
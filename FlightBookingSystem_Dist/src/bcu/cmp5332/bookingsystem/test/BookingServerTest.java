@@ -0,0 +1,171 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.IdAllocator;
+import bcu.cmp5332.bookingsystem.http.BookingServer;
+import bcu.cmp5332.bookingsystem.http.JsonReader;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public class BookingServerTest {
+
+    private IdAllocator previousAllocator;
+    private IdAllocator allocator;
+    private FlightBookingSystem fbs;
+    private BookingServer server;
+
+    /** The status and body of a response. */
+    private static final class Reply {
+        final int status;
+        final String body;
+
+        Reply(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        // Keep the commands the server runs away from the real data files
+        previousAllocator = FlightBookingSystemData.getIdAllocator();
+        allocator = new IdAllocator(Files.createTempDirectory("data").resolve("ids.txt"), 100);
+        FlightBookingSystemData.setIdAllocator(allocator);
+        FlightBookingSystemData.setStoreDeferred(true);
+
+        fbs = new FlightBookingSystem();
+        fbs.addCustomer(new Customer(1, "John Doe", "1234567890", "john@example.com", 1));
+        allocator.observe(IdAllocator.Sequence.CUSTOMER, 1);
+        fbs.addFlight(new Flight(1, "FL123", "Kathmandu", "Pokhara", LocalDate.of(2025, 3, 1), 10, 100.0, 10.0, 1));
+        fbs.addFlight(new Flight(2, "FL456", "Pokhara", "Kathmandu", LocalDate.of(2025, 3, 2), 10, 100.0, 10.0, 1));
+        start(fbs);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        FlightBookingSystemData.setStoreDeferred(false);
+        FlightBookingSystemData.setIdAllocator(previousAllocator);
+    }
+
+    private void start(FlightBookingSystem system) throws IOException {
+        if (server != null) {
+            server.stop(0);
+        }
+        server = new BookingServer(system, 0);
+        server.start();
+    }
+
+    private Reply request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path)
+                .openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        String text = "";
+        if (in != null) {
+            try (InputStream stream = in) {
+                text = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        connection.disconnect();
+        return new Reply(status, text);
+    }
+
+    @Test
+    public void testListsFlights() throws Exception {
+        Reply reply = request("GET", "/flights", null);
+
+        assertEquals(200, reply.status);
+        assertTrue(reply.body.startsWith("["), reply.body);
+        assertTrue(reply.body.contains("\"flightNumber\":\"FL123\""), reply.body);
+        assertTrue(reply.body.contains("\"flightNumber\":\"FL456\""), reply.body);
+    }
+
+    @Test
+    public void testAddsEditsAndCancelsBookings() throws Exception {
+        String booking = "{\"customerId\": 1, \"flightId\": 1, \"bookingDate\": \"2025-02-01\"}";
+        Reply added = request("POST", "/bookings", booking);
+        assertEquals(201, added.status, added.body);
+        Map<String, String> body = JsonReader.parseObject(added.body);
+        assertEquals("1", body.get("customerId"));
+        assertEquals("1", body.get("flightId"));
+        assertEquals("2025-02-01", body.get("bookingDate"));
+
+        Reply duplicate = request("POST", "/bookings", booking);
+        assertEquals(400, duplicate.status);
+        assertTrue(JsonReader.parseObject(duplicate.body).containsKey("error"), duplicate.body);
+
+        Reply edited = request("PUT", "/bookings/1", "{\"flightId\": 2}");
+        assertEquals(200, edited.status, edited.body);
+        assertEquals("2", JsonReader.parseObject(edited.body).get("flightId"));
+        assertEquals(10, fbs.getFlightByID(1).getAvailableSeats());
+
+        Reply cancelled = request("DELETE", "/bookings/1/2", null);
+        assertEquals(204, cancelled.status);
+        assertEquals("", cancelled.body);
+        assertTrue(fbs.getBookings().isEmpty());
+        assertEquals(404, request("DELETE", "/bookings/1/2", null).status);
+    }
+
+    @Test
+    public void testRejectsMalformedIds() throws Exception {
+        Reply flight = request("GET", "/flights/abc", null);
+        assertEquals(400, flight.status);
+        assertTrue(JsonReader.parseObject(flight.body).containsKey("error"), flight.body);
+
+        assertEquals(400, request("DELETE", "/bookings/x/1", null).status);
+        assertEquals(400, request("POST", "/bookings", "{\"customerId\": \"one\", \"flightId\": 1}").status);
+    }
+
+    @Test
+    public void testAnswersInternalErrors() throws Exception {
+        start(new FlightBookingSystem() {
+            @Override
+            public List<Flight> getFlights() {
+                throw new IllegalStateException("Index unavailable");
+            }
+        });
+
+        Reply reply = request("GET", "/flights", null);
+
+        assertEquals(500, reply.status);
+        assertEquals("Internal server error", JsonReader.parseObject(reply.body).get("error"));
+    }
+
+    @Test
+    public void testAllocatesCustomerIdsLikeTheCli() throws Exception {
+        Reply reply = request("POST", "/customers",
+                "{\"name\": \"Ram Thapa\", \"phone\": \"9841000001\", \"email\": \"ram@example.com\"}");
+
+        assertEquals(201, reply.status, reply.body);
+        assertTrue(reply.body.startsWith("{\"id\":2,"), reply.body);
+        assertEquals("Ram Thapa", fbs.getCustomerByID(2).getName());
+        // The command allocated the ID once, so the next one follows it
+        assertEquals(3, allocator.nextCustomerId());
+    }
+}
@@ -0,0 +1,71 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.gui.CommandDispatcher;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+public class CommandDispatcherTest {
+
+    @Test
+    public void testRunsTasksInOrderOffTheEventThread() throws Exception {
+        CommandDispatcher dispatcher = new CommandDispatcher(new FlightBookingSystem());
+        List<String> log = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < 3; i++) {
+                int task = i;
+                dispatcher.run("Task " + i, null, () -> {
+                    log.add("run " + task + " " + SwingUtilities.isEventDispatchThread());
+                    return task;
+                }, result -> {
+                    log.add("done " + result + " " + SwingUtilities.isEventDispatchThread());
+                    done.countDown();
+                }, ex -> done.countDown());
+            }
+            assertTrue(dispatcher.getStatusBar().isVisible());
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        List<String> runs = new ArrayList<>();
+        List<String> results = new ArrayList<>();
+        for (String entry : log) {
+            (entry.startsWith("run") ? runs : results).add(entry);
+        }
+        assertEquals(Arrays.asList("run 0 false", "run 1 false", "run 2 false"), runs);
+        assertEquals(Arrays.asList("done 0 true", "done 1 true", "done 2 true"), results);
+        SwingUtilities.invokeAndWait(() -> assertFalse(dispatcher.getStatusBar().isVisible()));
+    }
+
+    @Test
+    public void testReportsFailureOnTheEventThread() throws Exception {
+        CommandDispatcher dispatcher = new CommandDispatcher(new FlightBookingSystem());
+        CountDownLatch failed = new CountDownLatch(1);
+        List<String> messages = new ArrayList<>();
+
+        SwingUtilities.invokeAndWait(() -> dispatcher.<Void>run("Failing", null, () -> {
+            throw new FlightBookingSystemException("Flight is full");
+        }, result -> { }, ex -> {
+            messages.add(ex.getMessage() + " " + (ex instanceof FlightBookingSystemException)
+                    + " " + SwingUtilities.isEventDispatchThread());
+            failed.countDown();
+        }));
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        assertEquals("Flight is full true true", messages.get(0));
+    }
+}
@@ -0,0 +1,83 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.ConnectionSearch.Itinerary;
+import bcu.cmp5332.bookingsystem.model.ConnectionSearch.Ranking;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+public class ConnectionSearchTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2025, 3, 1);
+
+    private FlightBookingSystem fbs;
+    private Flight toKathmandu;
+    private Flight sameDay;
+    private Flight later;
+    private Flight toBharatpur;
+    private Flight viaBharatpur;
+
+    @BeforeEach
+    public void setUp() throws FlightBookingSystemException {
+        fbs = new FlightBookingSystem();
+        toKathmandu = new Flight(1, "FL1", "Pokhara", "Kathmandu", MARCH_1, 10, 100.0, 10.0, 1);
+        sameDay = new Flight(2, "FL2", "Kathmandu", "Biratnagar", MARCH_1, 10, 100.0, 10.0, 1);
+        later = new Flight(3, "FL3", "Kathmandu", "Biratnagar", MARCH_1.plusDays(2), 10, 50.0, 10.0, 1);
+        toBharatpur = new Flight(4, "FL4", "Pokhara", "Bharatpur", MARCH_1, 10, 40.0, 10.0, 1);
+        viaBharatpur = new Flight(5, "FL5", "Bharatpur", "Kathmandu", MARCH_1.plusDays(1), 10, 40.0, 10.0, 1);
+        for (Flight flight : Arrays.asList(toKathmandu, sameDay, later, toBharatpur, viaBharatpur)) {
+            fbs.addFlight(flight);
+        }
+    }
+
+    @Test
+    public void testRanksByPriceWithinLegLimit() {
+        List<Itinerary> found = fbs.findConnections("pokhara", "BIRATNAGAR", MARCH_1, 2, 0, Ranking.PRICE);
+        assertEquals(2, found.size());
+        assertEquals(Arrays.asList(toKathmandu, later), found.get(0).getLegs());
+        assertEquals(Arrays.asList(toKathmandu, sameDay), found.get(1).getLegs());
+        assertTrue(found.get(0).getTotalPrice() < found.get(1).getTotalPrice());
+
+        found = fbs.findConnections("Pokhara", "Biratnagar", MARCH_1, 3, 0, Ranking.PRICE);
+        assertEquals(Arrays.asList(toBharatpur, viaBharatpur, later), found.get(0).getLegs());
+    }
+
+    @Test
+    public void testRanksByArrival() {
+        List<Itinerary> found = fbs.findConnections("Pokhara", "Biratnagar", MARCH_1, 2, 0, Ranking.ARRIVAL);
+        assertEquals(Arrays.asList(toKathmandu, sameDay), found.get(0).getLegs());
+        assertEquals(MARCH_1, found.get(0).getArrivalDate());
+    }
+
+    @Test
+    public void testRespectsMinimumLayover() {
+        List<Itinerary> found = fbs.findConnections("Pokhara", "Biratnagar", MARCH_1, 2, 1, Ranking.ARRIVAL);
+        assertEquals(1, found.size());
+        assertEquals(Arrays.asList(toKathmandu, later), found.get(0).getLegs());
+        assertEquals(MARCH_1.plusDays(2), found.get(0).getArrivalDate());
+    }
+
+    @Test
+    public void testSkipsUnavailableFlightsAndFollowsChanges() throws FlightBookingSystemException {
+        assertTrue(fbs.findConnections("Pokhara", "Biratnagar", MARCH_1.plusDays(1), 3, 0, Ranking.PRICE).isEmpty());
+
+        toKathmandu.setStatus(0);
+        List<Itinerary> found = fbs.findConnections("Pokhara", "Biratnagar", MARCH_1, 2, 0, Ranking.PRICE);
+        assertTrue(found.isEmpty());
+
+        Flight direct = new Flight(6, "FL6", "Pokhara", "Biratnagar", MARCH_1.plusDays(1), 10, 500.0, 10.0, 1);
+        fbs.addFlight(direct);
+        found = fbs.findConnections("Pokhara", "Biratnagar", MARCH_1, 2, 0, Ranking.PRICE);
+        assertEquals(1, found.size());
+        assertEquals(Arrays.asList(direct), found.get(0).getLegs());
+    }
+}
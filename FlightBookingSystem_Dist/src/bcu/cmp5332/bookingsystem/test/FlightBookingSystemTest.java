@@ -0,0 +1,339 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.ChangeEvent;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem.EntitySet;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FlightBookingSystemTest {
+
+    private FlightBookingSystem fbs;
+    private Customer customer;
+    private Flight flight1;
+    private Flight flight2;
+
+    @BeforeEach
+    public void setUp() throws FlightBookingSystemException {
+        fbs = new FlightBookingSystem();
+        customer = new Customer(1, "John Doe", "1234567890", "john@example.com", 1);
+        flight1 = new Flight(1, "FL123", "Kathmandu", "Pokhara", LocalDate.of(2025, 3, 1), 10, 100.0, 10.0, 1);
+        flight2 = new Flight(2, "FL456", "Pokhara", "Kathmandu", LocalDate.of(2025, 3, 2), 10, 100.0, 10.0, 1);
+        fbs.addCustomer(customer);
+        fbs.addFlight(flight1);
+        fbs.addFlight(flight2);
+    }
+
+    @Test
+    public void testGetFlightByNumberAndDate() throws FlightBookingSystemException {
+        assertSame(flight1, fbs.getFlightByNumber("FL123", LocalDate.of(2025, 3, 1)));
+        assertThrows(FlightBookingSystemException.class,
+                () -> fbs.getFlightByNumber("FL123", LocalDate.of(2025, 3, 2)));
+    }
+
+    @Test
+    public void testDuplicateFlightNumberAndDateRejected() {
+        Flight duplicate = new Flight(3, "FL123", "Kathmandu", "Biratnagar", LocalDate.of(2025, 3, 1), 10, 100.0, 10.0, 1);
+        assertThrows(FlightBookingSystemException.class, () -> fbs.addFlight(duplicate));
+    }
+
+    @Test
+    public void testRescheduleKeepsNumberIndexInSync() throws FlightBookingSystemException {
+        flight1.setDepartureDate(LocalDate.of(2025, 4, 1));
+
+        assertSame(flight1, fbs.getFlightByNumber("FL123", LocalDate.of(2025, 4, 1)));
+        assertThrows(FlightBookingSystemException.class,
+                () -> fbs.getFlightByNumber("FL123", LocalDate.of(2025, 3, 1)));
+        flight2.setFlightNumber("FL123");
+        assertThrows(IllegalArgumentException.class, () -> flight2.setDepartureDate(LocalDate.of(2025, 4, 1)));
+    }
+
+    @Test
+    public void testCountsEntitiesByStatus() throws FlightBookingSystemException {
+        assertEquals(2, fbs.count(EntitySet.FLIGHTS).getCount());
+        assertEquals(2, fbs.count(EntitySet.FLIGHTS, 1).getCount());
+        assertEquals(1, fbs.count(EntitySet.CUSTOMERS, 1).getCount());
+
+        flight1.setStatus(0);
+        customer.setStatus(0);
+        Booking booking = new Booking(1, customer, flight2, LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(booking);
+        assertEquals(1, fbs.count(EntitySet.FLIGHTS, 1).getCount());
+        assertEquals(1, fbs.count(EntitySet.FLIGHTS, 0).getCount());
+        assertEquals(0, fbs.count(EntitySet.CUSTOMERS, 1).getCount());
+        assertEquals(1, fbs.count(EntitySet.CUSTOMERS, 0).getCount());
+        assertEquals(1, fbs.count(EntitySet.BOOKINGS).getCount());
+
+        fbs.removeBooking(booking);
+        fbs.removeFlight(flight1.getId());
+        assertEquals(0, fbs.count(EntitySet.BOOKINGS).getCount());
+        assertEquals(1, fbs.count(EntitySet.FLIGHTS).getCount());
+        assertEquals(0, fbs.count(EntitySet.FLIGHTS, 0).getCount());
+        assertEquals(fbs.getVersion(EntitySet.FLIGHTS), fbs.count(EntitySet.FLIGHTS, 1).getVersion());
+        assertThrows(IllegalArgumentException.class, () -> fbs.count(EntitySet.BOOKINGS, 1));
+    }
+
+    @Test
+    public void testBookingLookups() throws FlightBookingSystemException {
+        Booking booking = new Booking(1, customer, flight1, LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(booking);
+
+        assertSame(booking, fbs.getBookingByCustomerId(1));
+        assertSame(booking, fbs.getBookingById(1, 1));
+        assertEquals(1, fbs.getBookingsForFlight(1).size());
+        assertTrue(fbs.getBookingsForFlight(2).isEmpty());
+    }
+
+    @Test
+    public void testDuplicateBookingRejected() throws FlightBookingSystemException {
+        fbs.addBooking(new Booking(1, customer, flight1, LocalDate.of(2025, 2, 1), 1));
+        assertThrows(FlightBookingSystemException.class,
+                () -> fbs.addBooking(new Booking(2, customer, flight1, LocalDate.of(2025, 2, 1), 1)));
+    }
+
+    @Test
+    public void testRemoveBookingUpdatesIndexes() throws FlightBookingSystemException {
+        Booking booking = new Booking(1, customer, flight1, LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(booking);
+        fbs.removeBooking(booking);
+
+        assertThrows(FlightBookingSystemException.class, () -> fbs.getBookingById(1, 1));
+        assertTrue(fbs.getBookingsForFlight(1).isEmpty());
+        fbs.addBooking(new Booking(2, customer, flight1, LocalDate.of(2025, 2, 1), 1));
+    }
+
+    @Test
+    public void testRebookMovesBookingBetweenFlights() throws FlightBookingSystemException {
+        Booking booking = new Booking(1, customer, flight1, LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(booking);
+        fbs.rebook(booking, customer, flight2);
+
+        assertSame(booking, fbs.getBookingById(1, 2));
+        assertThrows(FlightBookingSystemException.class, () -> fbs.getBookingById(1, 1));
+        assertEquals(1, fbs.getBookingsForFlight(2).size());
+        assertTrue(flight1.getPassengers().isEmpty());
+        assertEquals(1, flight2.getPassengers().size());
+    }
+
+    @Test
+    public void testAddAndRemoveBookingSeatPassenger() throws FlightBookingSystemException {
+        Booking booking = new Booking(1, customer, flight1, LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(booking);
+
+        assertEquals(9, flight1.getAvailableSeats());
+        assertEquals(1, customer.getBookings().size());
+
+        fbs.removeBooking(booking);
+        assertEquals(10, flight1.getAvailableSeats());
+        assertTrue(customer.getBookings().isEmpty());
+    }
+
+    @Test
+    public void testConcurrentBookingsNeverOverbook() throws Exception {
+        int threads = 8;
+        int attemptsPerThread = 5;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * attemptsPerThread;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        int id = offset + i + 100;
+                        Customer c = new Customer(id, "Customer " + id, "0", "c@example.com", 1);
+                        fbs.addCustomer(c);
+                        try {
+                            fbs.addBooking(new Booking(id, c, flight1, LocalDate.of(2025, 2, 1), 1));
+                            booked.incrementAndGet();
+                        } catch (FlightBookingSystemException full) {
+                            // expected once the flight's ten seats are gone
+                        }
+                    }
+                } catch (InterruptedException | FlightBookingSystemException ex) {
+                    throw new RuntimeException(ex);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(10, booked.get());
+        assertEquals(10, flight1.getPassengers().size());
+        assertEquals(10, fbs.getBookingsForFlight(1).size());
+    }
+
+    @Test
+    public void testConcurrentRebooksAcrossStripesDoNotDeadlock() throws Exception {
+        // 2 and 65, and 66 and 1, share the same two lock stripes
+        Flight flight65 = new Flight(65, "FL065", "Kathmandu", "Pokhara", LocalDate.of(2025, 3, 3), 10, 100.0, 10.0, 1);
+        Flight flight66 = new Flight(66, "FL066", "Pokhara", "Kathmandu", LocalDate.of(2025, 3, 4), 10, 100.0, 10.0, 1);
+        fbs.addFlight(flight65);
+        fbs.addFlight(flight66);
+        Booking forward = new Booking(1, customer, flight2, LocalDate.of(2025, 2, 1), 1);
+        Booking backward = new Booking(2, customer, flight66, LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(forward);
+        fbs.addBooking(backward);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (Flight[] pair : new Flight[][] { { flight2, flight65 }, { flight66, flight1 } }) {
+            Booking booking = pair[0] == flight2 ? forward : backward;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 20000; i++) {
+                        fbs.rebook(booking, customer, pair[(i + 1) % 2]);
+                    }
+                } catch (InterruptedException | FlightBookingSystemException ex) {
+                    throw new RuntimeException(ex);
+                }
+            });
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join(30000);
+            assertFalse(worker.isAlive());
+        }
+
+        assertSame(flight2, forward.getFlight());
+        assertSame(flight66, backward.getFlight());
+        assertEquals(1, flight2.getPassengers().size());
+        assertTrue(flight65.getPassengers().isEmpty());
+    }
+
+    @Test
+    public void testDirtyTracking() throws FlightBookingSystemException {
+        for (EntitySet set : EntitySet.values()) {
+            fbs.markStored(set, fbs.getVersion(set));
+            assertFalse(fbs.isDirty(set));
+        }
+
+        Booking booking = new Booking(1, customer, flight1, LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(booking);
+        assertTrue(fbs.isDirty(EntitySet.BOOKINGS));
+        assertFalse(fbs.isDirty(EntitySet.FLIGHTS));
+        assertFalse(fbs.isDirty(EntitySet.CUSTOMERS));
+
+        long captured = fbs.getVersion(EntitySet.BOOKINGS);
+        fbs.removeBooking(booking);
+        fbs.markStored(EntitySet.BOOKINGS, captured);
+        assertTrue(fbs.isDirty(EntitySet.BOOKINGS), "a change made while storing keeps the set dirty");
+
+        flight2.setPrice(150.0);
+        customer.setStatus(0);
+        assertTrue(fbs.isDirty(EntitySet.FLIGHTS));
+        assertTrue(fbs.isDirty(EntitySet.CUSTOMERS));
+    }
+
+    @Test
+    public void testSearchFlightsByRoute() throws FlightBookingSystemException {
+        Flight later = new Flight(3, "FL789", "Kathmandu", "Pokhara", LocalDate.of(2025, 3, 5), 10, 100.0, 10.0, 1);
+        Flight earlier = new Flight(4, "FL790", "Kathmandu", "Pokhara", LocalDate.of(2025, 2, 20), 10, 100.0, 10.0, 1);
+        Flight deleted = new Flight(5, "FL791", "Kathmandu", "Pokhara", LocalDate.of(2025, 3, 3), 10, 100.0, 10.0, 0);
+        fbs.addFlight(later);
+        fbs.addFlight(earlier);
+        fbs.addFlight(deleted);
+
+        List<Flight> found = fbs.searchFlights(" kathmandu", "POKHARA");
+        assertEquals(3, found.size());
+        assertSame(earlier, found.get(0));
+        assertSame(flight1, found.get(1));
+        assertSame(later, found.get(2));
+
+        found = fbs.searchFlights("Kathmandu", "Pokhara", LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 4));
+        assertEquals(1, found.size());
+        assertSame(flight1, found.get(0));
+        assertTrue(fbs.searchFlights("Kathmandu", "Biratnagar").isEmpty());
+    }
+
+    @Test
+    public void testRouteIndexFollowsFlightEdits() throws FlightBookingSystemException {
+        flight1.setDestination("Biratnagar");
+        assertTrue(fbs.searchFlights("Kathmandu", "Pokhara").isEmpty());
+        assertSame(flight1, fbs.searchFlights("Kathmandu", "Biratnagar").get(0));
+
+        flight1.setDepartureDate(LocalDate.of(2025, 4, 1));
+        assertTrue(fbs.searchFlights("Kathmandu", "Biratnagar", null, LocalDate.of(2025, 3, 31)).isEmpty());
+        assertSame(flight1, fbs.searchFlights("Kathmandu", "Biratnagar", LocalDate.of(2025, 4, 1), null).get(0));
+
+        fbs.removeFlight(flight1.getId());
+        assertTrue(fbs.searchFlights("Kathmandu", "Biratnagar").isEmpty());
+    }
+
+    @Test
+    public void testDepartureDateRangeViews() throws FlightBookingSystemException {
+        Collection<Flight> march = fbs.getFlightsDepartingBetween(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+        assertEquals(Arrays.asList(flight1, flight2), new ArrayList<>(march));
+
+        // The view is live: later additions, reschedules and removals show up in it
+        Flight flight3 = new Flight(3, "FL789", "Kathmandu", "Biratnagar", LocalDate.of(2025, 3, 15), 10, 100.0, 10.0, 1);
+        fbs.addFlight(flight3);
+        flight1.setDepartureDate(LocalDate.of(2025, 4, 1));
+        fbs.removeFlight(flight2.getId());
+        assertEquals(Arrays.asList(flight3), new ArrayList<>(march));
+
+        assertEquals(Arrays.asList(flight1), new ArrayList<>(fbs.getFlightsDepartingAfter(LocalDate.of(2025, 3, 15))));
+        assertEquals(Arrays.asList(flight3), new ArrayList<>(fbs.getFlightsDepartingBefore(LocalDate.of(2025, 4, 1))));
+        assertTrue(fbs.getFlightsDepartingBetween(LocalDate.of(2025, 4, 2), LocalDate.of(2025, 4, 1)).isEmpty());
+    }
+
+    @Test
+    public void testPublishesChangeEvents() throws FlightBookingSystemException {
+        List<String> events = new ArrayList<>();
+        fbs.addChangeListener(event -> events.add(event.getEntitySet() + " " + event.getType()));
+
+        Booking booking = new Booking(1, customer, flight1, LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(booking);
+        assertEquals(Arrays.asList("BOOKINGS ADDED", "FLIGHTS CHANGED", "CUSTOMERS CHANGED"), events);
+
+        events.clear();
+        fbs.removeBooking(booking);
+        assertEquals(Arrays.asList("BOOKINGS REMOVED", "FLIGHTS CHANGED", "CUSTOMERS CHANGED"), events);
+
+        events.clear();
+        flight1.setPrice(150.0);
+        flight1.setStatus(0);
+        customer.setStatus(0);
+        assertEquals(Arrays.asList("FLIGHTS CHANGED", "FLIGHTS MOVED", "CUSTOMERS MOVED"), events);
+
+        List<ChangeEvent> removed = new ArrayList<>();
+        fbs.addChangeListener(removed::add);
+        fbs.removeFlight(flight2.getId());
+        assertSame(flight2, removed.get(0).getEntity());
+        assertEquals(ChangeEvent.Type.REMOVED, removed.get(0).getType());
+        assertEquals(fbs.getVersion(FlightBookingSystem.EntitySet.FLIGHTS), removed.get(0).getVersion());
+
+        // Booking failures publish nothing
+        events.clear();
+        assertThrows(FlightBookingSystemException.class,
+                () -> fbs.addBooking(new Booking(2, customer, flight2, LocalDate.of(2025, 2, 1), 1)));
+        assertTrue(events.isEmpty());
+    }
+}
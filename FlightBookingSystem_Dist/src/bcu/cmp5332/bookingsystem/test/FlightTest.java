@@ -59,4 +59,24 @@ public class FlightTest {
         
         assertEquals(expectedDetails, flight.getDetailsLong());
     }
+
+    @Test
+    public void testSeatInventory() throws FlightBookingSystemException {
+        Flight small = new Flight(2, "FL124", "New York", "London", LocalDate.of(2024, 2, 16), 1, 500.00, 10.0, 1);
+        small.addPassenger(customer1);
+        assertEquals(0, small.getAvailableSeats());
+
+        small.removePassenger(customer1);
+        assertEquals(1, small.getAvailableSeats());
+        small.addPassenger(customer2);
+        assertEquals(0, small.getAvailableSeats());
+        assertEquals(Arrays.asList(customer2), small.getPassengers());
+    }
+
+    @Test(expected = FlightBookingSystemException.class)
+    public void testAddPassengerToFullFlight() throws FlightBookingSystemException {
+        Flight small = new Flight(2, "FL124", "New York", "London", LocalDate.of(2024, 2, 16), 1, 500.00, 10.0, 1);
+        small.addPassenger(customer1);
+        small.addPassenger(customer2);
+    }
 }
@@ -0,0 +1,86 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.GroupCommitter;
+import bcu.cmp5332.bookingsystem.data.JournalRecord;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class GroupCommitterTest {
+
+    private static JournalRecord record(int bookingId) {
+        Customer customer = new Customer(1, "John Doe", "1234567890", "john@example.com", 1);
+        Flight flight = new Flight(1, "U4701", "Kathmandu", "Pokhara", LocalDate.of(2025, 12, 12), 10, 1000.0, 100.0, 1);
+        return JournalRecord.added(new Booking(bookingId, customer, flight, LocalDate.of(2025, 2, 7), 1));
+    }
+
+    @Test
+    public void testQueuedRecordsAreCommittedTogether() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<Integer>> batches = new ArrayList<>();
+        GroupCommitter committer = new GroupCommitter((system, records) -> {
+            List<Integer> ids = new ArrayList<>();
+            for (JournalRecord record : records) {
+                ids.add(record.getBookingId());
+            }
+            batches.add(ids);
+            firstStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                throw new IOException(ex);
+            }
+        });
+
+        CompletableFuture<Void> first = committer.submit(fbs, record(1));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        // These queue up while the first batch is still being written
+        List<CompletableFuture<Void>> rest = new ArrayList<>();
+        for (int id = 2; id <= 5; id++) {
+            rest.add(committer.submit(fbs, record(id)));
+        }
+        assertFalse(first.isDone());
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<Void> future : rest) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(2, committer.getBatchCount());
+        assertEquals(5, committer.getRecordCount());
+        assertEquals(1, batches.get(0).size());
+        assertEquals(Arrays.asList(2, 3, 4, 5), batches.get(1));
+    }
+
+    @Test
+    public void testFailedBatchFailsEveryCaller() throws Exception {
+        GroupCommitter committer = new GroupCommitter((system, records) -> {
+            throw new IOException("disk full");
+        });
+
+        CompletableFuture<Void> future = committer.submit(new FlightBookingSystem(), record(1));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof IOException);
+        assertEquals(0, committer.getBatchCount());
+    }
+}
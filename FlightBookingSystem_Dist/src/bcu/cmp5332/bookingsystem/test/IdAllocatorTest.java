@@ -0,0 +1,54 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.IdAllocator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class IdAllocatorTest {
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempDirectory("ids").resolve("ids.txt");
+    }
+
+    @Test
+    public void testSequencesAreIndependent() {
+        IdAllocator allocator = new IdAllocator(file, 10);
+        assertEquals(1, allocator.nextFlightId());
+        assertEquals(2, allocator.nextFlightId());
+        assertEquals(1, allocator.nextCustomerId());
+        assertEquals(1, allocator.nextBookingId());
+    }
+
+    @Test
+    public void testIdsAreNotReusedAfterRestart() throws IOException {
+        IdAllocator allocator = new IdAllocator(file, 10);
+        int last = 0;
+        for (int i = 0; i < 15; i++) {
+            last = allocator.nextBookingId();
+        }
+
+        IdAllocator restarted = new IdAllocator(file, 10);
+        restarted.load();
+        assertTrue(restarted.nextBookingId() > last);
+    }
+
+    @Test
+    public void testReserveBlockAndObserve() {
+        IdAllocator allocator = new IdAllocator(file, 10);
+        assertEquals(1, allocator.reserve(IdAllocator.Sequence.FLIGHT, 50));
+        assertEquals(51, allocator.nextFlightId());
+
+        allocator.observe(IdAllocator.Sequence.CUSTOMER, 7);
+        assertEquals(8, allocator.nextCustomerId());
+    }
+}
@@ -0,0 +1,237 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.gui.IndexTableModel;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.ChangeEvent;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.EntityCount;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import javax.swing.event.TableModelEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class IndexTableModelTest {
+
+    private static final int SIZE = 5000;
+
+    private static IndexTableModel<Integer> evenNumbers(ConcurrentSkipListMap<Integer, Integer> index) {
+        return new IndexTableModel<Integer>(
+                from -> index.tailMap(from == null ? Integer.MIN_VALUE : from, true).values().iterator(),
+                value -> value % 2 == 0, Integer::compare)
+                .addColumn("Value", value -> value)
+                .addColumn("Half", value -> value / 2);
+    }
+
+    @Test
+    public void testReadsFilteredRowsInAnyOrder() {
+        ConcurrentSkipListMap<Integer, Integer> index = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < SIZE; i++) {
+            index.put(i, i);
+        }
+        IndexTableModel<Integer> model = evenNumbers(index);
+
+        assertEquals(SIZE / 2, model.getRowCount());
+        assertEquals(2, model.getColumnCount());
+        assertEquals("Half", model.getColumnName(1));
+        for (int row : new int[] { 0, 1, 2, 2000, 10, 2499, 1024, 1023, 1500 }) {
+            assertEquals(row * 2, model.getValueAt(row, 0));
+            assertEquals(row, model.getValueAt(row, 1));
+        }
+        assertNull(model.getRow(SIZE / 2));
+    }
+
+    @Test
+    public void testCountsChangesOnRefresh() {
+        ConcurrentSkipListMap<Integer, Integer> index = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < 10; i++) {
+            index.put(i, i);
+        }
+        IndexTableModel<Integer> model = evenNumbers(index);
+        assertEquals(5, model.getRowCount());
+
+        index.put(10, 10);
+        index.remove(0);
+        assertEquals(5, model.getRowCount());
+        model.refresh();
+        assertEquals(5, model.getRowCount());
+        assertEquals(2, model.getValueAt(0, 0));
+        assertEquals(10, model.getValueAt(4, 0));
+    }
+
+    @Test
+    public void testAppliesRowChanges() {
+        ConcurrentSkipListMap<Integer, Integer> index = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < SIZE; i++) {
+            index.put(i, i);
+        }
+        IndexTableModel<Integer> model = evenNumbers(index);
+        assertEquals(SIZE / 2, model.getRowCount());
+        List<String> fired = new ArrayList<>();
+        model.addTableModelListener(e -> fired.add(e.getType() + " " + e.getFirstRow()));
+
+        index.put(6000, 6000);
+        model.rowChanged(ChangeEvent.Type.ADDED, index.get(6000));
+        // Before every checkpoint, so they all have to shift
+        index.put(-2, -2);
+        model.rowChanged(ChangeEvent.Type.ADDED, -2);
+        // A checkpoint itself
+        Integer removed = index.remove(2048);
+        model.rowChanged(ChangeEvent.Type.REMOVED, removed);
+        model.rowChanged(ChangeEvent.Type.CHANGED, index.get(4000));
+        model.rowChanged(ChangeEvent.Type.ADDED, 7);
+
+        assertEquals(Arrays.asList(TableModelEvent.INSERT + " 2500", TableModelEvent.INSERT + " 0",
+                TableModelEvent.DELETE + " 1025", TableModelEvent.UPDATE + " 2000"), fired);
+        assertEquals(SIZE / 2 + 1, model.getRowCount());
+        IndexTableModel<Integer> fresh = evenNumbers(index);
+        assertEquals(fresh.getRowCount(), model.getRowCount());
+        for (int row = 0; row < fresh.getRowCount(); row += 97) {
+            assertEquals(fresh.getValueAt(row, 0), model.getValueAt(row, 0));
+        }
+        assertEquals(fresh.getValueAt(fresh.getRowCount() - 1, 0), model.getValueAt(model.getRowCount() - 1, 0));
+    }
+
+    @Test
+    public void testPassesOverChangesCountedByRecount() {
+        ConcurrentSkipListMap<Integer, Integer> index = new ConcurrentSkipListMap<>();
+        AtomicLong version = new AtomicLong();
+        for (int i = 0; i < 10; i++) {
+            index.put(i, i);
+            version.incrementAndGet();
+        }
+        IndexTableModel<Integer> model = evenNumbers(index).setVersionSource(version::get);
+        List<String> fired = new ArrayList<>();
+        model.addTableModelListener(e -> fired.add(e.getType() + " " + e.getFirstRow()));
+
+        // Made before the recount, but passed to the model after it
+        index.put(10, 10);
+        long added = version.incrementAndGet();
+        assertEquals(6, model.getRowCount());
+        model.rowChanged(ChangeEvent.Type.ADDED, 10, added);
+        model.rowChanged(ChangeEvent.Type.CHANGED, 4, added);
+        assertEquals(6, model.getRowCount());
+
+        // Made after the recount
+        index.put(12, 12);
+        model.rowChanged(ChangeEvent.Type.ADDED, 12, version.incrementAndGet());
+        Integer removed = index.remove(2);
+        model.rowChanged(ChangeEvent.Type.REMOVED, removed, version.incrementAndGet());
+
+        assertEquals(Arrays.asList(TableModelEvent.UPDATE + " 2", TableModelEvent.INSERT + " 6",
+                TableModelEvent.DELETE + " 1"), fired);
+        assertEquals(6, model.getRowCount());
+        assertEquals(12, model.getValueAt(5, 0));
+    }
+
+    @Test
+    public void testTakesRowCountFromCounter() {
+        ConcurrentSkipListMap<Integer, Integer> index = new ConcurrentSkipListMap<>();
+        AtomicLong version = new AtomicLong();
+        AtomicInteger evens = new AtomicInteger();
+        for (int i = 0; i < SIZE; i++) {
+            index.put(i, i);
+            version.incrementAndGet();
+            if (i % 2 == 0) {
+                evens.incrementAndGet();
+            }
+        }
+        AtomicInteger steps = new AtomicInteger();
+        IndexTableModel<Integer> model = new IndexTableModel<Integer>(from -> {
+            Iterator<Integer> rows = index.tailMap(from == null ? Integer.MIN_VALUE : from, true).values().iterator();
+            return new Iterator<Integer>() {
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public Integer next() {
+                    steps.incrementAndGet();
+                    return rows.next();
+                }
+            };
+        }, value -> value % 2 == 0, Integer::compare)
+                .addColumn("Value", value -> value)
+                .setRowCounter(() -> new EntityCount(evens.get(), version.get()));
+
+        assertEquals(SIZE / 2, model.getRowCount());
+        assertEquals(0, steps.get());
+        assertEquals(0, model.getValueAt(0, 0));
+        assertEquals(1, steps.get());
+
+        index.put(SIZE, SIZE);
+        evens.incrementAndGet();
+        model.rowChanged(ChangeEvent.Type.ADDED, SIZE, version.incrementAndGet());
+        Integer removed = index.remove(2);
+        evens.decrementAndGet();
+        model.rowChanged(ChangeEvent.Type.REMOVED, removed, version.incrementAndGet());
+        assertEquals(SIZE / 2, model.getRowCount());
+
+        // Refreshing, as a moved row does, rereads the count without walking
+        steps.set(0);
+        model.rowChanged(ChangeEvent.Type.MOVED, 4, version.incrementAndGet());
+        assertEquals(SIZE / 2, model.getRowCount());
+        assertEquals(0, steps.get());
+
+        // Checkpoints are rebuilt by the first walk, so later reads stay short
+        assertEquals(SIZE, model.getValueAt(SIZE / 2 - 1, 0));
+        assertEquals(2000, model.getValueAt(999, 0));
+        steps.set(0);
+        assertEquals(4002, model.getValueAt(2000, 0));
+        assertTrue(steps.get() <= 2 * IndexTableModel.CHECKPOINT_INTERVAL, "steps: " + steps.get());
+    }
+
+    @Test
+    public void testShowsBookingsMadeAfterCustomerViewIsCreated() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Customer customer = new Customer(1, "John Doe", "1234567890", "john@example.com", 1);
+        fbs.addCustomer(customer);
+        Flight first = new Flight(1, "FL123", "Kathmandu", "Pokhara", LocalDate.of(2025, 3, 1), 10, 100.0, 10.0, 1);
+        Flight second = new Flight(2, "FL456", "Pokhara", "Kathmandu", LocalDate.of(2025, 3, 2), 10, 100.0, 10.0, 1);
+        fbs.addFlight(first);
+        fbs.addFlight(second);
+        Booking booking = new Booking(1, customer, first, LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(booking);
+
+        // As MainWindow shows a customer's bookings
+        IndexTableModel<Booking> model = new IndexTableModel<>(customer.getBookingsView())
+                .addColumn("Flight No", row -> row.getFlight().getFlightNumber());
+        fbs.addChangeListener(event -> {
+            if (event.getEntity() == customer) {
+                model.refresh();
+            }
+        });
+        assertEquals(1, model.getRowCount());
+
+        fbs.addBooking(new Booking(2, customer, second, LocalDate.of(2025, 2, 2), 1));
+        assertEquals(2, model.getRowCount());
+        assertEquals("FL456", model.getValueAt(1, 0));
+
+        fbs.removeBooking(booking);
+        assertEquals(1, model.getRowCount());
+        assertEquals("FL456", model.getValueAt(0, 0));
+    }
+
+    @Test
+    public void testReadsList() {
+        IndexTableModel<String> model = new IndexTableModel<>(Arrays.asList("a", "b", "c"))
+                .addColumn("Name", name -> name);
+
+        assertEquals(3, model.getRowCount());
+        assertEquals("c", model.getValueAt(2, 0));
+        assertEquals("a", model.getValueAt(0, 0));
+    }
+}
@@ -0,0 +1,132 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.BookingJournal;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalCompactor;
+import bcu.cmp5332.bookingsystem.data.JournalRecord;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem.EntitySet;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class JournalCompactorTest {
+
+    private static FlightBookingSystem newSystem() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addCustomer(new Customer(1, "John Doe", "1234567890", "john@example.com", 1));
+        fbs.addFlight(new Flight(1, "FL123", "Kathmandu", "Pokhara", LocalDate.of(2025, 3, 1), 10, 100.0, 10.0, 1));
+        fbs.addFlight(new Flight(2, "FL456", "Pokhara", "Kathmandu", LocalDate.of(2025, 3, 2), 10, 100.0, 10.0, 1));
+        return fbs;
+    }
+
+    @Test
+    public void testKeepsRecordsAppendedDuringSnapshot() throws Exception {
+        FlightBookingSystem fbs = newSystem();
+        Path file = Files.createTempDirectory("journal").resolve("bookings.journal");
+        BookingJournal journal = new BookingJournal(file);
+        Booking first = new Booking(10, fbs.getCustomerByID(1), fbs.getFlightByID(1), LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(first);
+        journal.append(JournalRecord.added(first));
+        Booking second = new Booking(11, fbs.getCustomerByID(1), fbs.getFlightByID(2), LocalDate.of(2025, 2, 2), 1);
+
+        List<Booking> snapshot = new ArrayList<>();
+        JournalCompactor compactor = new JournalCompactor(fbs, journal, 0, 0, 1000, (flights, customers, bookings) -> {
+            snapshot.addAll(bookings);
+            // A booking made while the snapshot is being written
+            try {
+                fbs.addBooking(second);
+                journal.append(JournalRecord.added(second));
+            } catch (Exception ex) {
+                throw new IOException(ex);
+            }
+        });
+        compactor.compact();
+
+        assertEquals(1, snapshot.size());
+        assertEquals(10, snapshot.get(0).getId());
+        assertEquals(1, journal.getRecordCount());
+        // Only the bookings are snapshotted; the customers are left to their own store
+        assertTrue(fbs.isDirty(EntitySet.CUSTOMERS));
+        assertTrue(fbs.isDirty(EntitySet.BOOKINGS));
+
+        // Loading the snapshot and replaying what is left of the journal restores both
+        FlightBookingSystem loaded = newSystem();
+        loaded.addBooking(new Booking(10, loaded.getCustomerByID(1), loaded.getFlightByID(1),
+                LocalDate.of(2025, 2, 1), 1));
+        journal.close();
+        assertEquals(1, new BookingJournal(file).replay(loaded));
+        assertEquals(2, loaded.getBookings().size());
+        assertEquals(2, loaded.getBookingByID(11).getFlight().getId());
+    }
+
+    @Test
+    public void testDoesNotHoldUpStoresWhileWriting() throws Exception {
+        FlightBookingSystem fbs = newSystem();
+        Path file = Files.createTempDirectory("journal").resolve("bookings.journal");
+        BookingJournal journal = new BookingJournal(file);
+        Booking booking = new Booking(10, fbs.getCustomerByID(1), fbs.getFlightByID(1), LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(booking);
+        journal.append(JournalRecord.added(booking));
+
+        AtomicBoolean stored = new AtomicBoolean();
+        JournalCompactor compactor = new JournalCompactor(fbs, journal, 0, 0, 1000, (flights, customers, bookings) -> {
+            // A command storing flights and customers while the snapshot is written;
+            // nothing has changed in this system, so no data file is written
+            Thread command = new Thread(() -> {
+                try {
+                    FlightBookingSystemData.storeChanges(new FlightBookingSystem(), Collections.emptyList());
+                    stored.set(true);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            command.start();
+            try {
+                command.join(10000);
+            } catch (InterruptedException ex) {
+                throw new InterruptedIOException();
+            }
+        });
+        compactor.compact();
+
+        assertTrue(stored.get());
+        assertEquals(0, journal.getRecordCount());
+    }
+
+    @Test
+    public void testFailedSnapshotKeepsJournal() throws Exception {
+        FlightBookingSystem fbs = newSystem();
+        Path file = Files.createTempDirectory("journal").resolve("bookings.journal");
+        BookingJournal journal = new BookingJournal(file);
+        Booking booking = new Booking(10, fbs.getCustomerByID(1), fbs.getFlightByID(1), LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(booking);
+        journal.append(JournalRecord.added(booking));
+        long size = journal.size();
+
+        JournalCompactor compactor = new JournalCompactor(fbs, journal, 0, 0, 1000, (flights, customers, bookings) -> {
+            throw new IOException("disk full");
+        });
+
+        assertThrows(IOException.class, compactor::compact);
+        assertEquals(size, journal.size());
+        assertEquals(1, journal.getRecordCount());
+        assertTrue(fbs.isDirty(EntitySet.BOOKINGS));
+    }
+}
@@ -0,0 +1,38 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.http.JsonReader;
+import bcu.cmp5332.bookingsystem.http.JsonWriter;
+
+import java.util.Map;
+
+public class JsonTest {
+
+    @Test
+    public void testWriterEscapesAndSeparates() {
+        String json = new JsonWriter().beginObject()
+                .name("name").value("A \"quoted\"\nname")
+                .name("ids").beginArray().value(1).value(2).endArray()
+                .name("empty").beginArray().endArray()
+                .endObject().toString();
+        assertEquals("{\"name\":\"A \\\"quoted\\\"\\nname\",\"ids\":[1,2],\"empty\":[]}", json);
+    }
+
+    @Test
+    public void testReaderParsesFlatObject() {
+        Map<String, String> body = JsonReader.parseObject(" {\"customerId\": 3, \"name\": \"A \\\"B\\\"\", \"note\": null} ");
+        assertEquals("3", body.get("customerId"));
+        assertEquals("A \"B\"", body.get("name"));
+        assertTrue(!body.containsKey("note"));
+    }
+
+    @Test
+    public void testReaderRejectsMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> JsonReader.parseObject("{\"a\": 1"));
+        assertThrows(IllegalArgumentException.class, () -> JsonReader.parseObject("{\"a\": {\"b\": 1}}"));
+    }
+}
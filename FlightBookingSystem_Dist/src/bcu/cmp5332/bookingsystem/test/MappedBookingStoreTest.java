@@ -0,0 +1,105 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.JournalRecord;
+import bcu.cmp5332.bookingsystem.data.MappedBookingStore;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+public class MappedBookingStoreTest {
+
+    private static FlightBookingSystem newSystem() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addCustomer(new Customer(1, "John Doe", "1234567890", "john@example.com", 1));
+        fbs.addFlight(new Flight(1, "FL123", "Kathmandu", "Pokhara", LocalDate.of(2025, 3, 1), 10, 100.0, 10.0, 1));
+        fbs.addFlight(new Flight(2, "FL456", "Pokhara", "Kathmandu", LocalDate.of(2025, 3, 2), 10, 100.0, 10.0, 1));
+        return fbs;
+    }
+
+    @Test
+    public void testMutationsAreWrittenInPlace() throws Exception {
+        FlightBookingSystem fbs = newSystem();
+        Customer customer = fbs.getCustomerByID(1);
+        Booking first = new Booking(10, customer, fbs.getFlightByID(1), LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(first);
+
+        Path file = Files.createTempDirectory("mapped").resolve("bookings.dat");
+        MappedBookingStore store = new MappedBookingStore(file);
+        store.storeData(fbs);
+        long size = Files.size(file);
+
+        Booking second = new Booking(11, customer, fbs.getFlightByID(2), LocalDate.of(2025, 2, 2), 1);
+        fbs.addBooking(second);
+        store.apply(JournalRecord.added(second));
+        fbs.removeBooking(first);
+        store.apply(JournalRecord.cancelled(first));
+        store.close();
+
+        assertEquals(size, Files.size(file));
+        assertEquals(2, store.getRecordCount());
+
+        FlightBookingSystem loaded = newSystem();
+        new MappedBookingStore(file).loadData(loaded);
+        assertEquals(1, loaded.getBookings().size());
+        assertThrows(FlightBookingSystemException.class, () -> loaded.getBookingById(1, 1));
+        assertEquals(11, loaded.getBookingById(1, 2).getId());
+        assertEquals(LocalDate.of(2025, 2, 2), loaded.getBookingById(1, 2).getBookingDate());
+    }
+
+    @Test
+    public void testEditMovesRecordToNewFlight() throws Exception {
+        FlightBookingSystem fbs = newSystem();
+        Booking booking = new Booking(10, fbs.getCustomerByID(1), fbs.getFlightByID(1), LocalDate.of(2025, 2, 1), 1);
+        fbs.addBooking(booking);
+        Path file = Files.createTempDirectory("mapped").resolve("bookings.dat");
+        MappedBookingStore store = new MappedBookingStore(file);
+        store.storeData(fbs);
+
+        fbs.rebook(booking, booking.getCustomer(), fbs.getFlightByID(2));
+        store.apply(JournalRecord.edited(booking, 1));
+        store.close();
+
+        FlightBookingSystem loaded = newSystem();
+        new MappedBookingStore(file).loadData(loaded);
+        assertThrows(FlightBookingSystemException.class, () -> loaded.getBookingById(1, 1));
+        assertEquals(10, loaded.getBookingById(1, 2).getId());
+    }
+
+    @Test
+    public void testBookingsOfOneCustomerOnOneFlightKeepTheirOwnRecords() throws Exception {
+        FlightBookingSystem fbs = newSystem();
+        Path file = Files.createTempDirectory("mapped").resolve("bookings.dat");
+        MappedBookingStore store = new MappedBookingStore(file);
+        store.storeData(fbs);
+
+        Customer customer = fbs.getCustomerByID(1);
+        Booking first = new Booking(10, customer, fbs.getFlightByID(1), LocalDate.of(2025, 2, 1), 1);
+        Booking second = new Booking(11, customer, fbs.getFlightByID(1), LocalDate.of(2025, 2, 2), 1);
+        fbs.addBooking(first);
+        store.apply(JournalRecord.added(first));
+        fbs.addBooking(second);
+        store.apply(JournalRecord.added(second));
+        fbs.rebook(second, customer, fbs.getFlightByID(2));
+        store.apply(JournalRecord.edited(second, 1));
+        fbs.removeBooking(first);
+        store.apply(JournalRecord.cancelled(first));
+        store.close();
+
+        FlightBookingSystem loaded = newSystem();
+        new MappedBookingStore(file).loadData(loaded);
+        assertEquals(1, loaded.getBookings().size());
+        assertThrows(FlightBookingSystemException.class, () -> loaded.getBookingByID(10));
+        assertEquals(2, loaded.getBookingByID(11).getFlight().getId());
+        assertEquals(LocalDate.of(2025, 2, 2), loaded.getBookingByID(11).getBookingDate());
+    }
+}
@@ -0,0 +1,161 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.ParallelLoader;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelLoaderTest {
+
+    // Enough records for every file to be larger than ParallelLoader.MIN_CHUNK_BYTES
+    private static final int FLIGHTS = 6000;
+    private static final int CUSTOMERS = 6000;
+    private static final int BOOKINGS = 12000;
+
+    private static List<String> flightLines() {
+        List<String> lines = new ArrayList<>();
+        LocalDate date = LocalDate.of(2025, 3, 1);
+        for (int id = 1; id <= FLIGHTS; id++) {
+            lines.add(id + "::FL" + id + "::Kathmandu::Pokhara::" + date.plusDays(id % 365)
+                    + "::10::" + (100.0 + id) + "::10.0::1::");
+        }
+        return lines;
+    }
+
+    private static List<String> customerLines() {
+        List<String> lines = new ArrayList<>();
+        for (int id = 1; id <= CUSTOMERS; id++) {
+            lines.add(id + "::Customer " + id + "::98" + (10000000 + id) + "::customer" + id + "@example.com::1::");
+        }
+        return lines;
+    }
+
+    private static List<String> bookingLines() {
+        List<String> lines = new ArrayList<>();
+        LocalDate date = LocalDate.of(2025, 2, 1);
+        for (int id = 1; id <= BOOKINGS; id++) {
+            lines.add((id % CUSTOMERS + 1) + "::" + ((id * 7) % FLIGHTS + 1) + "::" + date.plusDays(id % 28)
+                    + "::1::" + id);
+        }
+        return lines;
+    }
+
+    private static Path write(Path directory, String name, List<String> lines, String separator) throws Exception {
+        Path file = directory.resolve(name);
+        Files.write(file, (String.join(separator, lines) + separator).getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static FlightBookingSystem loadSequentially(Path flights, Path customers, Path bookings)
+            throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        new FlightDataManager(flights).loadData(fbs);
+        new CustomerDataManager(customers).loadData(fbs);
+        new BookingDataManager(bookings).loadData(fbs);
+        return fbs;
+    }
+
+    private static FlightBookingSystem loadInParallel(Path flights, Path customers, Path bookings)
+            throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            new ParallelLoader(pool).load(fbs, flights, customers, bookings);
+        } finally {
+            pool.shutdown();
+        }
+        return fbs;
+    }
+
+    private static List<String> describe(FlightBookingSystem fbs) {
+        List<String> lines = new ArrayList<>();
+        for (Flight flight : fbs.getFlights()) {
+            lines.add(flight.getId() + " " + flight.getFlightNumber() + " " + flight.getOrigin() + " "
+                    + flight.getDestination() + " " + flight.getDepartureDate() + " " + flight.getCapacity() + " "
+                    + flight.getPrice() + " " + flight.getAvailableSeats());
+        }
+        for (Customer customer : fbs.getCustomers()) {
+            lines.add(customer.getId() + " " + customer.getName() + " " + customer.getPhone() + " "
+                    + customer.getEmail() + " " + customer.getBookings().size());
+        }
+        for (Booking booking : fbs.getBookings()) {
+            lines.add(booking.getId() + " " + booking.getCustomer().getId() + " " + booking.getFlight().getId()
+                    + " " + booking.getBookingDate() + " " + booking.getStatus());
+        }
+        lines.sort(null);
+        return lines;
+    }
+
+    private static void assertSameResult(Path flights, Path customers, Path bookings) throws Exception {
+        List<String> expected = describe(loadSequentially(flights, customers, bookings));
+        assertEquals(FLIGHTS + CUSTOMERS + BOOKINGS, expected.size());
+        assertEquals(expected, describe(loadInParallel(flights, customers, bookings)));
+    }
+
+    @Test
+    public void testLoadsTheSameAsSequentialLoader() throws Exception {
+        Path directory = Files.createTempDirectory("data");
+        Path flights = write(directory, "flights.txt", flightLines(), "\n");
+        assertTrue(Files.size(flights) > 256 * 1024);
+        assertSameResult(flights, write(directory, "customers.txt", customerLines(), "\n"),
+                write(directory, "bookings.txt", bookingLines(), "\n"));
+    }
+
+    @Test
+    public void testLoadsCrlfFilesTheSameAsSequentialLoader() throws Exception {
+        Path directory = Files.createTempDirectory("data");
+        assertSameResult(write(directory, "flights.txt", flightLines(), "\r\n"),
+                write(directory, "customers.txt", customerLines(), "\r\n"),
+                write(directory, "bookings.txt", bookingLines(), "\r\n"));
+    }
+
+    @Test
+    public void testReportsParseErrorsOnTheSameLine() throws Exception {
+        Path directory = Files.createTempDirectory("data");
+        Path flights = write(directory, "flights.txt", flightLines(), "\r\n");
+        Path customers = write(directory, "customers.txt", customerLines(), "\r\n");
+        Path bookings = write(directory, "bookings.txt", bookingLines(), "\r\n");
+
+        // Bad lines well past the first chunk of each file
+        List<String> lines = flightLines();
+        lines.set(4999, "5000::FL5000::Kathmandu::Pokhara::2025-03-01::ten::100.0::10.0::1::");
+        Path badFlights = write(directory, "bad-flights.txt", lines, "\r\n");
+        lines = customerLines();
+        lines.set(4321, "x::Customer::9800000000::customer@example.com::1::");
+        Path badCustomers = write(directory, "bad-customers.txt", lines, "\r\n");
+        lines = bookingLines();
+        lines.set(11000, "1::2::2025-02-01");
+        Path badBookings = write(directory, "bad-bookings.txt", lines, "\r\n");
+
+        assertSameError("on line 5000", badFlights, customers, bookings);
+        assertSameError("on line 4322", flights, badCustomers, bookings);
+        assertSameError("on line 11001", flights, customers, badBookings);
+    }
+
+    private static void assertSameError(String line, Path flights, Path customers, Path bookings) {
+        String expected = assertThrows(FlightBookingSystemException.class,
+                () -> loadSequentially(flights, customers, bookings)).getMessage();
+        String actual = assertThrows(FlightBookingSystemException.class,
+                () -> loadInParallel(flights, customers, bookings)).getMessage();
+        assertTrue(expected.contains(line), expected);
+        assertEquals(expected, actual);
+    }
+}
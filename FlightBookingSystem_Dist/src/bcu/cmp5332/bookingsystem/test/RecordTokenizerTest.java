@@ -0,0 +1,63 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.RecordTokenizer;
+
+import java.time.LocalDate;
+
+public class RecordTokenizerTest {
+
+    @Test
+    public void testReadsTypedFields() {
+        RecordTokenizer fields = new RecordTokenizer()
+                .reset("7::U4701::Kathmandu::Biratnagar::2025-12-12::10::1000.5::-0.25::1::");
+
+        assertEquals(7, fields.nextInt());
+        assertEquals("U4701", fields.next());
+        assertEquals("Kathmandu", fields.nextShared());
+        assertEquals("Biratnagar", fields.nextShared());
+        assertEquals(LocalDate.of(2025, 12, 12), fields.nextDate());
+        assertEquals(10, fields.nextInt());
+        assertEquals(1000.5, fields.nextDouble(), 0.0);
+        assertEquals(-0.25, fields.nextDouble(), 0.0);
+        assertEquals(1, fields.nextInt());
+        assertTrue(fields.hasNext());
+        assertEquals("", fields.next());
+        assertFalse(fields.hasNext());
+    }
+
+    @Test
+    public void testMatchesJdkParsers() {
+        RecordTokenizer fields = new RecordTokenizer();
+        for (String value : new String[] { "0.1", "1234.5678", "100", "1e3", "0.30000000000000004", "12345678901234567.89" }) {
+            assertEquals(Double.parseDouble(value), fields.reset(value).nextDouble(), 0.0);
+        }
+        assertEquals(Integer.MIN_VALUE, fields.reset("-2147483648").nextInt());
+        assertEquals(Integer.MAX_VALUE, fields.reset("2147483647").nextInt());
+        assertThrows(NumberFormatException.class, () -> fields.reset("2147483648").nextInt());
+        assertThrows(NumberFormatException.class, () -> fields.reset("12a").nextInt());
+        assertThrows(NumberFormatException.class, () -> fields.reset("").nextInt());
+    }
+
+    @Test
+    public void testSharedFieldsAreDeduplicated() {
+        RecordTokenizer fields = new RecordTokenizer();
+        String first = fields.reset(new StringBuilder("Pokhara::1")).nextShared();
+        String second = fields.reset("x::Pokhara", 3, 10).nextShared();
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testMissingFieldIsReported() {
+        RecordTokenizer fields = new RecordTokenizer().reset("1::2");
+        fields.nextInt();
+        fields.nextInt();
+        assertThrows(NumberFormatException.class, fields::nextInt);
+    }
+}
@@ -0,0 +1,82 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.JournalRecord;
+import bcu.cmp5332.bookingsystem.data.WriteBehindPersister;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class WriteBehindPersisterTest {
+
+    private static JournalRecord record(int bookingId) {
+        Customer customer = new Customer(1, "John Doe", "1234567890", "john@example.com", 1);
+        Flight flight = new Flight(1, "U4701", "Kathmandu", "Pokhara", LocalDate.of(2025, 12, 12), 10, 1000.0, 100.0, 1);
+        return JournalRecord.added(new Booking(bookingId, customer, flight, LocalDate.of(2025, 2, 7), 1));
+    }
+
+    @Test
+    public void testFlushesOnceEnoughMutationsQueue() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        CountDownLatch flushed = new CountDownLatch(1);
+        List<List<Integer>> flushes = Collections.synchronizedList(new ArrayList<>());
+        WriteBehindPersister persister = new WriteBehindPersister((system, bookings) -> {
+            List<Integer> ids = new ArrayList<>();
+            for (JournalRecord record : bookings) {
+                ids.add(record.getBookingId());
+            }
+            flushes.add(ids);
+            flushed.countDown();
+        }, TimeUnit.HOURS.toMillis(1), 3, 10);
+
+        persister.submit(fbs, record(1));
+        persister.submit(fbs, null);
+        persister.submit(fbs, record(2));
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1, 2), flushes.get(0));
+        // The count is updated after the sink returns; an empty flush waits for it
+        persister.flush();
+        assertEquals(1, persister.getFlushCount());
+    }
+
+    @Test
+    public void testFlushesAfterInterval() throws Exception {
+        CountDownLatch flushed = new CountDownLatch(1);
+        WriteBehindPersister persister = new WriteBehindPersister((system, bookings) -> flushed.countDown(),
+                50, 1000, 1000);
+
+        persister.submit(new FlightBookingSystem(), null);
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFlushReportsBackgroundFailure() throws Exception {
+        WriteBehindPersister persister = new WriteBehindPersister((system, bookings) -> {
+            throw new IOException("disk full");
+        }, TimeUnit.HOURS.toMillis(1), 1000, 1000);
+
+        persister.submit(new FlightBookingSystem(), record(1));
+
+        IOException ex = assertThrows(IOException.class, persister::flush);
+        assertEquals("disk full", ex.getMessage());
+        assertEquals(0, persister.getFlushCount());
+        // Reported once
+        persister.flush();
+    }
+}